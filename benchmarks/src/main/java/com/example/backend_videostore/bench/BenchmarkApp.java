@@ -0,0 +1,59 @@
+package com.example.backend_videostore.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.backend_videostore.BackendVideostoreApplication;
+import com.example.backend_videostore.search.MovieSearchIndex;
+
+/*
+  BenchmarkApp boots the real application for benchmarks, pointed at a MongoStandIn.
+
+  Everything else comes from the application's own configuration, so benchmarks measure
+  the same beans, caches and settings as production. Logging is reduced to warnings so
+  that log output does not distort the measurements.
+*/
+public final class BenchmarkApp {
+
+    private BenchmarkApp() {
+    }
+
+    /*
+       Starts the application with the given web type (NONE for service-level benchmarks)
+       and extra "--name=value" arguments, connected to the given MongoDB.
+    */
+    public static ConfigurableApplicationContext start(String mongoUri, WebApplicationType webType, String... args) {
+        List<String> arguments = new ArrayList<>(List.of(
+                "--spring.data.mongodb.uri=" + mongoUri + "/" + MongoStandIn.DATABASE,
+                "--spring.data.mongodb.database=" + MongoStandIn.DATABASE,
+                "--logging.level.root=WARN",
+                "--logging.level.org.springframework=WARN",
+                "--logging.level.com.example.backend_videostore=WARN",
+                // the load generator is a single client: it would only measure the rate limiter
+                "--security.rate-limit.enabled=false"));
+        arguments.addAll(List.of(args));
+
+        return new SpringApplicationBuilder(BackendVideostoreApplication.class)
+                .web(webType)
+                .run(arguments.toArray(String[]::new));
+    }
+
+    /*
+       Waits until CatalogBootstrap has loaded the catalog into memory,
+       so search and typeahead are measured on their in-memory path.
+    */
+    public static void awaitCatalogLoaded(ConfigurableApplicationContext context) throws InterruptedException {
+        MovieSearchIndex index = context.getBean(MovieSearchIndex.class);
+        long deadline = System.nanoTime() + 120_000_000_000L;
+        while (!index.isReady()) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("The catalog was not loaded within 2 minutes");
+            }
+            Thread.sleep(50);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.backend_videostore.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.backend_videostore.model.Movie;
+import com.example.backend_videostore.search.CatalogColumns;
+
+/*
+  CatalogColumnsBenchmark measures the browse queries of GET /api/movies/browse on the
+  columnar index, over a synthetic catalog of "catalogSize" titles (80% movies, 20% TV shows,
+  rental prices 0.99-5.99, purchase prices 4.99-24.99).
+
+  - firstPage: no filter, default order
+  - filterAndSortPage: TV shows with a rental price range, by descending purchase price
+  - priceSortPage: rental price range sorted by rental price, second page (cursor)
+  - build: a full rebuild of the snapshot, paid by the first query after a write
+
+  No MongoDB is needed: the index is measured on its own, as BrowseIndex uses it.
+*/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CatalogColumnsBenchmark {
+
+    @Param({"10000", "100000"})
+    private int catalogSize;
+
+    private List<Movie> movies;
+
+    private CatalogColumns columns;
+
+    private String secondPageCursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        movies = new ArrayList<>(catalogSize);
+        for (int i = 0; i < catalogSize; i++) {
+            double rental = 0.99 + random.nextInt(6);
+            double purchase = 4.99 + random.nextInt(21);
+            movies.add(new Movie(String.format("%024x", i), "Title " + random.nextInt(catalogSize), "Description",
+                    rental, purchase, "https://example.com/" + i + ".jpg", random.nextInt(5) == 0 ? "tvshow" : "movie", 0L));
+        }
+        columns = CatalogColumns.build(movies);
+        secondPageCursor = priceSort(null).nextCursor();
+    }
+
+    @Benchmark
+    public CatalogColumns.Result firstPage() {
+        return columns.query(new CatalogColumns.Query(Set.of(), CatalogColumns.PriceRange.ANY,
+                CatalogColumns.PriceRange.ANY, null, null, 50));
+    }
+
+    @Benchmark
+    public CatalogColumns.Result filterAndSortPage() {
+        return columns.query(new CatalogColumns.Query(Set.of("tvshow"), new CatalogColumns.PriceRange(1.0, 3.0),
+                CatalogColumns.PriceRange.ANY, "-purchasePrice", null, 50));
+    }
+
+    @Benchmark
+    public CatalogColumns.Result priceSortPage() {
+        return priceSort(secondPageCursor);
+    }
+
+    @Benchmark
+    public CatalogColumns build() {
+        return CatalogColumns.build(movies);
+    }
+
+    private CatalogColumns.Result priceSort(String after) {
+        return columns.query(new CatalogColumns.Query(Set.of(), new CatalogColumns.PriceRange(2.0, 4.0),
+                CatalogColumns.PriceRange.ANY, "rentalPrice", after, 50));
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.backend_videostore.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoDatabase;
+
+/*
+  CatalogSeeder fills the benchmark database with a synthetic catalog and one user.
+
+  The catalog is generated from a fixed random seed, so every run of a given size sees
+  the same titles, types and prices:
+  - titles are 2 to 4 words from a small vocabulary, so searches and prefixes match many movies
+  - about 80% are "movie" and 20% "tvshow"
+
+  Documents are written with the plain MongoDB driver before the application starts,
+  so the application's startup work (indexes, in-memory catalog) sees the final data.
+*/
+public final class CatalogSeeder {
+
+    /* Credentials of the seeded user, for login and authenticated requests */
+    public static final String USER_EMAIL = "bench@example.com";
+
+    public static final String USER_PASSWORD = "Bench-Pass1!";
+
+    /* Vocabulary of the generated titles; the load test searches for these words */
+    static final String[] WORDS = {
+            "dark", "night", "matrix", "return", "king", "star", "lost", "city", "river", "storm",
+            "silent", "empire", "last", "shadow", "iron", "golden", "secret", "garden", "winter", "fire",
+            "ocean", "hidden", "planet", "dream", "broken", "wild", "red", "blue", "song", "road"};
+
+    private static final int BATCH_SIZE = 1000;
+
+    private CatalogSeeder() {
+    }
+
+    /*
+       Drops the benchmark database and inserts "size" movies and the benchmark user.
+       Returns the IDs of the inserted movies.
+    */
+    public static List<String> seed(String uri, int size) {
+        try (MongoClient client = MongoClients.create(uri)) {
+            MongoDatabase database = client.getDatabase(MongoStandIn.DATABASE);
+            database.drop();
+
+            Random random = new Random(42);
+            List<String> ids = new ArrayList<>(size);
+            List<Document> batch = new ArrayList<>(BATCH_SIZE);
+            for (int i = 0; i < size; i++) {
+                ObjectId id = new ObjectId();
+                ids.add(id.toHexString());
+                batch.add(movie(id, i, random));
+                if (batch.size() == BATCH_SIZE) {
+                    database.getCollection("movies").insertMany(batch);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                database.getCollection("movies").insertMany(batch);
+            }
+
+            database.getCollection("users").insertOne(new Document("fullName", "Bench User")
+                    .append("email", USER_EMAIL)
+                    .append("password", new BCryptPasswordEncoder().encode(USER_PASSWORD)));
+            return ids;
+        }
+    }
+
+    private static Document movie(ObjectId id, int index, Random random) {
+        int words = 2 + random.nextInt(3);
+        StringBuilder title = new StringBuilder();
+        for (int w = 0; w < words; w++) {
+            String word = WORDS[random.nextInt(WORDS.length)];
+            title.append(w == 0 ? Character.toUpperCase(word.charAt(0)) + word.substring(1) : " " + word);
+        }
+
+        return new Document("_id", id)
+                .append("title", title + " " + index)
+                .append("shortDescription", "A story about " + WORDS[random.nextInt(WORDS.length)]
+                        + " and " + WORDS[random.nextInt(WORDS.length)] + ".")
+                .append("rentalPrice", 1.99 + random.nextInt(5))
+                .append("purchasePrice", 9.99 + random.nextInt(15))
+                .append("imageUrl", "https://example.com/posters/" + index + ".jpg")
+                .append("type", random.nextInt(5) == 0 ? "tvshow" : "movie")
+                .append("version", 0L)
+                .append("_class", "com.example.backend_videostore.model.Movie");
+    }
+}
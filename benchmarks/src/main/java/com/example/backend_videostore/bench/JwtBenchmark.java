@@ -0,0 +1,100 @@
+package com.example.backend_videostore.bench;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.example.backend_videostore.security.JwtAuthFilter;
+import com.example.backend_videostore.security.JwtUtil;
+
+import jakarta.servlet.ServletException;
+
+/*
+  JwtBenchmark measures token handling on the request path:
+  - generate: signing a new token (login)
+  - extract: verifying a token and reading its email
+  - filter: a whole pass of JwtAuthFilter over an authenticated request
+
+  -p cacheSize=0 disables the verified-token cache of JwtUtil, to compare
+  cached verification with a full signature check on every request.
+
+  No MongoDB is needed: the application starts without loading the catalog.
+*/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    @Param({"10000", "0"})
+    private int cacheSize;
+
+    private ConfigurableApplicationContext context;
+
+    private JwtUtil jwtUtil;
+
+    private JwtAuthFilter jwtAuthFilter;
+
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApp.start("mongodb://localhost:1", WebApplicationType.NONE,
+                "--security.jwt.cache.max-size=" + cacheSize,
+                "--movies.bootstrap.enabled=false",
+                "--movies.indexes.create=false",
+                "--movies.indexes.plan-check=off");
+        jwtUtil = context.getBean(JwtUtil.class);
+        jwtAuthFilter = context.getBean(JwtAuthFilter.class);
+        token = jwtUtil.generateToken(CatalogSeeder.USER_EMAIL);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String generate() {
+        return jwtUtil.generateToken(CatalogSeeder.USER_EMAIL);
+    }
+
+    @Benchmark
+    public String extract() {
+        return jwtUtil.extractEmail(token);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse filter() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/movies/add");
+        request.addHeader("Authorization", "Bearer " + token);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            jwtAuthFilter.doFilter(request, response, new MockFilterChain());
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        return response;
+    }
+}
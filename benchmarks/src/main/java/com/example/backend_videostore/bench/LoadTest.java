@@ -0,0 +1,331 @@
+package com.example.backend_videostore.bench;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/*
+  LoadTest drives the real application over HTTP at a fixed arrival rate and reports
+  latency percentiles per endpoint.
+
+  For every thread mode requested, it:
+  1. seeds the MongoStandIn with a fresh catalog
+  2. boots the application on a random port (platform threads, or virtual threads)
+  3. logs in once to get a token for the authenticated requests
+  4. sends a warmup run, then the measured run, picking each request from the mix
+
+  Requests are started on a fixed schedule (open model): the n-th request is due at
+  start + n / rate, whether or not earlier requests have completed. Its latency is measured
+  from that due time, not from the moment it was actually sent, so when the application
+  (or the client) falls behind, the waiting time is counted instead of silently dropped
+  (no coordinated omission).
+
+  Options (--name=value):
+  - rate: requests per second over all endpoints (default 200)
+  - duration / warmup: measured and warmup run lengths (default 60s / 15s)
+  - catalog-size: number of seeded movies (default 10000)
+  - mix: weights per endpoint, e.g. list:40,search:15,get:25,login:4,add:6,update:6,delete:4;
+    "checkout" (POST /api/orders with a new Idempotency-Key) is not in the default mix,
+    --mix=checkout:1 runs a release-day checkout peak on its own
+  - threads: platform, virtual, or both separated by a comma (default platform)
+  - report-dir: where the full .hgrm percentile distributions are written (default target/load)
+  - mongo-uri: use this MongoDB instead of an embedded one (same as -Dbench.mongo.uri)
+
+  Run with:
+    ./mvnw -f benchmarks/pom.xml compile exec:exec@load -Dload.args="--rate=500 --threads=platform,virtual"
+*/
+public final class LoadTest {
+
+    /* Latencies above this are recorded as this value (the histogram's upper bound) */
+    private static final long MAX_LATENCY_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private static final Pattern ID_PATTERN = Pattern.compile("\"id\"\\s*:\\s*\"([0-9a-f]{24})\"");
+
+    private static final Pattern TOKEN_PATTERN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+
+    /* The kinds of request the load is made of */
+    enum Endpoint {
+        LIST, SEARCH, GET, LOGIN, ADD, UPDATE, DELETE, CHECKOUT
+    }
+
+    private final Map<String, String> options;
+
+    private LoadTest(Map<String, String> options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        if (options.containsKey("mongo-uri")) {
+            System.setProperty("bench.mongo.uri", options.get("mongo-uri"));
+        }
+        new LoadTest(options).run();
+    }
+
+    private void run() throws Exception {
+        int rate = Integer.parseInt(options.getOrDefault("rate", "200"));
+        Duration duration = DurationStyle.detectAndParse(options.getOrDefault("duration", "60s"));
+        Duration warmup = DurationStyle.detectAndParse(options.getOrDefault("warmup", "15s"));
+        int catalogSize = Integer.parseInt(options.getOrDefault("catalog-size", "10000"));
+        Map<Endpoint, Integer> mix = parseMix(options.getOrDefault("mix",
+                "list:40,search:15,get:25,login:4,add:6,update:6,delete:4"));
+        Path reportDir = Path.of(options.getOrDefault("report-dir", "target/load"));
+        Files.createDirectories(reportDir);
+
+        try (MongoStandIn mongo = MongoStandIn.start()) {
+            for (String threads : options.getOrDefault("threads", "platform").split(",")) {
+                String mode = threads.trim();
+                List<String> ids = CatalogSeeder.seed(mongo.getUri(), catalogSize);
+                ConfigurableApplicationContext app = BenchmarkApp.start(mongo.getUri(), WebApplicationType.SERVLET,
+                        "--server.port=0",
+                        "--spring.threads.virtual.enabled=" + mode.equals("virtual"));
+                try {
+                    BenchmarkApp.awaitCatalogLoaded(app);
+                    int port = ((WebServerApplicationContext) app).getWebServer().getPort();
+                    Run load = new Run(URI.create("http://localhost:" + port), ids, mix);
+
+                    System.out.printf("%n[%s threads] warmup: %d req/s for %s%n", mode, rate, warmup);
+                    load.execute(rate, warmup);
+                    System.out.printf("[%s threads] measuring: %d req/s for %s%n", mode, rate, duration);
+                    Map<Endpoint, Result> results = load.execute(rate, duration);
+                    report(System.out, mode, results, duration);
+                    for (Map.Entry<Endpoint, Result> result : results.entrySet()) {
+                        try (PrintStream out = new PrintStream(Files.newOutputStream(
+                                reportDir.resolve(mode + "-" + result.getKey().name().toLowerCase() + ".hgrm")))) {
+                            result.getValue().histogram().outputPercentileDistribution(out, 1_000_000.0);
+                        }
+                    }
+                } finally {
+                    app.close();
+                }
+            }
+        }
+    }
+
+    /*
+       "list:40,search:15" -> {LIST=40, SEARCH=15}
+    */
+    private static Map<Endpoint, Integer> parseMix(String mix) {
+        Map<Endpoint, Integer> weights = new EnumMap<>(Endpoint.class);
+        for (String part : mix.split(",")) {
+            String[] entry = part.trim().split(":");
+            weights.put(Endpoint.valueOf(entry[0].trim().toUpperCase()), Integer.parseInt(entry[1].trim()));
+        }
+        return weights;
+    }
+
+    private static void report(PrintStream out, String mode, Map<Endpoint, Result> results, Duration duration) {
+        double seconds = duration.toNanos() / 1e9;
+        out.printf("%n[%s threads] latency in ms, measured from each request's scheduled start%n", mode);
+        out.printf("%-8s %9s %9s %8s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "req/s", "errors", "p50", "p99", "p99.9", "max");
+        for (Map.Entry<Endpoint, Result> entry : results.entrySet()) {
+            Histogram histogram = entry.getValue().histogram();
+            out.printf("%-8s %9d %9.1f %8d %9.2f %9.2f %9.2f %9.2f%n",
+                    entry.getKey().name().toLowerCase(),
+                    histogram.getTotalCount(),
+                    histogram.getTotalCount() / seconds,
+                    entry.getValue().errors(),
+                    histogram.getValueAtPercentile(50) / 1e6,
+                    histogram.getValueAtPercentile(99) / 1e6,
+                    histogram.getValueAtPercentile(99.9) / 1e6,
+                    histogram.getMaxValue() / 1e6);
+        }
+    }
+
+    /* Latencies and error count of one endpoint over a run */
+    record Result(Histogram histogram, long errors) {
+    }
+
+    /*
+       One application under load: sends the scheduled requests and records their latencies.
+    */
+    private static final class Run {
+
+        private final URI base;
+
+        private final List<String> seededIds;
+
+        private final List<Endpoint> weighted = new ArrayList<>();
+
+        /* IDs of movies created by ADD requests, consumed by DELETE requests */
+        private final ConcurrentLinkedDeque<String> createdIds = new ConcurrentLinkedDeque<>();
+
+        private final HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        private final Random random = new Random(7);
+
+        private String token;
+
+        Run(URI base, List<String> seededIds, Map<Endpoint, Integer> mix) throws IOException, InterruptedException {
+            this.base = base;
+            this.seededIds = seededIds;
+            mix.forEach((endpoint, weight) -> {
+                for (int i = 0; i < weight; i++) {
+                    weighted.add(endpoint);
+                }
+            });
+            HttpResponse<String> login = client.send(loginRequest(), HttpResponse.BodyHandlers.ofString());
+            Matcher matcher = TOKEN_PATTERN.matcher(login.body());
+            if (login.statusCode() != 200 || !matcher.find()) {
+                throw new IllegalStateException("Login failed: " + login.statusCode() + " " + login.body());
+            }
+            token = matcher.group(1);
+        }
+
+        /*
+           Sends requests at the given rate for the given time, then waits for the
+           outstanding ones and returns the results per endpoint.
+        */
+        Map<Endpoint, Result> execute(int rate, Duration duration) throws InterruptedException {
+            Map<Endpoint, Recorder> recorders = new EnumMap<>(Endpoint.class);
+            Map<Endpoint, LongAdder> errors = new EnumMap<>(Endpoint.class);
+            for (Endpoint endpoint : Endpoint.values()) {
+                recorders.put(endpoint, new Recorder(MAX_LATENCY_NANOS, 3));
+                errors.put(endpoint, new LongAdder());
+            }
+            AtomicInteger inFlight = new AtomicInteger();
+
+            long interval = TimeUnit.SECONDS.toNanos(1) / rate;
+            long start = System.nanoTime();
+            long end = start + duration.toNanos();
+            for (long n = 0; ; n++) {
+                long due = start + n * interval;
+                if (due >= end) {
+                    break;
+                }
+                long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+
+                Endpoint endpoint = weighted.get(random.nextInt(weighted.size()));
+                String deleteId = null;
+                if (endpoint == Endpoint.DELETE) {
+                    deleteId = createdIds.pollFirst();
+                    if (deleteId == null) {
+                        endpoint = Endpoint.ADD;
+                    }
+                }
+                Endpoint sent = endpoint;
+
+                inFlight.incrementAndGet();
+                client.sendAsync(request(sent, deleteId), HttpResponse.BodyHandlers.ofString())
+                        .whenComplete((response, failure) -> {
+                            long latency = System.nanoTime() - due;
+                            recorders.get(sent).recordValue(Math.min(latency, MAX_LATENCY_NANOS));
+                            if (failure != null || response.statusCode() >= 400) {
+                                errors.get(sent).increment();
+                            } else if (sent == Endpoint.ADD) {
+                                Matcher matcher = ID_PATTERN.matcher(response.body());
+                                if (matcher.find()) {
+                                    createdIds.add(matcher.group(1));
+                                }
+                            }
+                            inFlight.decrementAndGet();
+                        });
+            }
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+            while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+
+            Map<Endpoint, Result> results = new EnumMap<>(Endpoint.class);
+            for (Endpoint endpoint : Endpoint.values()) {
+                Histogram histogram = recorders.get(endpoint).getIntervalHistogram();
+                if (histogram.getTotalCount() > 0) {
+                    results.put(endpoint, new Result(histogram, errors.get(endpoint).sum()));
+                }
+            }
+            return results;
+        }
+
+        private HttpRequest request(Endpoint endpoint, String deleteId) {
+            return switch (endpoint) {
+                case LIST -> get("/api/movies?limit=50" + (random.nextInt(4) == 0 ? "&type=tvshow" : ""));
+                case SEARCH -> get("/api/movies/search?title="
+                        + CatalogSeeder.WORDS[random.nextInt(CatalogSeeder.WORDS.length)] + "&limit=20");
+                case GET -> get("/api/movies/" + randomSeededId());
+                case LOGIN -> loginRequest();
+                case ADD -> authenticated("/api/movies/add")
+                        .POST(json("{\"title\":\"Load test " + random.nextInt(1_000_000) + "\","
+                                + "\"shortDescription\":\"Created by the load test.\","
+                                + "\"rentalPrice\":2.99,\"purchasePrice\":12.99,"
+                                + "\"imageUrl\":\"https://example.com/load.jpg\",\"type\":\"movie\"}"))
+                        .build();
+                case UPDATE -> authenticated("/api/movies/" + randomSeededId())
+                        .method("PATCH", json("{\"rentalPrice\":" + (1 + random.nextInt(5)) + ".99}"))
+                        .build();
+                case DELETE -> authenticated("/api/movies/delete/" + deleteId).DELETE().build();
+                case CHECKOUT -> authenticated("/api/orders")
+                        .header("Idempotency-Key", UUID.randomUUID().toString())
+                        .POST(json("{\"movieId\":\"" + randomSeededId() + "\",\"kind\":\""
+                                + (random.nextInt(4) == 0 ? "PURCHASE" : "RENTAL") + "\"}"))
+                        .build();
+            };
+        }
+
+        private String randomSeededId() {
+            return seededIds.get(random.nextInt(seededIds.size()));
+        }
+
+        private HttpRequest get(String path) {
+            return HttpRequest.newBuilder(base.resolve(path)).GET().build();
+        }
+
+        private HttpRequest loginRequest() {
+            return HttpRequest.newBuilder(base.resolve("/api/users/login"))
+                    .header("Content-Type", "application/json")
+                    .POST(json("{\"email\":\"" + CatalogSeeder.USER_EMAIL + "\",\"password\":\""
+                            + CatalogSeeder.USER_PASSWORD + "\"}"))
+                    .build();
+        }
+
+        private HttpRequest.Builder authenticated(String path) {
+            return HttpRequest.newBuilder(base.resolve(path))
+                    .header("Authorization", "Bearer " + token)
+                    .header("Content-Type", "application/json");
+        }
+
+        private static HttpRequest.BodyPublisher json(String body) {
+            return HttpRequest.BodyPublishers.ofString(body);
+        }
+    }
+}
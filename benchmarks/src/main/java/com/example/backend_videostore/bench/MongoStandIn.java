@@ -0,0 +1,59 @@
+package com.example.backend_videostore.bench;
+
+import de.flapdoodle.embed.mongo.commands.ServerAddress;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+
+/*
+  MongoStandIn provides a local MongoDB for benchmarks, instead of the Atlas cluster
+  configured in application.properties.
+
+  - By default it starts an embedded mongod (downloaded once by flapdoodle and cached
+    under ~/.embedmongo) on a free port, and stops it on close().
+  - With -Dbench.mongo.uri=mongodb://host:port it uses that server instead, e.g. a mongod
+    started by hand or in Docker when the machine cannot download binaries.
+*/
+public final class MongoStandIn implements AutoCloseable {
+
+    /* Database used by every benchmark; it is dropped and re-seeded on each run */
+    public static final String DATABASE = "videostore-bench";
+
+    private final String uri;
+
+    private final TransitionWalker.ReachedState<RunningMongodProcess> embedded;
+
+    private MongoStandIn(String uri, TransitionWalker.ReachedState<RunningMongodProcess> embedded) {
+        this.uri = uri;
+        this.embedded = embedded;
+    }
+
+    /*
+       Connects to -Dbench.mongo.uri when set, otherwise starts an embedded mongod.
+    */
+    public static MongoStandIn start() {
+        String external = System.getProperty("bench.mongo.uri");
+        if (external != null && !external.isBlank()) {
+            return new MongoStandIn(external, null);
+        }
+
+        TransitionWalker.ReachedState<RunningMongodProcess> running = Mongod.instance().start(Version.Main.V7_0);
+        ServerAddress address = running.current().getServerAddress();
+        return new MongoStandIn("mongodb://" + address.getHost() + ":" + address.getPort(), running);
+    }
+
+    /*
+       Connection string of the server, without database.
+    */
+    public String getUri() {
+        return uri;
+    }
+
+    @Override
+    public void close() {
+        if (embedded != null) {
+            embedded.close();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.backend_videostore.bench;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.backend_videostore.model.Movie;
+import com.example.backend_videostore.model.MoviePage;
+import com.example.backend_videostore.service.MovieService;
+
+/*
+  MovieServiceBenchmark measures the main MovieService operations against a seeded
+  MongoStandIn, for catalogs of different sizes (-p catalogSize=...).
+
+  - listPage: first listing page (built from the CatalogReplica)
+  - findByType: every "tvshow" of the catalog (about 20% of it, from the CatalogReplica)
+  - search: full-text search through the in-memory index
+  - update: PATCH of one random movie's rental price (findAndModify + cache invalidation)
+*/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MovieServiceBenchmark {
+
+    @Param({"1000", "10000"})
+    private int catalogSize;
+
+    private MongoStandIn mongo;
+
+    private ConfigurableApplicationContext context;
+
+    private MovieService movieService;
+
+    private List<String> ids;
+
+    @Setup(Level.Trial)
+    public void setUp() throws InterruptedException {
+        mongo = MongoStandIn.start();
+        ids = CatalogSeeder.seed(mongo.getUri(), catalogSize);
+        context = BenchmarkApp.start(mongo.getUri(), WebApplicationType.NONE);
+        BenchmarkApp.awaitCatalogLoaded(context);
+        movieService = context.getBean(MovieService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        mongo.close();
+    }
+
+    @Benchmark
+    public MoviePage listPage() {
+        return movieService.getMoviesPage(null, null, 50, null);
+    }
+
+    @Benchmark
+    public List<Movie> findByType() {
+        return movieService.findByType("tvshow");
+    }
+
+    @Benchmark
+    public List<Movie> search() {
+        return movieService.searchByTitle("dark night", 20);
+    }
+
+    @Benchmark
+    public Movie update() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String id = ids.get(random.nextInt(ids.size()));
+        return movieService.patchMovie(id, Map.of("rentalPrice", 1.99 + random.nextInt(5)), null);
+    }
+}
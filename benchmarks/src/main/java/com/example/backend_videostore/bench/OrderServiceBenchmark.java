@@ -0,0 +1,80 @@
+package com.example.backend_videostore.bench;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.backend_videostore.model.Order;
+import com.example.backend_videostore.service.OrderService;
+
+/*
+  OrderServiceBenchmark measures checkout throughput (orders written per second) with
+  64 concurrent callers, each waiting for its order to be stored, as request threads do.
+
+  batchSize (orders.batch.max-size) compares group commit with writing orders one by one:
+  - 1: one bulk insert into "orders" and one into the ledger per order
+  - 500: everything that is waiting goes into the same two bulk inserts
+
+  Every checkout uses a new Idempotency-Key, so each one really writes an order.
+*/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(64)
+@Fork(1)
+public class OrderServiceBenchmark {
+
+    @Param({"1", "500"})
+    private int batchSize;
+
+    private MongoStandIn mongo;
+
+    private ConfigurableApplicationContext context;
+
+    private OrderService orderService;
+
+    private List<String> ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mongo = MongoStandIn.start();
+        ids = CatalogSeeder.seed(mongo.getUri(), 1000);
+        context = BenchmarkApp.start(mongo.getUri(), WebApplicationType.NONE,
+                "--orders.batch.max-size=" + batchSize, "--movies.bootstrap.enabled=false");
+        orderService = context.getBean(OrderService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        mongo.close();
+    }
+
+    @Benchmark
+    public Order checkout() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String id = ids.get(random.nextInt(ids.size()));
+        Order.Kind kind = random.nextInt(4) == 0 ? Order.Kind.PURCHASE : Order.Kind.RENTAL;
+        return orderService.checkout(CatalogSeeder.USER_EMAIL, id, kind, UUID.randomUUID().toString()).join();
+    }
+}
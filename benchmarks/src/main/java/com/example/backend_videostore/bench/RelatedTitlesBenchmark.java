@@ -0,0 +1,87 @@
+package com.example.backend_videostore.bench;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.backend_videostore.search.CoOccurrenceIndex;
+
+/*
+  RelatedTitlesBenchmark shows that reading and updating the "also rented" model
+  (CoOccurrenceIndex) costs the same whatever the size of the catalog and of the order history.
+
+  The index is filled with "orders" synthetic orders from orders / 10 users over a catalog
+  of "catalogSize" titles, picked with a skewed popularity (a few titles take most orders),
+  then compacted as the background job does.
+
+  - related: the 10 titles related to a random title
+  - record: one more order (a new title for a random user)
+
+  No MongoDB is needed: the index is measured on its own, as RelatedTitles uses it.
+*/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RelatedTitlesBenchmark {
+
+    @Param({"10000", "100000"})
+    private int catalogSize;
+
+    @Param({"100000", "1000000"})
+    private int orders;
+
+    private CoOccurrenceIndex index;
+
+    private String[] titles;
+
+    private int users;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        titles = new String[catalogSize];
+        for (int i = 0; i < catalogSize; i++) {
+            titles[i] = String.format("%024x", i);
+        }
+        users = Math.max(1, orders / 10);
+        index = new CoOccurrenceIndex(20, 20, 500, 1_000_000);
+
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < orders; i++) {
+            index.record("user" + random.nextInt(users), titles[skewed(random.nextDouble())]);
+        }
+        index.compact();
+    }
+
+    @Benchmark
+    public List<String> related() {
+        return index.related(titles[skewed(ThreadLocalRandom.current().nextDouble())], 10);
+    }
+
+    @Benchmark
+    public void record() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        index.record("user" + random.nextInt(users), titles[skewed(random.nextDouble())]);
+    }
+
+    /* Maps a uniform number to a title index, favouring the first titles */
+    private int skewed(double uniform) {
+        return (int) (catalogSize * Math.pow(uniform, 3));
+    }
+}
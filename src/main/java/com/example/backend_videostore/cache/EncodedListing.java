@@ -0,0 +1,19 @@
+package com.example.backend_videostore.cache;
+
+/*
+  EncodedListing is one page of GET /api/movies, already serialized to JSON.
+
+  - etag: the catalog version the page was read at (see CatalogVersion), or null during startup
+  - json: the response body as UTF-8 JSON bytes
+  - gzip: the same body gzip-compressed, or null when the body is too small to be worth it
+  - nextCursor: value of the X-Next-Cursor header, or null on the last page
+*/
+public record EncodedListing(String etag, byte[] json, byte[] gzip, String nextCursor) {
+
+    /*
+       Approximate memory used by this entry, in bytes, for the cache size limit.
+    */
+    public int weight() {
+        return json.length + (gzip != null ? gzip.length : 0) + 64;
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.backend_videostore.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import com.example.backend_videostore.config.CacheConfig;
+import com.example.backend_videostore.model.MoviePage;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/*
+  ListingResponseCache keeps catalog listing pages as ready-to-send bytes.
+
+  Even when a page comes straight from the in-memory replica, turning it into a response means
+  serializing every Movie with Jackson again. This cache stores the serialized JSON (and a
+  gzip-compressed copy) per listing request, so a hit only copies a byte array to the socket.
+
+  Entries are tagged with the catalog version they were built at. An entry built before the
+  latest write is treated as a miss and rebuilt by the next request for that page, so only
+  the pages clients actually ask for are re-encoded. Pages read while the catalog has no
+  version yet (null ETag, during startup) are encoded but not kept. MovieCacheInvalidator additionally
+  clears the cache on writes to release the memory early.
+
+  The cache itself is the "encodedListings" Caffeine cache from CacheConfig, bounded by bytes.
+*/
+@Component
+public class ListingResponseCache {
+
+    /* Bodies smaller than this are not compressed: gzip would save little and cost CPU on the client */
+    static final int GZIP_MIN_BYTES = 1024;
+
+    /* Injects the CacheManager defined in CacheConfig */
+    @Autowired
+    private CacheManager cacheManager;
+
+    /* Injects the ObjectMapper configured by Spring Boot, so the bytes match a normal response */
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /* 
+       Returns the encoded page for these listing parameters if it was built at the given
+       catalog version, or null.
+    */
+    public EncodedListing get(ListingKey key, String etag) {
+        if (etag == null) {
+            return null;
+        }
+        EncodedListing listing = cache().get(key, EncodedListing.class);
+        return listing != null && etag.equals(listing.etag()) ? listing : null;
+    }
+
+    /* 
+       Encodes a page read at the given catalog version, stores it (unless the version
+       is null) and returns it.
+    */
+    public EncodedListing put(ListingKey key, String etag, MoviePage page) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(page.getItems());
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+
+        EncodedListing listing = new EncodedListing(etag, json,
+                json.length >= GZIP_MIN_BYTES ? gzip(json) : null, page.getNextCursor());
+        if (etag != null) {
+            cache().put(key, listing);
+        }
+        return listing;
+    }
+
+    /* 
+       Returns true if an Accept-Encoding header allows a gzip body
+       ("gzip", "gzip;q=0.8", "*"; but not "gzip;q=0").
+    */
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.trim().split(";");
+            String coding = tokens[0].trim();
+            if (!coding.equalsIgnoreCase("gzip") && !coding.equals("*")) {
+                continue;
+            }
+            boolean refused = false;
+            for (int i = 1; i < tokens.length; i++) {
+                String param = tokens[i].trim().replace(" ", "");
+                if (param.startsWith("q=")) {
+                    refused = param.substring(2).matches("0(\\.0{0,3})?");
+                }
+            }
+            if (!refused) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return out.toByteArray();
+    }
+
+    private Cache cache() {
+        return cacheManager.getCache(CacheConfig.ENCODED_LISTINGS);
+    }
+
+    /* The parameters of a listing request, as sent by the client */
+    public record ListingKey(String type, String after, Integer limit, String fields) {
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.backend_videostore.cache;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import com.example.backend_videostore.config.CacheConfig;
+import com.example.backend_videostore.service.CatalogVersion;
+import com.example.backend_videostore.service.MovieChangedEvent;
+
+/*
+  MovieCacheInvalidator keeps the catalog caches consistent with the database.
+
+  On every MovieChangedEvent that reports a write (SAVED or DELETED) it:
+  - evicts exactly the changed IDs, under the current catalog version, from the movieById cache
+  - clears the encodedListings cache, because any page may contain (or now skip) a changed movie
+
+  Correctness does not depend on it: both caches are tagged with the catalog version (see
+  CatalogVersion), so an entry stored by a request that raced with the write is never served
+  once the write is complete. Evicting releases the memory early.
+*/
+@Component
+public class MovieCacheInvalidator {
+
+    /* Injects the CacheManager defined in CacheConfig */
+    @Autowired
+    private CacheManager cacheManager;
+
+    /* Injects the catalog version the movieById entries are keyed by */
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    /* 
+       Evicts the cache entries affected by a catalog change.
+    */
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onMovieChanged(MovieChangedEvent event) {
+        if (event.getKind() == MovieChangedEvent.Kind.LOADED) {
+            return;
+        }
+
+        // runs before CatalogVersion moves forward, so current() is still the version being read
+        Cache byId = cacheManager.getCache(CacheConfig.MOVIE_BY_ID);
+        if (byId != null) {
+            long version = catalogVersion.current();
+            event.getIds().forEach(id -> byId.evict(version + ":" + id));
+        }
+
+        Cache listings = cacheManager.getCache(CacheConfig.ENCODED_LISTINGS);
+        if (listings != null) {
+            listings.clear();
+        }
+    }
+}
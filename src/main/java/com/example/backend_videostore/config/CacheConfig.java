@@ -0,0 +1,64 @@
+package com.example.backend_videostore.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import com.example.backend_videostore.cache.EncodedListing;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/*
+  CacheConfig enables Spring's cache abstraction and defines the in-memory caches
+  used in front of MongoDB for catalog reads.
+
+  Caches:
+  - movieById: single movies looked up by ID (GET /api/movies/{id}), keyed by catalog version and ID
+  - encodedListings: pages of the catalog listing (GET /api/movies) already serialized (and gzipped),
+    tagged with their catalog version, see ListingResponseCache; bounded by total bytes rather than
+    by entry count
+
+  All are Caffeine caches with a maximum size (least recently/frequently used entries
+  are evicted first) and a time-to-live. Statistics are recorded so that Spring Boot
+  Actuator publishes hit, miss and eviction counts as "cache.*" metrics.
+
+  Entries are invalidated on writes by MovieCacheInvalidator.
+*/
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String MOVIE_BY_ID = "movieById";
+
+    public static final String ENCODED_LISTINGS = "encodedListings";
+
+    /* 
+       Builds the CacheManager with one Caffeine cache per name,
+       each sized and timed from application.properties.
+    */
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${movies.cache.by-id.max-size:10000}") long byIdMaxSize,
+            @Value("${movies.cache.by-id.ttl:10m}") Duration byIdTtl,
+            @Value("${movies.cache.listings.ttl:1m}") Duration listingsTtl,
+            @Value("${movies.cache.encoded-listings.max-bytes:64MB}") DataSize encodedMaxBytes) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(MOVIE_BY_ID, Caffeine.newBuilder()
+                .maximumSize(byIdMaxSize)
+                .expireAfterWrite(byIdTtl)
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(ENCODED_LISTINGS, Caffeine.newBuilder()
+                .maximumWeight(encodedMaxBytes.toBytes())
+                .weigher((Object key, Object value) -> ((EncodedListing) value).weight())
+                .expireAfterWrite(listingsTtl)
+                .recordStats()
+                .build());
+        return cacheManager;
+    }
+}
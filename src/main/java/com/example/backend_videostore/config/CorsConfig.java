@@ -2,12 +2,16 @@ package com.example.backend_videostore.config;
 
 import java.util.List;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import com.example.backend_videostore.controller.MovieController;
+
 /* 
    This class defines a CORS configuration for the backend using Spring Boot.
    CORS (Cross-Origin Resource Sharing) allows the frontend (hosted on another domain)
@@ -21,23 +25,41 @@ public class CorsConfig {
 
        It allows:
        - Requests from the frontend deployed at "https://front-videostore.vercel.app"
-       - HTTP methods: GET, POST, PUT, DELETE, OPTIONS
+       - HTTP methods: GET, POST, PUT, PATCH, DELETE, OPTIONS
        - All headers
+       - Reading the X-Next-Cursor pagination header and the ETag (movie version) from responses
        - Credential sharing (cookies, tokens)
 
        The configuration is registered for all endpoints using "/**".
     */
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
+        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+        source.registerCorsConfiguration("/**", corsConfiguration());
+        return source;
+    }
+
+    /* 
+       Same CORS settings for the reactive (WebFlux) stack, used by ReactiveSecurityConfig
+       when the application runs with the "reactive" profile.
+    */
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    public org.springframework.web.cors.reactive.CorsConfigurationSource reactiveCorsConfigurationSource() {
+        org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource source =
+                new org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource();
+        source.registerCorsConfiguration("/**", corsConfiguration());
+        return source;
+    }
+
+    private CorsConfiguration corsConfiguration() {
         CorsConfiguration config = new CorsConfiguration();
 
         config.setAllowedOriginPatterns(List.of("https://front-videostore.vercel.app"));
-        config.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+        config.setAllowedMethods(List.of("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
         config.setAllowedHeaders(List.of("*"));
+        config.setExposedHeaders(List.of(MovieController.NEXT_CURSOR_HEADER, HttpHeaders.ETAG));
         config.setAllowCredentials(true);
-
-        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
-        source.registerCorsConfiguration("/**", config);
-        return source;
+        return config;
     }
 }
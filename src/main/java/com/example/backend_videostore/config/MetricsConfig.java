@@ -0,0 +1,65 @@
+package com.example.backend_videostore.config;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionPoolListener;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/*
+  MetricsConfig adds the metrics Spring Boot does not publish by itself.
+
+  Spring Boot Actuator already times:
+  - every HTTP handler (http.server.requests, tagged by uri, method and status)
+  - every repository method, including the custom fragments (spring.data.repository.invocations)
+  - every MongoDB command sent by the driver (mongodb.driver.commands)
+  and reports the connection pool size (mongodb.driver.pool.*).
+
+  What it does not measure is how long a request waits for a pooled MongoDB connection.
+  When the pool is exhausted, that wait shows up as slow repository calls even though the
+  database itself is fast; the timer below ("mongodb.driver.pool.checkout") tells the two apart.
+
+  JWT verification (jwt.verify, see JwtUtil) and BCrypt (bcrypt, see PasswordConfig) are timed
+  where they run. Percentile histograms for all of these are enabled in application.properties
+  and scraped from /actuator/prometheus, which requires a JWT like the other actuator endpoints.
+*/
+@Configuration
+public class MetricsConfig {
+
+    /* 
+       Registers a pool listener on the MongoDB client (used by both the blocking and the
+       reactive driver) that records the time spent checking out each connection.
+    */
+    @Bean
+    public MongoClientSettingsBuilderCustomizer connectionCheckoutMetrics(MeterRegistry meterRegistry) {
+        Timer checkedOut = checkoutTimer(meterRegistry, "success");
+        Timer failed = checkoutTimer(meterRegistry, "failed");
+
+        ConnectionPoolListener listener = new ConnectionPoolListener() {
+            @Override
+            public void connectionCheckedOut(ConnectionCheckedOutEvent event) {
+                checkedOut.record(event.getElapsedTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+            }
+
+            @Override
+            public void connectionCheckOutFailed(ConnectionCheckOutFailedEvent event) {
+                failed.record(event.getElapsedTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+            }
+        };
+        return builder -> builder.applyToConnectionPoolSettings(pool -> pool.addConnectionPoolListener(listener));
+    }
+
+    private static Timer checkoutTimer(MeterRegistry meterRegistry, String result) {
+        return Timer.builder("mongodb.driver.pool.checkout")
+                .description("Time spent waiting for a pooled MongoDB connection")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.backend_videostore.config;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+/*
+  PasswordConfig defines how passwords are hashed and where the hashing runs.
+
+  BCrypt is deliberately slow (tens of milliseconds per hash at the default cost).
+  Running it on Tomcat request threads lets a burst of logins use up the thread pool
+  and delay catalog requests, so hashing runs on its own small, bounded executor instead.
+*/
+@Configuration
+public class PasswordConfig {
+
+    /* 
+       Single application-wide BCrypt encoder.
+       The cost (log2 of the number of rounds) is set by security.bcrypt.cost;
+       raising it makes existing hashes "outdated", and they are upgraded on the next login.
+
+       Every hash and verification is timed as "bcrypt" (tag operation=hash|verify),
+       so slow logins can be told apart from slow database lookups.
+    */
+    @Bean
+    public PasswordEncoder passwordEncoder(@Value("${security.bcrypt.cost:10}") int cost, MeterRegistry meterRegistry) {
+        return new TimedPasswordEncoder(new BCryptPasswordEncoder(cost), meterRegistry);
+    }
+
+    /* 
+       Executor that runs BCrypt work.
+       - threads: number of hashing threads (0 = half of the CPU cores, at least 1)
+       - queue-capacity: hashing tasks allowed to wait for a thread
+
+       When all threads are busy and the queue is full, new tasks are rejected immediately
+       (RejectedExecutionException), which the controllers turn into 429 Too Many Requests.
+
+       Queue length, active threads and rejections are published as "executor.*" metrics
+       with name=passwordHashing.
+    */
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolExecutor passwordHashingExecutor(
+            @Value("${security.bcrypt.threads:0}") int threads,
+            @Value("${security.bcrypt.queue-capacity:64}") int queueCapacity,
+            MeterRegistry meterRegistry) {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadCount = new AtomicInteger();
+
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "bcrypt-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        new ExecutorServiceMetrics(executor, "passwordHashing", Tags.empty()).bindTo(meterRegistry);
+        return executor;
+    }
+
+    /* 
+       Executor for the database calls around BCrypt work: the user lookup before a login and the
+       writes that follow (saving a new user, an upgraded hash). They must not run on
+       passwordHashingExecutor: a slow database would hold its few threads and turn into 429s on
+       login. Nor may the lookup run on the request thread, which under the reactive profile is
+       an event-loop thread. One virtual thread per call; the MongoDB connection pool bounds how
+       many of them reach the database at once.
+    */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService userStoreExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("user-store-", 0).factory());
+    }
+
+    /* 
+       PasswordEncoder that times the work of the encoder it wraps.
+    */
+    private static final class TimedPasswordEncoder implements PasswordEncoder {
+
+        private final PasswordEncoder delegate;
+
+        private final Timer hashTimer;
+
+        private final Timer verifyTimer;
+
+        private TimedPasswordEncoder(PasswordEncoder delegate, MeterRegistry meterRegistry) {
+            this.delegate = delegate;
+            this.hashTimer = Timer.builder("bcrypt").tag("operation", "hash").register(meterRegistry);
+            this.verifyTimer = Timer.builder("bcrypt").tag("operation", "verify").register(meterRegistry);
+        }
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return hashTimer.record(() -> delegate.encode(rawPassword));
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return verifyTimer.record(() -> delegate.matches(rawPassword, encodedPassword));
+        }
+
+        @Override
+        public boolean upgradeEncoding(String encodedPassword) {
+            return delegate.upgradeEncoding(encodedPassword);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.backend_videostore.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.HttpStatusServerEntryPoint;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+
+import com.example.backend_videostore.security.JwtAuthWebFilter;
+import com.example.backend_videostore.security.JwtUtil;
+
+/* 
+   ReactiveSecurityConfig is the WebFlux version of SecurityConfig, active with the "reactive" profile.
+
+   It expresses the same rules:
+   - CORS enabled, CSRF disabled, no session (the security context is never stored)
+   - the same public and authenticated routes, in the same order
+   - JWT authentication through JwtAuthWebFilter, placed where the authentication filters run
+   - requests without valid authentication on protected routes get 403, as in the servlet mode
+
+   Only the routes served in this mode are listed. The bulk endpoints (/api/movies/bulk), checkout
+   (/api/orders) and the library (/api/users/me/library) are servlet-only: their controllers are
+   conditional on a servlet web application, so here they fall through to denyAll and get 403.
+*/
+@Configuration
+@EnableWebFluxSecurity
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveSecurityConfig {
+
+    /* Injects JwtUtil, shared with the servlet JwtAuthFilter */
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
+        return http
+            .cors(cors -> {})
+            .csrf(csrf -> csrf.disable())
+            .httpBasic(basic -> basic.disable())
+            .formLogin(form -> form.disable())
+            .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+            .exceptionHandling(exceptions -> exceptions
+                .authenticationEntryPoint(new HttpStatusServerEntryPoint(HttpStatus.FORBIDDEN)))
+            .authorizeExchange(auth -> auth
+                .pathMatchers(HttpMethod.POST, "/api/users/register").permitAll()
+                .pathMatchers(HttpMethod.POST, "/api/users/login").permitAll()
+                .pathMatchers(HttpMethod.GET, "/api/movies/export").authenticated()
+                .pathMatchers(HttpMethod.GET, "/api/movies").permitAll()
+                .pathMatchers(HttpMethod.GET, "/api/movies/browse").permitAll()
+                .pathMatchers(HttpMethod.GET, "/api/movies/search").permitAll()
+                .pathMatchers(HttpMethod.GET, "/api/movies/suggest").permitAll()
+                .pathMatchers(HttpMethod.GET, "/api/movies/trending").permitAll()
+                .pathMatchers(HttpMethod.GET, "/api/movies/{id}").permitAll()
+                .pathMatchers(HttpMethod.GET, "/api/movies/{id}/related").permitAll()
+                .pathMatchers(HttpMethod.POST, "/api/movies/add").authenticated()
+                .pathMatchers(HttpMethod.PUT, "/api/movies/update/**").authenticated()
+                .pathMatchers(HttpMethod.PATCH, "/api/movies/{id}").authenticated()
+                .pathMatchers(HttpMethod.DELETE, "/api/movies/delete/**").authenticated()
+                .pathMatchers(HttpMethod.GET, "/actuator/health").permitAll()
+                .pathMatchers(HttpMethod.GET, "/actuator/**").authenticated()
+                .anyExchange().denyAll()
+            )
+            .addFilterAt(new JwtAuthWebFilter(jwtUtil), SecurityWebFiltersOrder.AUTHENTICATION)
+            .build();
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.backend_videostore.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/*
+  SchedulingConfig enables @Scheduled methods, used for periodic background work
+  such as refreshing the popularity ranking of typeahead suggestions.
+*/
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,6 +1,7 @@
 package com.example.backend_videostore.config;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -10,13 +11,20 @@ import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 import com.example.backend_videostore.security.JwtAuthFilter;
+import com.example.backend_videostore.security.RateLimitFilter;
+
+import jakarta.servlet.DispatcherType;
 
 /* 
    SecurityConfig defines the security rules for the backend using Spring Security.
    It sets up which endpoints are public, which require authentication,
    and integrates a custom JWT filter for token-based authentication.
+
+   Applies to the default (servlet) mode; ReactiveSecurityConfig mirrors these rules
+   for the "reactive" profile.
 */
 @Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class SecurityConfig {
 
     /* 
@@ -26,6 +34,13 @@ public class SecurityConfig {
     @Autowired
     private JwtAuthFilter jwtAuthFilter;
 
+    /* 
+       Injects the per-client rate limiter, which runs right after the JWT filter
+       so that authenticated users are limited by email rather than by IP.
+    */
+    @Autowired
+    private RateLimitFilter rateLimitFilter;
+
     /* 
        Defines the security filter chain for HTTP requests.
 
@@ -38,13 +53,29 @@ public class SecurityConfig {
            - POST /api/users/register
            - POST /api/users/login
            - GET /api/movies
+           - GET /api/movies/browse
            - GET /api/movies/search
+           - GET /api/movies/suggest
+           - GET /api/movies/trending
            - GET /api/movies/{id}
+           - GET /api/movies/{id}/related
+           - GET /actuator/health
          • Authenticated access required for:
+           - GET /api/movies/export (checked before /api/movies/{id}, which would also match it)
            - POST /api/movies/add
            - PUT /api/movies/update/**
+           - PATCH /api/movies/{id}
            - DELETE /api/movies/delete/**
-       - Adds the custom JWT filter before the standard authentication filter.
+           - POST, PUT and DELETE /api/movies/bulk
+           - POST and GET /api/orders (rentals and purchases of the logged-in user)
+           - GET /api/users/me/** (library of the logged-in user)
+           - GET /actuator/** (metrics, including /actuator/prometheus: the metrics reveal
+             traffic, users and internals, so Prometheus scrapes with a bearer token too)
+       - Async dispatches are permitted: they only write the result of a request that was
+         authorized on its original dispatch (e.g. the CompletableFuture of POST /api/orders),
+         and the stateless JWT authentication is not carried over to them.
+       - Adds the custom JWT filter before the standard authentication filter,
+         followed by the rate limiter (429 Too Many Requests for clients over their budget).
     */
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
@@ -53,16 +84,29 @@ public class SecurityConfig {
             .csrf(csrf -> csrf.disable())
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .requestMatchers(HttpMethod.POST, "/api/users/register").permitAll()
                 .requestMatchers(HttpMethod.POST, "/api/users/login").permitAll()
+                .requestMatchers(HttpMethod.GET, "/api/movies/export").authenticated()
                 .requestMatchers(HttpMethod.GET, "/api/movies").permitAll()
+                .requestMatchers(HttpMethod.GET, "/api/movies/browse").permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/movies/search").permitAll()
+                .requestMatchers(HttpMethod.GET, "/api/movies/suggest").permitAll()
+                .requestMatchers(HttpMethod.GET, "/api/movies/trending").permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/movies/{id}").permitAll()
+                .requestMatchers(HttpMethod.GET, "/api/movies/{id}/related").permitAll()
                 .requestMatchers(HttpMethod.POST, "/api/movies/add").authenticated()
                 .requestMatchers(HttpMethod.PUT, "/api/movies/update/**").authenticated()
+                .requestMatchers(HttpMethod.PATCH, "/api/movies/{id}").authenticated()
                 .requestMatchers(HttpMethod.DELETE, "/api/movies/delete/**").authenticated()
+                .requestMatchers("/api/movies/bulk").authenticated()
+                .requestMatchers("/api/orders").authenticated()
+                .requestMatchers(HttpMethod.GET, "/api/users/me/**").authenticated()
+                .requestMatchers(HttpMethod.GET, "/actuator/health").permitAll()
+                .requestMatchers(HttpMethod.GET, "/actuator/**").authenticated()
             )
             .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+            .addFilterAfter(rateLimitFilter, JwtAuthFilter.class)
             .build();
     }
 }
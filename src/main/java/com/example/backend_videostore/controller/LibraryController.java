@@ -0,0 +1,60 @@
+package com.example.backend_videostore.controller;
+
+import java.security.Principal;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.backend_videostore.model.LibraryItem;
+import com.example.backend_videostore.service.LibraryService;
+
+/*
+  LibraryController exposes the library of the authenticated user: the movies they
+  have bought or are currently renting (see LibraryService).
+
+  Endpoints under /api/users/me/library:
+  - GET /: every active rental and purchase
+  - GET /{movieId}: the entitlement check done before playback;
+    200 with the rental or purchase, 404 if the user may not watch the movie
+
+  Both are answered from memory once the user's library has been loaded; a 404 and the
+  listing first look for orders placed through other instances (see LibraryService).
+*/
+@CrossOrigin
+@RestController
+@RequestMapping("/api/users/me/library")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class LibraryController {
+
+    /* Injects the LibraryService which keeps the libraries in memory */
+    @Autowired
+    private LibraryService libraryService;
+
+    /* 
+       GET /api/users/me/library
+       Returns the user's active rentals and purchases.
+    */
+    @GetMapping
+    public List<LibraryItem> getLibrary(Principal principal) {
+        return libraryService.getLibrary(principal.getName());
+    }
+
+    /* 
+       GET /api/users/me/library/{movieId}
+       Returns the user's active rental or purchase of a movie, or 404 Not Found.
+    */
+    @GetMapping("/{movieId}")
+    public ResponseEntity<LibraryItem> getEntitlement(@PathVariable String movieId, Principal principal) {
+        return libraryService.getEntitlement(principal.getName(), movieId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+    }
+}
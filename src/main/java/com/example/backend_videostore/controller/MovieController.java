@@ -1,22 +1,57 @@
 package com.example.backend_videostore.controller;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import jakarta.servlet.http.HttpServletRequest;
+
+import com.example.backend_videostore.cache.EncodedListing;
+import com.example.backend_videostore.cache.ListingResponseCache;
+import com.example.backend_videostore.model.BulkResult;
 import com.example.backend_videostore.model.Movie;
+import com.example.backend_videostore.model.MovieBrowsePage;
+import com.example.backend_videostore.search.RelatedTitles;
+import com.example.backend_videostore.service.CatalogNotReadyException;
+import com.example.backend_videostore.service.CatalogVersion;
+import com.example.backend_videostore.service.InvalidBulkItemException;
+import com.example.backend_videostore.service.MovieBulkService;
 import com.example.backend_videostore.service.MovieService;
+import com.example.backend_videostore.service.PopularityTracker;
+import com.example.backend_videostore.service.TrendingTitles;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
 
 /*
   MovieController handles all incoming HTTP requests related to movies and TV shows.
@@ -25,23 +60,70 @@ import com.example.backend_videostore.service.MovieService;
 
   Supports:
   - Adding a new movie
-  - Getting all movies or filtering by type (movie / tvshow)
+  - Listing movies page by page, optionally filtered by type (movie / tvshow)
+  - Browsing with price range filters, sort orders and type facets
   - Getting a single movie by its ID
+  - Titles often rented or bought together with a movie
+  - Trending titles (most viewed and searched lately)
   - Searching for movies by title
-  - Updating a movie by ID
+  - Typeahead suggestions for a title prefix
+  - Exporting the whole catalog as a stream of NDJSON lines
+  - Updating a movie by ID, fully (PUT) or partially (PATCH), optionally conditional on If-Match
   - Deleting a movie by ID
+  - Bulk import, update and delete (JSON array or NDJSON body)
 
   Uses MovieService for business logic and interacts with Movie model.
+
+  Active in the default (servlet) mode; ReactiveMovieController serves the same routes
+  when the application runs with the "reactive" profile.
 */
 @CrossOrigin
 @RestController
 @RequestMapping("/api/movies")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class MovieController {
 
     /* Injects the MovieService to delegate logic for movie operations */
     @Autowired
     private MovieService movieService;
 
+    /* Injects the MovieBulkService for the bulk endpoints */
+    @Autowired
+    private MovieBulkService movieBulkService;
+
+    /* Injects the PopularityTracker, which counts views of single movies and search hits */
+    @Autowired
+    private PopularityTracker popularityTracker;
+
+    /* Injects TrendingTitles, which ranks titles by their recent views and search hits */
+    @Autowired
+    private TrendingTitles trendingTitles;
+
+    /* Injects RelatedTitles, which answers "also rented" from memory */
+    @Autowired
+    private RelatedTitles relatedTitles;
+
+    /* Injects the CatalogVersion, whose value is the ETag of listings */
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    /* Injects the ListingResponseCache, which holds listing pages as ready-to-send bytes */
+    @Autowired
+    private ListingResponseCache listingResponseCache;
+
+    /* Injects the ObjectMapper configured by Spring Boot, used to write export lines */
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /* Response header carrying the cursor of the next page of a listing */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    /* Media type of the catalog export: one JSON document per line */
+    public static final String NDJSON = "application/x-ndjson";
+
+    /* Size of the output buffer used by the export; bytes are flushed to the client whenever it fills */
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+
     /* 
        POST /api/movies/add
        Adds a new movie or TV show to the database.
@@ -53,47 +135,194 @@ public class MovieController {
     }
 
     /* 
-       GET /api/movies
-       Returns a list of all movies or, if "type" query param is provided,
-       filters by type ("movie" or "tvshow").
+       GET /api/movies?type=movie&limit=50&after=<cursor>&fields=title,imageUrl
+       Returns one page of movies, optionally filtered by type ("movie" or "tvshow").
+       - limit: page size (see MovieService.getMoviesPage for defaults and bounds)
+       - after: cursor returned by the previous page
+       - fields: optional projection, e.g. list views can skip "shortDescription"
+
+       The body is the list of movies; the cursor for the next page is sent
+       in the X-Next-Cursor header and is absent on the last page.
+
+       The ETag is the catalog version (see CatalogVersion), the same on every instance. When the
+       client sends it back in If-None-Match and the catalog has not changed, the answer is
+       304 Not Modified, decided before any cache or database lookup. While the catalog is still
+       loading at startup there is no version yet: the page is sent without an ETag.
+
+       The body is served from ListingResponseCache as pre-serialized bytes, gzip-compressed
+       when the client accepts it, so repeated requests for a page skip Jackson entirely.
     */
     @GetMapping
-    public ResponseEntity<List<Movie>> getAllMovies(@RequestParam(required = false) String type) {
-        if (type != null) {
-            return ResponseEntity.ok(movieService.findByType(type));
-        } else {
-            return ResponseEntity.ok(movieService.getAllMovies());
+    public ResponseEntity<byte[]> getAllMovies(@RequestParam(required = false) String type,
+                                               @RequestParam(required = false) Integer limit,
+                                               @RequestParam(required = false) String after,
+                                               @RequestParam(required = false) String fields,
+                                               @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                               WebRequest webRequest) {
+        String etag = catalogVersion.etag();
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CacheControl.noCache()).build();
+        }
+
+        ListingResponseCache.ListingKey key = new ListingResponseCache.ListingKey(type, after, limit, fields);
+        EncodedListing listing = listingResponseCache.get(key, etag);
+        if (listing == null) {
+            listing = listingResponseCache.put(key, etag, movieService.getMoviesPage(type, after, limit, fields));
         }
+        return listingResponse(listing, acceptEncoding);
+    }
+
+    /* 
+       GET /api/movies/browse?type=movie,tvshow&minRentalPrice=1&maxRentalPrice=3.5&sort=-purchasePrice&limit=50&after=<cursor>
+       Returns one page of the movies matching the filters, with the number of matches per type.
+       - type: optional, one or more comma-separated types
+       - minRentalPrice, maxRentalPrice, minPurchasePrice, maxPurchasePrice: optional, inclusive
+       - sort: id (default), title, rentalPrice or purchasePrice; "-" first for descending
+       - limit, after, fields: as for the listing; the cursor is "nextCursor" in the body
+
+       Answered from an in-memory columnar index (see CatalogColumns) in microseconds;
+       503 Service Unavailable until that index has been loaded at startup.
+    */
+    @GetMapping("/browse")
+    public ResponseEntity<MovieBrowsePage> browseMovies(@RequestParam(required = false) String type,
+                                                        @RequestParam(required = false) Double minRentalPrice,
+                                                        @RequestParam(required = false) Double maxRentalPrice,
+                                                        @RequestParam(required = false) Double minPurchasePrice,
+                                                        @RequestParam(required = false) Double maxPurchasePrice,
+                                                        @RequestParam(required = false) String sort,
+                                                        @RequestParam(required = false) String after,
+                                                        @RequestParam(required = false) Integer limit,
+                                                        @RequestParam(required = false) String fields) {
+        return ResponseEntity.ok(movieService.browseMovies(type, minRentalPrice, maxRentalPrice,
+                minPurchasePrice, maxPurchasePrice, sort, after, limit, fields));
+    }
+
+    /* 
+       GET /api/movies/export?type=movie
+       Streams the whole catalog (or one type) as NDJSON, one movie per line.
+
+       Documents are read from the CatalogReplica (or a MongoDB cursor until it is loaded)
+       and written to the response as they arrive, so memory use does not depend on the catalog size:
+       - only one cursor batch and one output buffer are held at a time
+       - writes block while the client is slow to read, which in turn stops the cursor
+         from fetching more batches (natural backpressure)
+       - the first line is flushed immediately so the client sees bytes right away
+    */
+    @GetMapping(value = "/export", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> exportMovies(@RequestParam(required = false) String type) {
+        StreamingResponseBody body = outputStream -> {
+            BufferedOutputStream out = new BufferedOutputStream(outputStream, EXPORT_BUFFER_SIZE);
+            try (Stream<Movie> movies = movieService.exportMovies(type);
+                 SequenceWriter writer = objectMapper.writer().withRootValueSeparator("\n").writeValues(out)) {
+                long written = 0;
+                for (Movie movie : (Iterable<Movie>) movies::iterator) {
+                    writer.write(movie);
+                    if (++written == 1) {
+                        writer.flush();
+                    }
+                }
+                writer.flush();
+                if (written > 0) {
+                    out.write('\n');
+                }
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(body);
     }
 
     /* 
        GET /api/movies/{id}
        Returns a single movie or TV show by its unique ID.
        If not found, returns 404.
+       Each successful lookup counts as a view for popularity ranking and trending titles.
+
+       The ETag is the movie's version. A matching If-None-Match gets 304 Not Modified
+       without serializing the body; the movie itself usually comes from the movieById cache.
     */
     @GetMapping("/{id}")
     public ResponseEntity<Movie> getMovieById(@PathVariable String id) {
         return movieService.getMovieById(id)
-                .map(ResponseEntity::ok)
+                .map(movie -> {
+                    popularityTracker.recordView(movie);
+                    return withETag(movie);
+                })
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /* 
+       GET /api/movies/{id}/related?limit=10
+       Returns the titles most often rented or bought by the users who took this one,
+       completed with popular titles of the same type. "limit" defaults to 10.
+       Returns 404 if the movie does not exist.
+    */
+    @GetMapping("/{id}/related")
+    public ResponseEntity<List<Movie>> getRelated(@PathVariable String id,
+                                                  @RequestParam(defaultValue = "10") int limit) {
+        return movieService.getMovieById(id)
+                .map(movie -> ResponseEntity.ok(relatedTitles.related(movie, limit)))
                 .orElse(ResponseEntity.notFound().build());
     }
 
     /* 
-       GET /api/movies/search?title=xyz
-       Searches for movies/TV shows whose title contains the given query string.
+       GET /api/movies/trending?type=movie&limit=10
+       Returns the titles most viewed and searched lately, hottest first, optionally of one type.
+       "limit" defaults to 10. Served from a ranking recomputed every few seconds (see TrendingTitles).
+    */
+    @GetMapping("/trending")
+    public ResponseEntity<List<Movie>> getTrending(@RequestParam(required = false) String type,
+                                                   @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(trendingTitles.getTrending(type, limit));
+    }
+
+    /* 
+       GET /api/movies/search?title=xyz&limit=20
+       Searches movies/TV shows by the words of the query (title and description, prefix-aware),
+       returning the best matches first. "limit" is optional.
+       Every movie returned counts as a search hit for trending titles.
     */
     @GetMapping("/search")
-    public ResponseEntity<List<Movie>> searchByTitle(@RequestParam String title) {
-        return ResponseEntity.ok(movieService.searchByTitle(title));
+    public ResponseEntity<List<Movie>> searchByTitle(@RequestParam String title,
+                                                     @RequestParam(required = false) Integer limit) {
+        List<Movie> results = movieService.searchByTitle(title, limit);
+        popularityTracker.recordSearchHits(results);
+        return ResponseEntity.ok(results);
+    }
+
+    /* 
+       GET /api/movies/suggest?prefix=mat&limit=5
+       Returns typeahead suggestions (id, title, type, imageUrl) for titles
+       with a word starting with the prefix, most popular first.
+    */
+    @GetMapping("/suggest")
+    public ResponseEntity<List<Movie>> suggestTitles(@RequestParam String prefix,
+                                                     @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(movieService.suggestTitles(prefix, limit));
     }
 
     /* 
        PUT /api/movies/update/{id}
        Updates an existing movie with new data provided in the request body.
+       Optional If-Match: "<version>" makes the update conditional; a stale version gets 412.
+       The response carries the new version in the ETag header.
     */
     @PutMapping("/update/{id}")
-    public ResponseEntity<Movie> updateMovie(@PathVariable String id, @RequestBody Movie updatedMovie) {
-        return ResponseEntity.ok(movieService.updateMovie(id, updatedMovie));
+    public ResponseEntity<Movie> updateMovie(@PathVariable String id, @RequestBody Movie updatedMovie,
+                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return withETag(movieService.updateMovie(id, updatedMovie, parseIfMatch(ifMatch)));
+    }
+
+    /* 
+       PATCH /api/movies/{id}
+       Changes only the fields present in the body, e.g. {"rentalPrice": 2.99}.
+       Same If-Match and ETag handling as the PUT above.
+    */
+    @PatchMapping("/{id}")
+    public ResponseEntity<Movie> patchMovie(@PathVariable String id, @RequestBody Map<String, Object> changes,
+                                            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return withETag(movieService.patchMovie(id, changes, parseIfMatch(ifMatch)));
     }
 
     /* 
@@ -107,4 +336,164 @@ public class MovieController {
         return ResponseEntity.noContent().build();
     }
 
+    /* 
+       POST /api/movies/bulk
+       Imports many movies at once. The body is either a JSON array of movies
+       (Content-Type: application/json) or one movie per line (application/x-ndjson).
+       The body is read item by item and written in chunks with MongoDB bulk operations.
+       Returns a BulkResult with the outcome of every item (CREATED, INVALID or FAILED).
+    */
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, NDJSON})
+    public ResponseEntity<BulkResult> bulkImport(HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(movieBulkService.importMovies(readItems(request, Movie.class)));
+    }
+
+    /* 
+       PUT /api/movies/bulk
+       Updates many existing movies at once, matched by "id". Same body formats as the import.
+       Like PUT /update/{id}, every item is a full replacement: it must carry every editable
+       field (title, shortDescription, rentalPrice, purchasePrice, imageUrl, type). An item
+       missing one is INVALID and left untouched; a field is never cleared by omitting it.
+       Each item is UPDATED, NOT_FOUND, INVALID or FAILED.
+    */
+    @PutMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, NDJSON})
+    public ResponseEntity<BulkResult> bulkUpdate(HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(movieBulkService.updateMovies(readItems(request, Movie.class)));
+    }
+
+    /* 
+       DELETE /api/movies/bulk
+       Deletes many movies at once. The body is a JSON array of IDs (or one quoted ID per line).
+       Each item is DELETED, NOT_FOUND or INVALID.
+    */
+    @DeleteMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, NDJSON})
+    public ResponseEntity<BulkResult> bulkDelete(HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(movieBulkService.deleteMovies(readItems(request, String.class)));
+    }
+
+    /* 
+       Reads the request body lazily as a sequence of values: the elements of a top-level
+       JSON array, or whitespace/newline separated values (NDJSON).
+       An item that is valid JSON but does not map to the type (a wrong field type) surfaces as
+       InvalidBulkItemException and the iterator skips to the next value. Input that is not
+       valid JSON surfaces as IllegalArgumentException: nothing after it can be trusted.
+    */
+    private <T> Iterator<T> readItems(HttpServletRequest request, Class<T> type) throws IOException {
+        MappingIterator<T> values = objectMapper.readerFor(type).readValues(request.getInputStream());
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                try {
+                    return values.hasNextValue();
+                } catch (IOException ex) {
+                    throw new IllegalArgumentException(ex.getMessage(), ex);
+                }
+            }
+
+            @Override
+            public T next() {
+                try {
+                    return values.nextValue();
+                } catch (JsonMappingException ex) {
+                    throw new InvalidBulkItemException(describe(ex));
+                } catch (IOException ex) {
+                    throw new IllegalArgumentException(ex.getMessage(), ex);
+                }
+            }
+        };
+    }
+
+    /* "rentalPrice: Cannot deserialize value of type..." without the source location */
+    private static String describe(JsonMappingException ex) {
+        String field = ex.getPath().stream()
+                .map(reference -> reference.getFieldName() != null ? reference.getFieldName() : "[" + reference.getIndex() + "]")
+                .collect(Collectors.joining("."));
+        return field.isEmpty() ? ex.getOriginalMessage() : field + ": " + ex.getOriginalMessage();
+    }
+
+    /* 
+       Reads the expected version from an If-Match header.
+       Absent or "*" means "any version"; anything else must be one strong ETag like "3".
+       A value that cannot match any version fails the precondition right away.
+       Shared with ReactiveMovieController.
+    */
+    static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String value = ifMatch.trim();
+        if (value.length() > 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            try {
+                return Long.parseLong(value.substring(1, value.length() - 1));
+            } catch (NumberFormatException ex) {
+                // falls through to the failed precondition below
+            }
+        }
+        throw new OptimisticLockingFailureException("If-Match does not match any version: " + ifMatch);
+    }
+
+    /* 
+       200 OK with the movie and its version as a strong ETag. Spring answers 304 instead
+       when a GET carries a matching If-None-Match.
+       Shared with ReactiveMovieController.
+    */
+    static ResponseEntity<Movie> withETag(Movie movie) {
+        long version = movie.getVersion() == null ? 0 : movie.getVersion();
+        return ResponseEntity.ok().eTag("\"" + version + "\"").cacheControl(CacheControl.noCache()).body(movie);
+    }
+
+    /* 
+       200 OK with an encoded listing page: the gzip body when the client accepts it,
+       otherwise the plain JSON bytes. Shared with ReactiveMovieController.
+    */
+    static ResponseEntity<byte[]> listingResponse(EncodedListing listing, String acceptEncoding) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(listing.etag())
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.APPLICATION_JSON);
+        if (listing.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, listing.nextCursor());
+        }
+        if (listing.gzip() != null && ListingResponseCache.acceptsGzip(acceptEncoding)) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(listing.gzip());
+        }
+        return response.body(listing.json());
+    }
+
+    /* 
+       Turns invalid request parameters (bad cursor, limit or field name)
+       into 400 Bad Request with the error message as the body.
+    */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleBadRequest(IllegalArgumentException ex) {
+        return ResponseEntity.badRequest().body(ex.getMessage());
+    }
+
+    /* 
+       A stale If-Match version (someone else updated the movie first) gives 412 Precondition Failed.
+    */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<String> handleConflict(OptimisticLockingFailureException ex) {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(ex.getMessage());
+    }
+
+    /* 
+       Updating a movie that does not exist gives 404 Not Found.
+    */
+    @ExceptionHandler(NoSuchElementException.class)
+    public ResponseEntity<String> handleNotFound(NoSuchElementException ex) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
+    }
+
+    /* 
+       Browsing before the in-memory index has been loaded gives 503 Service Unavailable.
+    */
+    @ExceptionHandler(CatalogNotReadyException.class)
+    public ResponseEntity<String> handleNotReady(CatalogNotReadyException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(ex.getMessage());
+    }
+
 }
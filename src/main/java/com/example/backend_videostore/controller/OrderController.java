@@ -0,0 +1,128 @@
+package com.example.backend_videostore.controller;
+
+import java.security.Principal;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.backend_videostore.model.Order;
+import com.example.backend_videostore.service.OrderNotWrittenException;
+import com.example.backend_videostore.service.OrderService;
+
+/*
+  OrderController handles rentals and purchases of the authenticated user
+  (identified by the email in the JWT, see JwtAuthFilter).
+
+  Endpoints under /api/orders:
+  - POST /: rents or buys a movie, body {"movieId": "...", "kind": "RENTAL" | "PURCHASE"}.
+    An optional Idempotency-Key header makes retries safe: the same key always returns
+    the same order.
+  - GET /: the user's orders, newest first
+
+  The POST returns a CompletableFuture: the Tomcat thread is released while the order
+  waits to be written with other checkouts (see OrderBatcher).
+*/
+@CrossOrigin
+@RestController
+@RequestMapping("/api/orders")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class OrderController {
+
+    /* Most orders returned by GET /api/orders */
+    static final int MAX_LIMIT = 200;
+
+    /* Injects the OrderService which handles checkouts */
+    @Autowired
+    private OrderService orderService;
+
+    /* 
+       POST /api/orders
+       Rents or buys a movie and returns 201 Created with the order.
+       - 400 Bad Request for an unknown kind, a movie without that price,
+         or an Idempotency-Key reused for a different order
+       - 404 Not Found if the movie does not exist
+       - 429 Too Many Requests if too many orders are waiting to be written
+       - 503 Service Unavailable if the order could not be written; retrying with the same
+         Idempotency-Key cannot create a second order
+    */
+    @PostMapping
+    public CompletableFuture<ResponseEntity<Order>> checkout(
+            @RequestBody Map<String, String> request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            Principal principal) {
+        String movieId = request.get("movieId");
+        String kind = request.get("kind");
+        if (movieId == null || kind == null) {
+            throw new IllegalArgumentException("movieId and kind are required");
+        }
+
+        return orderService.checkout(principal.getName(), movieId, Order.Kind.valueOf(kind.toUpperCase()), idempotencyKey)
+                .thenApply(order -> ResponseEntity.status(HttpStatus.CREATED).body(order));
+    }
+
+    /* 
+       GET /api/orders?limit=50
+       Returns the user's most recent orders (at most 200).
+    */
+    @GetMapping
+    public List<Order> getOrders(@RequestParam(defaultValue = "50") int limit, Principal principal) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        return orderService.getOrders(principal.getName(), limit);
+    }
+
+    /* 
+       Returns 400 Bad Request with the reason.
+    */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleBadRequest(IllegalArgumentException ex) {
+        return ResponseEntity.badRequest().body(ex.getMessage());
+    }
+
+    /* 
+       Returns 404 Not Found when the movie does not exist.
+    */
+    @ExceptionHandler(NoSuchElementException.class)
+    public ResponseEntity<String> handleNotFound(NoSuchElementException ex) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
+    }
+
+    /* 
+       Returns 429 Too Many Requests when the order queue is full.
+    */
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<String> handleSaturated(RejectedExecutionException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("Too many orders, please retry shortly");
+    }
+
+    /* 
+       Returns 503 Service Unavailable when the order could not be written to the database.
+       Retry-After tells the client to retry (with the same Idempotency-Key) after five seconds.
+    */
+    @ExceptionHandler(OrderNotWrittenException.class)
+    public ResponseEntity<String> handleNotWritten(OrderNotWrittenException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body("The order could not be saved, please retry shortly");
+    }
+}
@@ -0,0 +1,287 @@
+package com.example.backend_videostore.controller;
+
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.example.backend_videostore.cache.EncodedListing;
+import com.example.backend_videostore.cache.ListingResponseCache;
+import com.example.backend_videostore.model.Movie;
+import com.example.backend_videostore.model.MovieBrowsePage;
+import com.example.backend_videostore.search.RelatedTitles;
+import com.example.backend_videostore.service.CatalogNotReadyException;
+import com.example.backend_videostore.service.CatalogVersion;
+import com.example.backend_videostore.service.MovieService;
+import com.example.backend_videostore.service.PopularityTracker;
+import com.example.backend_videostore.service.ReactiveMovieService;
+import com.example.backend_videostore.service.TrendingTitles;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/*
+  ReactiveMovieController is the non-blocking (WebFlux) version of MovieController.
+
+  It is only active when the application runs as a reactive web application
+  (profile "reactive", see application-reactive.properties) and serves the same
+  routes under /api/movies with the same request and response formats.
+  Instead of holding a thread per request, every handler returns a Mono or Flux
+  that Netty completes when MongoDB answers.
+
+  The catalog export (GET /api/movies/export) is returned as a Flux: each movie is
+  written as soon as the client is ready for it, and the database cursor only
+  fetches more documents as they are consumed (backpressure).
+
+  Routes answered by the in-memory views shared with the servlet stack ("also rented", trending)
+  call their blocking API on the bounded elastic scheduler: it is served from memory once
+  the catalog is loaded, but may still query MongoDB through MovieService before that.
+  The response is then written from the parallel scheduler: the elastic worker is
+  interrupted when its task is disposed, which would abort a write still in progress on it.
+*/
+@CrossOrigin
+@RestController
+@RequestMapping("/api/movies")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveMovieController {
+
+    /* Injects the ReactiveMovieService to delegate logic for movie operations */
+    @Autowired
+    private ReactiveMovieService movieService;
+
+    /* Injects the PopularityTracker, which counts views of single movies and search hits */
+    @Autowired
+    private PopularityTracker popularityTracker;
+
+    /* Injects the CatalogVersion, whose value is the ETag of listings */
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    /* Injects the ListingResponseCache, which holds listing pages as ready-to-send bytes */
+    @Autowired
+    private ListingResponseCache listingResponseCache;
+
+    /* Injects MovieService, the blocking service behind the in-memory views */
+    @Autowired
+    private MovieService blockingMovieService;
+
+    /* Injects RelatedTitles, which answers "also rented" from memory */
+    @Autowired
+    private RelatedTitles relatedTitles;
+
+    /* Injects TrendingTitles, which answers "trending now" from memory */
+    @Autowired
+    private TrendingTitles trendingTitles;
+
+    /* 
+       POST /api/movies/add
+       Adds a new movie or TV show to the database.
+    */
+    @PostMapping("/add")
+    public Mono<ResponseEntity<Movie>> addMovie(@RequestBody Movie movie) {
+        return movieService.addMovie(movie).map(ResponseEntity::ok);
+    }
+
+    /* 
+       GET /api/movies?type=movie&limit=50&after=<cursor>&fields=title,imageUrl
+       Returns one page of movies; the next cursor is sent in the X-Next-Cursor header.
+       Same ETag / 304 handling and pre-serialized bodies as MovieController.getAllMovies.
+    */
+    @GetMapping
+    public Mono<ResponseEntity<byte[]>> getAllMovies(@RequestParam(required = false) String type,
+                                                     @RequestParam(required = false) Integer limit,
+                                                     @RequestParam(required = false) String after,
+                                                     @RequestParam(required = false) String fields,
+                                                     @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                                     ServerWebExchange exchange) {
+        String etag = catalogVersion.etag();
+        if (etag != null && exchange.checkNotModified(etag)) {
+            return Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CacheControl.noCache()).build());
+        }
+
+        ListingResponseCache.ListingKey key = new ListingResponseCache.ListingKey(type, after, limit, fields);
+        EncodedListing cached = listingResponseCache.get(key, etag);
+        Mono<EncodedListing> listing = cached != null
+                ? Mono.just(cached)
+                : movieService.getMoviesPage(type, after, limit, fields).map(page -> listingResponseCache.put(key, etag, page));
+        return listing.map(encoded -> MovieController.listingResponse(encoded, acceptEncoding));
+    }
+
+    /* 
+       GET /api/movies/export?type=movie
+       Streams the whole catalog (or one type) as NDJSON, one movie per line, with backpressure.
+    */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Movie> exportMovies(@RequestParam(required = false) String type) {
+        return movieService.streamMovies(type);
+    }
+
+    /* 
+       GET /api/movies/{id}
+       Returns a single movie or TV show by its unique ID, or 404 if not found.
+       The ETag is the movie's version; a matching If-None-Match gets 304 Not Modified.
+    */
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Movie>> getMovieById(@PathVariable String id) {
+        return movieService.getMovieById(id)
+                .map(movie -> {
+                    popularityTracker.recordView(movie);
+                    return MovieController.withETag(movie);
+                })
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    /* 
+       GET /api/movies/browse?type=movie,tvshow&minRentalPrice=1&sort=-purchasePrice&limit=50&after=<cursor>
+       Returns one page of the movies matching the filters, with the number of matches per type
+       (see MovieController.browseMovies). Answered from memory only, so it never blocks;
+       503 Service Unavailable until the index has been loaded at startup.
+    */
+    @GetMapping("/browse")
+    public Mono<ResponseEntity<MovieBrowsePage>> browseMovies(@RequestParam(required = false) String type,
+                                                              @RequestParam(required = false) Double minRentalPrice,
+                                                              @RequestParam(required = false) Double maxRentalPrice,
+                                                              @RequestParam(required = false) Double minPurchasePrice,
+                                                              @RequestParam(required = false) Double maxPurchasePrice,
+                                                              @RequestParam(required = false) String sort,
+                                                              @RequestParam(required = false) String after,
+                                                              @RequestParam(required = false) Integer limit,
+                                                              @RequestParam(required = false) String fields) {
+        return Mono.fromCallable(() -> ResponseEntity.ok(blockingMovieService.browseMovies(type,
+                minRentalPrice, maxRentalPrice, minPurchasePrice, maxPurchasePrice, sort, after, limit, fields)));
+    }
+
+    /* 
+       GET /api/movies/{id}/related?limit=10
+       Returns the titles most often rented or bought together with this one (see MovieController.getRelated),
+       or 404 if the movie does not exist.
+    */
+    @GetMapping("/{id}/related")
+    public Mono<ResponseEntity<List<Movie>>> getRelated(@PathVariable String id,
+                                                        @RequestParam(defaultValue = "10") int limit) {
+        return Mono.fromCallable(() -> blockingMovieService.getMovieById(id)
+                        .map(movie -> ResponseEntity.ok(relatedTitles.related(movie, limit)))
+                        .orElse(ResponseEntity.notFound().build()))
+                .subscribeOn(Schedulers.boundedElastic())
+                .publishOn(Schedulers.parallel());
+    }
+
+    /* 
+       GET /api/movies/trending?type=movie&limit=10
+       Returns the titles most viewed and searched lately, hottest first (see MovieController.getTrending).
+    */
+    @GetMapping("/trending")
+    public Mono<ResponseEntity<List<Movie>>> getTrending(@RequestParam(required = false) String type,
+                                                         @RequestParam(defaultValue = "10") int limit) {
+        return Mono.fromCallable(() -> ResponseEntity.ok(trendingTitles.getTrending(type, limit)))
+                .subscribeOn(Schedulers.boundedElastic())
+                .publishOn(Schedulers.parallel());
+    }
+
+    /* 
+       GET /api/movies/search?title=xyz&limit=20
+       Searches movies/TV shows by the words of the query, best matches first.
+    */
+    @GetMapping("/search")
+    public Mono<ResponseEntity<List<Movie>>> searchByTitle(@RequestParam String title,
+                                                           @RequestParam(required = false) Integer limit) {
+        return movieService.searchByTitle(title, limit).collectList()
+                .map(results -> {
+                    popularityTracker.recordSearchHits(results);
+                    return ResponseEntity.ok(results);
+                });
+    }
+
+    /* 
+       GET /api/movies/suggest?prefix=mat&limit=5
+       Returns typeahead suggestions, most popular first.
+    */
+    @GetMapping("/suggest")
+    public Mono<ResponseEntity<List<Movie>>> suggestTitles(@RequestParam String prefix,
+                                                           @RequestParam(required = false) Integer limit) {
+        return movieService.suggestTitles(prefix, limit).collectList().map(ResponseEntity::ok);
+    }
+
+    /* 
+       PUT /api/movies/update/{id}
+       Updates an existing movie with new data provided in the request body.
+    */
+    @PutMapping("/update/{id}")
+    public Mono<ResponseEntity<Movie>> updateMovie(@PathVariable String id, @RequestBody Movie updatedMovie,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return Mono.defer(() -> movieService.updateMovie(id, updatedMovie, MovieController.parseIfMatch(ifMatch)))
+                .map(MovieController::withETag);
+    }
+
+    /* 
+       PATCH /api/movies/{id}
+       Changes only the fields present in the body (see MovieController.patchMovie).
+    */
+    @PatchMapping("/{id}")
+    public Mono<ResponseEntity<Movie>> patchMovie(@PathVariable String id, @RequestBody Map<String, Object> changes,
+                                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return Mono.defer(() -> movieService.patchMovie(id, changes, MovieController.parseIfMatch(ifMatch)))
+                .map(MovieController::withETag);
+    }
+
+    /* 
+       DELETE /api/movies/delete/{id}
+       Deletes a movie by its ID. Returns 204 No Content on success.
+    */
+    @DeleteMapping("/delete/{id}")
+    public Mono<ResponseEntity<Void>> deleteMovie(@PathVariable String id) {
+        return movieService.deleteMovie(id).then(Mono.just(ResponseEntity.noContent().<Void>build()));
+    }
+
+    /* 
+       Turns invalid request parameters (bad cursor, limit or field name)
+       into 400 Bad Request with the error message as the body.
+    */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleBadRequest(IllegalArgumentException ex) {
+        return ResponseEntity.badRequest().body(ex.getMessage());
+    }
+
+    /* Stale If-Match version: 412 Precondition Failed, as in MovieController */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<String> handleConflict(OptimisticLockingFailureException ex) {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(ex.getMessage());
+    }
+
+    /* Updating a movie that does not exist: 404 Not Found */
+    @ExceptionHandler(NoSuchElementException.class)
+    public ResponseEntity<String> handleNotFound(NoSuchElementException ex) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
+    }
+
+    /* Browsing before the in-memory index has been loaded: 503 Service Unavailable, as in MovieController */
+    @ExceptionHandler(CatalogNotReadyException.class)
+    public ResponseEntity<String> handleNotReady(CatalogNotReadyException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(ex.getMessage());
+    }
+}
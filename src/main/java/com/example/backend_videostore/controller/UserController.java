@@ -1,12 +1,16 @@
 package com.example.backend_videostore.controller;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -28,6 +32,12 @@ import jakarta.validation.Valid;
   - POST /login: to verify credentials and return a JWT token
 
   CrossOrigin is enabled to allow requests from the frontend.
+
+  Both endpoints return a CompletableFuture: the user lookup and writes run on the user store
+  executor and the BCrypt work on the password hashing executor, so the request thread is
+  released while they run. That is what lets this controller serve both stacks: under the
+  reactive profile the request thread is an event-loop thread that must never block on MongoDB.
+  When the hashing executor is saturated the request is answered with 429 Too Many Requests.
 */
 @CrossOrigin
 @RestController
@@ -48,12 +58,12 @@ public class UserController {
        - Expects a User object in the request body
        - Validates the input using @Valid (e.g., required fields)
        - Calls the service to save the user in the database
-       - Returns 201 Created with the saved user object
+       - Returns 201 Created with the saved user object, or 409 Conflict if the email is taken
     */
     @PostMapping("/register")
-    public ResponseEntity<?> register(@Valid @RequestBody User user) {
-        User created = userService.register(user);
-        return new ResponseEntity<>(created, HttpStatus.CREATED);
+    public CompletableFuture<ResponseEntity<?>> register(@Valid @RequestBody User user) {
+        return userService.register(user)
+                .thenApply(created -> new ResponseEntity<>(created, HttpStatus.CREATED));
     }
 
     /* 
@@ -66,17 +76,38 @@ public class UserController {
        - If invalid, returns 401 Unauthorized
     */
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody Map<String, String> loginData) {
+    public CompletableFuture<ResponseEntity<?>> login(@RequestBody Map<String, String> loginData) {
         String email = loginData.get("email");
         String password = loginData.get("password");
 
-        User user = userService.findByEmail(email);
-        if (user == null || !new BCryptPasswordEncoder().matches(password, user.getPassword())) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid credentials");
-        }
+        return userService.login(email, password).thenApply(valid -> {
+            if (!valid) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid credentials");
+            }
+
+            String token = jwtUtil.generateToken(email); // create token
+            return ResponseEntity.ok(Map.of("token", token)); // give token back
+        });
+    }
 
-        String token = jwtUtil.generateToken(email); // create token
-        return ResponseEntity.ok(Map.of("token", token)); // give token back
+    /* 
+       Returns 429 Too Many Requests when the password hashing executor is saturated.
+       Retry-After tells the client to try again after one second.
+    */
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<String> handleHashingSaturated(RejectedExecutionException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("Too many login attempts, please retry shortly");
+    }
+
+    /* 
+       Registering an email that already has an account (unique index on "email")
+       returns 409 Conflict, also when two registrations race.
+    */
+    @ExceptionHandler(DuplicateKeyException.class)
+    public ResponseEntity<String> handleDuplicateEmail(DuplicateKeyException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body("Email is already registered");
     }
 
 }
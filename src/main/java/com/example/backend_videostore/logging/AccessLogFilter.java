@@ -0,0 +1,162 @@
+package com.example.backend_videostore.logging;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/*
+  AccessLogFilter writes one JSON line per HTTP request to the "access" logger:
+
+  {"ts":1718000000000,"method":"GET","route":"/api/movies/{id}","status":200,
+   "ms":3.412,"user":"someone@example.com","mongoMs":1.902,"mongoOps":1}
+
+  - route is the matched handler pattern, so lines group by endpoint rather than by ID
+  - user is the email from a valid JWT (set by JwtAuthFilter), absent for anonymous requests
+  - mongoMs / mongoOps are the MongoDB commands run by the request thread (see MongoRequestTimer)
+
+  The "access" logger goes to an asynchronous appender (logback-spring.xml), so request
+  threads only build the line and hand it over; the line is built in a per-thread buffer.
+  For requests that continue asynchronously (login, export), the line is written when the
+  response completes.
+
+  The filter also decides whether the request is sampled for debug logging (see RequestSampling).
+  It runs first in the filter chain, before Spring Security, so rejected requests are logged too.
+*/
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "logging.access.enabled", havingValue = "true", matchIfMissing = true)
+public class AccessLogFilter extends OncePerRequestFilter {
+
+    /* Request attribute holding the authenticated user's email */
+    public static final String USER_ATTRIBUTE = AccessLogFilter.class.getName() + ".user";
+
+    private static final Logger accessLog = LoggerFactory.getLogger("access");
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+    /* Share of requests whose debug logging is kept, from 0 (none) to 1 (all) */
+    @Value("${logging.debug-sampling.rate:0}")
+    private double debugSamplingRate;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        MongoRequestTimer.start();
+        RequestSampling.set(debugSamplingRate > 0 && ThreadLocalRandom.current().nextDouble() < debugSamplingRate);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestSampling.clear();
+            long[] mongo = MongoRequestTimer.totals();
+            long mongoNanos = mongo[0];
+            long mongoOps = mongo[1];
+
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        log(request, response, start, mongoNanos, mongoOps);
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                log(request, response, start, mongoNanos, mongoOps);
+            }
+        }
+    }
+
+    private static void log(HttpServletRequest request, HttpServletResponse response,
+                            long start, long mongoNanos, long mongoOps) {
+        if (!accessLog.isInfoEnabled()) {
+            return;
+        }
+        long elapsed = System.nanoTime() - start;
+
+        Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Object user = request.getAttribute(USER_ATTRIBUTE);
+
+        StringBuilder line = BUFFER.get();
+        line.setLength(0);
+        line.append("{\"ts\":").append(System.currentTimeMillis());
+        line.append(",\"method\":\"").append(request.getMethod()).append('"');
+        line.append(",\"route\":");
+        appendString(line, route != null ? route.toString() : request.getRequestURI());
+        line.append(",\"status\":").append(response.getStatus());
+        line.append(",\"ms\":");
+        appendMillis(line, elapsed);
+        if (user != null) {
+            line.append(",\"user\":");
+            appendString(line, user.toString());
+        }
+        line.append(",\"mongoMs\":");
+        appendMillis(line, mongoNanos);
+        line.append(",\"mongoOps\":").append(mongoOps);
+        line.append('}');
+
+        accessLog.info(line.toString());
+    }
+
+    /*
+       Nanoseconds as milliseconds with three decimals, without going through a double format.
+    */
+    private static void appendMillis(StringBuilder line, long nanos) {
+        long micros = nanos / 1000;
+        line.append(micros / 1000).append('.');
+        long fraction = micros % 1000;
+        if (fraction < 100) {
+            line.append('0');
+        }
+        if (fraction < 10) {
+            line.append('0');
+        }
+        line.append(fraction);
+    }
+
+    /*
+       Appends a JSON string, escaping quotes, backslashes and control characters.
+    */
+    private static void appendString(StringBuilder line, String value) {
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                line.append('\\').append(c);
+            } else if (c < 0x20) {
+                line.append(String.format("\\u%04x", (int) c));
+            } else {
+                line.append(c);
+            }
+        }
+        line.append('"');
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.backend_videostore.logging;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandSucceededEvent;
+
+/*
+  MongoRequestTimer adds up the time the current request spends in MongoDB commands,
+  for the "mongoMs" field of the access log.
+
+  It is registered as a command listener on the MongoDB client. The blocking driver calls
+  listeners on the thread that ran the command, so a per-thread counter started by
+  AccessLogFilter collects exactly the commands of that request. Commands run on other
+  threads (reactive driver, background jobs, BCrypt executor) are not counted.
+*/
+@Component
+public class MongoRequestTimer implements CommandListener, MongoClientSettingsBuilderCustomizer {
+
+    /* [total nanoseconds, number of commands] of the request running on this thread */
+    private static final ThreadLocal<long[]> CURRENT = new ThreadLocal<>();
+
+    @Override
+    public void customize(MongoClientSettings.Builder builder) {
+        builder.addCommandListener(this);
+    }
+
+    /*
+       Starts counting for the request running on this thread.
+    */
+    static void start() {
+        long[] totals = CURRENT.get();
+        if (totals == null) {
+            CURRENT.set(new long[2]);
+        } else {
+            totals[0] = 0;
+            totals[1] = 0;
+        }
+    }
+
+    /*
+       Returns [total nanoseconds, number of commands] counted since start().
+       The array belongs to this thread and is reset by its next start(), so a pooled
+       request thread does not allocate a new one per request.
+    */
+    static long[] totals() {
+        long[] totals = CURRENT.get();
+        return totals != null ? totals : new long[2];
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        add(event.getElapsedTime(TimeUnit.NANOSECONDS));
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        add(event.getElapsedTime(TimeUnit.NANOSECONDS));
+    }
+
+    private static void add(long nanos) {
+        long[] totals = CURRENT.get();
+        if (totals != null) {
+            totals[0] += nanos;
+            totals[1]++;
+        }
+    }
+}
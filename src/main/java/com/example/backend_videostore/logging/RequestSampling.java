@@ -0,0 +1,32 @@
+package com.example.backend_videostore.logging;
+
+/*
+  RequestSampling marks the requests whose debug logging is kept.
+
+  AccessLogFilter decides once per request, with probability logging.debug-sampling.rate,
+  whether the request is sampled, and SampledDebugTurboFilter lets DEBUG events through
+  only on threads currently serving a sampled request. A plain ThreadLocal flag is used
+  instead of the MDC, so that the check made for every debug statement stays a single lookup.
+*/
+public final class RequestSampling {
+
+    private static final ThreadLocal<Boolean> SAMPLED = new ThreadLocal<>();
+
+    private RequestSampling() {
+    }
+
+    /*
+       Returns true if the request running on this thread is sampled.
+    */
+    public static boolean isSampled() {
+        return SAMPLED.get() == Boolean.TRUE;
+    }
+
+    static void set(boolean sampled) {
+        SAMPLED.set(sampled ? Boolean.TRUE : Boolean.FALSE);
+    }
+
+    static void clear() {
+        SAMPLED.remove();
+    }
+}
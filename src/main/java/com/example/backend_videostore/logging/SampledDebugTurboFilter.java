@@ -0,0 +1,43 @@
+package com.example.backend_videostore.logging;
+
+import org.slf4j.Marker;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+
+/*
+  SampledDebugTurboFilter turns on DEBUG (and TRACE) logging for sampled requests only.
+
+  With the configured loggers left at INFO, debug statements cost one level comparison.
+  While a sampled request runs (see RequestSampling), this filter accepts debug events of
+  the configured logger prefixes, so a small fraction of requests is traced in full.
+
+  It is declared in logback-spring.xml; "loggers" is a comma-separated list of logger
+  name prefixes, e.g. "com.example.backend_videostore,org.springframework.security".
+*/
+public class SampledDebugTurboFilter extends TurboFilter {
+
+    private String[] prefixes = new String[0];
+
+    public void setLoggers(String loggers) {
+        this.prefixes = loggers == null || loggers.isBlank()
+                ? new String[0]
+                : loggers.trim().split("\\s*,\\s*");
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (level.toInt() >= Level.INFO_INT || !RequestSampling.isSampled()) {
+            return FilterReply.NEUTRAL;
+        }
+        String name = logger.getName();
+        for (String prefix : prefixes) {
+            if (name.startsWith(prefix)) {
+                return FilterReply.ACCEPT;
+            }
+        }
+        return FilterReply.NEUTRAL;
+    }
+}
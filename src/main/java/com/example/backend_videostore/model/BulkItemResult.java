@@ -0,0 +1,32 @@
+package com.example.backend_videostore.model;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/*
+  BulkItemResult is the outcome of one item of a bulk request.
+
+  - index: position of the item in the request (0-based)
+  - id: ID of the movie (assigned by the server for imports)
+  - status: CREATED, UPDATED, DELETED, INVALID, NOT_FOUND or FAILED
+  - errors: validation or database error messages (only for failed items)
+*/
+@Data
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkItemResult {
+
+    public enum Status { CREATED, UPDATED, DELETED, INVALID, NOT_FOUND, FAILED }
+
+    private int index;
+
+    private String id;
+
+    private Status status;
+
+    private List<String> errors;
+}
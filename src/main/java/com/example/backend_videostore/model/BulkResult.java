@@ -0,0 +1,45 @@
+package com.example.backend_videostore.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/*
+  BulkResult is the response of a bulk import, update or delete request.
+
+  - received: number of items read from the request
+  - succeeded / failed: how many of them were applied or rejected
+  - items: the result of every item, in request order
+  - error: set when the request body could not be read to the end; items before
+    that point have been processed and are reported as usual
+*/
+@Data
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkResult {
+
+    private int received;
+
+    private int succeeded;
+
+    private int failed;
+
+    private List<BulkItemResult> items = new ArrayList<>();
+
+    private String error;
+
+    /* 
+       Records the result of one item and updates the counters.
+    */
+    public void add(BulkItemResult item) {
+        items.add(item);
+        switch (item.getStatus()) {
+            case CREATED, UPDATED, DELETED -> succeeded++;
+            default -> failed++;
+        }
+    }
+}
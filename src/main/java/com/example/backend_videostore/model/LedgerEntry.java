@@ -0,0 +1,51 @@
+package com.example.backend_videostore.model;
+
+import java.time.Instant;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/*
+  This class represents one entry of the append-only ledger ("ledger" collection):
+  the amount charged for one order.
+
+  Entries are only ever inserted, never updated or deleted, so the ledger is the
+  audit trail of everything that was charged. "orderId" is unique: writing the entry
+  of an order again (e.g. when a checkout is retried) has no effect.
+*/
+@Document(collection = "ledger")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerEntry {
+
+    @Id
+    private String id;
+
+    @Indexed(unique = true)
+    private String orderId;
+
+    @Indexed
+    private String userEmail;
+
+    private String movieId;
+
+    private Order.Kind kind;
+
+    private Double amount;
+
+    private Instant createdAt;
+
+    /* 
+       The ledger entry of an order.
+    */
+    public static LedgerEntry of(Order order) {
+        return new LedgerEntry(null, order.getId(), order.getUserEmail(), order.getMovieId(),
+                order.getKind(), order.getPrice(), order.getCreatedAt());
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.backend_videostore.model;
+
+import java.time.Instant;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/*
+  LibraryItem is one movie a user is entitled to watch.
+
+  - kind PURCHASE: owned, "expiresAt" is absent
+  - kind RENTAL: rented until "expiresAt"
+*/
+@Data
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class LibraryItem {
+
+    private String movieId;
+
+    private Order.Kind kind;
+
+    private Instant expiresAt;
+}
@@ -1,8 +1,13 @@
 package com.example.backend_videostore.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
@@ -17,11 +22,24 @@ import lombok.NoArgsConstructor;
   - @Data: generates getters, setters, toString, equals, and hashCode
   - @NoArgsConstructor: generates a no-arg constructor
   - @AllArgsConstructor: generates a constructor with all fields
+
+  @JsonInclude(NON_NULL) leaves out fields that were not loaded,
+  so projected listings (see MovieService.getMoviesPage) stay small.
+
+  Indexes (created at startup by MongoIndexInitializer):
+  - type_id: {type, _id} serves type filters and the keyset pages of one type
+    (filter on type, range and sort on _id); as a prefix it also covers "type" alone
+  - type_title: {type, title} for listings of one type sorted by title
 */
 @Document(collection = "movies")
+@CompoundIndexes({
+    @CompoundIndex(name = "type_id", def = "{'type': 1, '_id': 1}"),
+    @CompoundIndex(name = "type_title", def = "{'type': 1, 'title': 1}")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class Movie {
 
     /* 
@@ -69,4 +87,13 @@ public class Movie {
     */
     @NotBlank(message = "Type is required")
     private String type;
+
+    /* 
+       Version of the document, increased by one on every update.
+       Used for optimistic concurrency: an update sent with "If-Match" only applies
+       if the movie has not been changed since the client read this version.
+       Documents created before this field existed are treated as version 0.
+    */
+    @Version
+    private Long version;
 }
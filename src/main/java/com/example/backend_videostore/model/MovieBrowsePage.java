@@ -0,0 +1,29 @@
+package com.example.backend_videostore.model;
+
+import java.util.List;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/*
+  MovieBrowsePage is one page of a filtered and sorted catalog query (GET /api/movies/browse).
+
+  - items: the movies on this page
+  - nextCursor: the value to pass as "after" to get the next page, or null on the last page
+  - total: number of movies matching the whole query
+  - facets: type -> number of movies matching the price filters, for every type,
+    so a client can show the count next to each type whichever types are selected
+*/
+@Data
+@AllArgsConstructor
+public class MovieBrowsePage {
+
+    private List<Movie> items;
+
+    private String nextCursor;
+
+    private long total;
+
+    private Map<String, Long> facets;
+}
@@ -0,0 +1,22 @@
+package com.example.backend_videostore.model;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/*
+  MoviePage is one page of a keyset-paginated movie listing.
+
+  - items: the movies on this page
+  - nextCursor: the id to pass as "after" to get the next page,
+    or null when this is the last page
+*/
+@Data
+@AllArgsConstructor
+public class MoviePage {
+
+    private List<Movie> items;
+
+    private String nextCursor;
+}
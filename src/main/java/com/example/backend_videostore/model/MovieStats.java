@@ -0,0 +1,46 @@
+package com.example.backend_videostore.model;
+
+import java.time.Instant;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/*
+  This class represents the all-time activity counters of one movie ("movie_stats" collection),
+  keyed by the movie's ID.
+
+  The counters are kept out of the "movies" documents on purpose: they change on every flush
+  of TrendingTitles, and writing them into the movies would bump their versions, invalidate
+  the catalog caches and flood the change stream.
+
+  Next to the all-time counters, "trendingScore" is the exponentially decayed score of
+  TrendingTitles as of "updatedAt", shared by every instance, so that a restarted instance
+  does not start with an empty ranking.
+  Documents are only ever changed by the atomic updates of MovieStatsRepositoryCustom.
+*/
+@Document(collection = "movie_stats")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MovieStats {
+
+    /* The movie's ID */
+    @Id
+    private String id;
+
+    private String type;
+
+    private long views;
+
+    private long searchHits;
+
+    private double trendingScore;
+
+    @Indexed
+    private Instant updatedAt;
+}
@@ -0,0 +1,87 @@
+package com.example.backend_videostore.model;
+
+import java.time.Instant;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/*
+  This class represents an Order: the rental or the purchase of one movie by one user.
+  It is a MongoDB document stored in the "orders" collection.
+
+  Orders are immutable once written; every order also has an entry in the ledger
+  (see LedgerEntry).
+
+  Indexes (created at startup by MongoIndexInitializer):
+  - user_idempotency_key (unique): the same Idempotency-Key sent twice by the same user
+    can never create two orders, even across restarts or instances
+  - user_created: a user's orders, most recent first
+*/
+@Document(collection = "orders")
+@CompoundIndexes({
+    @CompoundIndex(name = "user_idempotency_key", def = "{'userEmail': 1, 'idempotencyKey': 1}", unique = true),
+    @CompoundIndex(name = "user_created", def = "{'userEmail': 1, 'createdAt': -1}")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class Order {
+
+    public enum Kind { RENTAL, PURCHASE }
+
+    /* 
+       MongoDB document ID, a new ObjectId assigned by OrderService when the order is built,
+       before it is queued, so its ledger entry can refer to it within the same batch.
+    */
+    @Id
+    private String id;
+
+    /* 
+       Email of the user who placed the order (from the JWT).
+    */
+    private String userEmail;
+
+    /* 
+       Client-chosen key that identifies one checkout attempt; retries reuse it.
+       Not returned to clients.
+    */
+    @JsonIgnore
+    private String idempotencyKey;
+
+    /* 
+       The rented or purchased movie, with its title at the time of the order.
+    */
+    private String movieId;
+
+    private String movieTitle;
+
+    /* 
+       RENTAL or PURCHASE.
+    */
+    private Kind kind;
+
+    /* 
+       Price charged: the movie's rentalPrice or purchasePrice at the time of the order.
+    */
+    private Double price;
+
+    /* 
+       When the order was accepted.
+    */
+    private Instant createdAt;
+
+    /* 
+       End of the rental period (rentals only).
+    */
+    private Instant expiresAt;
+}
@@ -1,6 +1,7 @@
 package com.example.backend_videostore.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import jakarta.validation.constraints.Email;
@@ -43,9 +44,12 @@ public class User {
        User's email address (required and validated).
        @Email checks the format.
        @NotBlank ensures it's not null or empty.
+       @Indexed(unique = true) makes login lookups an index seek and
+       prevents two accounts with the same email.
     */
     @NotBlank(message = "Email is required")
     @Email(message = "Invalid email format")
+    @Indexed(unique = true)
     private String email;
 
     /* 
@@ -0,0 +1,211 @@
+package com.example.backend_videostore.repository;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import com.example.backend_videostore.model.LedgerEntry;
+import com.example.backend_videostore.model.Movie;
+import com.example.backend_videostore.model.MovieStats;
+import com.example.backend_videostore.model.Order;
+import com.example.backend_videostore.model.User;
+
+/*
+  MongoIndexInitializer creates the indexes declared on the documents (@Indexed, @CompoundIndex)
+  and checks that the application's queries actually use them.
+
+  Spring Data can create indexes by itself (spring.data.mongodb.auto-index-creation), but it
+  does so while the context starts and would block startup whenever MongoDB is slow or
+  unreachable. Instead, once the application is ready:
+  1. the indexes of Movie, User, Order, LedgerEntry and MovieStats are resolved from their annotations and created
+     (creating an index that already exists is a no-op); the unique indexes of Order and
+     LedgerEntry are also created by OrderBatcher before its first write, since checkouts
+     must not run without them
+  2. every query shape issued by MovieRepository, MovieRepositoryCustom, UserRepository, OrderRepository
+     and MovieStatsRepository
+     is run through "explain", and any plan containing a COLLSCAN stage (full collection
+     scan) is reported
+
+  movies.indexes.plan-check selects what happens to a collection scan:
+  - warn (default): runs in the background and logs a warning
+  - fail: runs before the application accepts traffic and stops it, for CI and staging
+  - off: only creates the indexes
+*/
+@Component
+public class MongoIndexInitializer {
+
+    private static final Logger log = LoggerFactory.getLogger(MongoIndexInitializer.class);
+
+    /* Injects MongoTemplate to create indexes and run explain */
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    /* Injects the mapping context that knows the index annotations of each document */
+    @Autowired
+    private MongoMappingContext mappingContext;
+
+    /* Turns index creation off, e.g. when indexes are managed by a DBA */
+    @Value("${movies.indexes.create:true}")
+    private boolean createIndexes;
+
+    /* warn, fail or off (see class comment) */
+    @Value("${movies.indexes.plan-check:warn}")
+    private String planCheck;
+
+    /*
+       Creates the indexes and checks the query plans once the application is ready.
+    */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (planCheck.equalsIgnoreCase("fail")) {
+            ensureIndexes();
+            List<String> collscans = checkQueryPlans();
+            if (!collscans.isEmpty()) {
+                throw new IllegalStateException("Queries without a usable index: " + collscans);
+            }
+            return;
+        }
+
+        Thread thread = new Thread(() -> {
+            try {
+                ensureIndexes();
+                if (!planCheck.equalsIgnoreCase("off")) {
+                    checkQueryPlans().forEach(query -> log.warn("Query does a collection scan: {}", query));
+                }
+            } catch (RuntimeException ex) {
+                log.error("Could not create or verify MongoDB indexes", ex);
+            }
+        }, "mongo-indexes");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /*
+       Creates every index declared on the documents.
+       A failure on one index (e.g. duplicate emails prevent the unique index) is logged
+       and does not stop the others.
+    */
+    void ensureIndexes() {
+        if (!createIndexes) {
+            return;
+        }
+        IndexResolver resolver = IndexResolver.create(mappingContext);
+        for (Class<?> type : List.of(Movie.class, User.class, Order.class, LedgerEntry.class, MovieStats.class)) {
+            IndexOperations indexOps = mongoTemplate.indexOps(type);
+            resolver.resolveIndexFor(type).forEach(index -> {
+                try {
+                    indexOps.createIndex(index);
+                } catch (RuntimeException ex) {
+                    log.error("Could not create index {} on {}", index.getIndexKeys().toJson(), type.getSimpleName(), ex);
+                }
+            });
+        }
+    }
+
+    /*
+       Explains every query shape and returns the ones whose winning plan scans the collection.
+       Queries that must read every document anyway (the export stream, the unanchored
+       title regex used until the search index is loaded) are expected to scan and are skipped.
+    */
+    List<String> checkQueryPlans() {
+        String anyId = new ObjectId().toHexString();
+
+        List<PlannedQuery> queries = List.of(
+                new PlannedQuery("MovieRepository.findByType", Movie.class,
+                        Query.query(Criteria.where("type").is("movie"))),
+                new PlannedQuery("MovieRepository.streamByType", Movie.class,
+                        Query.query(Criteria.where("type").is("movie"))),
+                new PlannedQuery("MovieRepositoryCustom.findPage(type)", Movie.class,
+                        MovieRepositoryCustomImpl.pageQuery("movie", anyId, 50, null)),
+                new PlannedQuery("MovieRepositoryCustom.findPage", Movie.class,
+                        MovieRepositoryCustomImpl.pageQuery(null, anyId, 50, null)),
+                new PlannedQuery("MovieRepositoryCustom.updateFields", Movie.class,
+                        MovieRepositoryCustomImpl.updateQuery(anyId, 1L)),
+                new PlannedQuery("UserRepository.findByEmail", User.class,
+                        Query.query(Criteria.where("email").is("someone@example.com"))),
+                new PlannedQuery("OrderRepository.findByUserEmailOrderByCreatedAtDesc", Order.class,
+                        Query.query(Criteria.where("userEmail").is("someone@example.com"))
+                                .with(Sort.by(Sort.Direction.DESC, "createdAt")).limit(50)),
+                new PlannedQuery("OrderRepository.findByUserEmailAndIdempotencyKey", Order.class,
+                        Query.query(Criteria.where("userEmail").is("someone@example.com").and("idempotencyKey").is(anyId))),
+                new PlannedQuery("OrderRepository.findActiveByUserEmail", Order.class,
+                        Query.query(Criteria.where("userEmail").is("someone@example.com").orOperator(
+                                Criteria.where("kind").is("PURCHASE"),
+                                Criteria.where("expiresAt").gt(new Date())))),
+                new PlannedQuery("OrderRepository.findByUserEmailAndCreatedAtAfter", Order.class,
+                        Query.query(Criteria.where("userEmail").is("someone@example.com").and("createdAt").gt(new Date()))),
+                new PlannedQuery("OrderRepository.streamAllByOrderByUserEmailAscCreatedAtDesc", Order.class,
+                        new Query().with(Sort.by(Sort.Order.asc("userEmail"), Sort.Order.desc("createdAt")))),
+                new PlannedQuery("MovieStatsRepository.findByUpdatedAtAfter", MovieStats.class,
+                        Query.query(Criteria.where("updatedAt").gt(new Date()))));
+
+        List<String> collscans = new ArrayList<>();
+        for (PlannedQuery query : queries) {
+            Document queryPlanner = explain(query).get("queryPlanner", Document.class);
+            if (queryPlanner != null && hasStage(queryPlanner.get("winningPlan"), "COLLSCAN")) {
+                collscans.add(query.name());
+            }
+        }
+        return collscans;
+    }
+
+    /*
+       Runs "explain" on a query with the same filter, sort and limit the application sends.
+    */
+    private Document explain(PlannedQuery query) {
+        MongoPersistentEntity<?> entity = mappingContext.getRequiredPersistentEntity(query.type());
+        QueryMapper mapper = new QueryMapper(mongoTemplate.getConverter());
+        return mongoTemplate.getCollection(entity.getCollection())
+                .find(mapper.getMappedObject(query.query().getQueryObject(), entity))
+                .sort(mapper.getMappedSort(query.query().getSortObject(), entity))
+                .limit(query.query().getLimit())
+                .explain();
+    }
+
+    /*
+       Looks for a plan stage with the given name anywhere in an explain output
+       (stages nest through inputStage / inputStages and differ between server versions).
+    */
+    static boolean hasStage(Object node, String stage) {
+        if (node instanceof Document document) {
+            if (stage.equals(document.get("stage"))) {
+                return true;
+            }
+            for (Object value : document.values()) {
+                if (hasStage(value, stage)) {
+                    return true;
+                }
+            }
+        } else if (node instanceof List<?> list) {
+            for (Object value : list) {
+                if (hasStage(value, stage)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /* A repository query to explain, named after the method that issues it */
+    private record PlannedQuery(String name, Class<?> type, Query query) {
+    }
+}
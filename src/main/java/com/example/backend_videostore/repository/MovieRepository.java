@@ -1,7 +1,9 @@
 package com.example.backend_videostore.repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.springframework.data.mongodb.repository.Meta;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
 import com.example.backend_videostore.model.Movie;
@@ -13,8 +15,10 @@ import com.example.backend_videostore.model.Movie;
   It extends MongoRepository<Movie, String>, which provides:
   - Basic CRUD methods (save, findAll, findById, deleteById, etc.)
   - Automatic implementation of custom query methods based on method names
+
+  It also extends MovieRepositoryCustom for the paginated listing query.
 */
-public interface MovieRepository extends MongoRepository<Movie, String> {
+public interface MovieRepository extends MongoRepository<Movie, String>, MovieRepositoryCustom {
 
     /*
       Custom method to find movies where the title contains a specific string (case-insensitive).
@@ -27,4 +31,18 @@ public interface MovieRepository extends MongoRepository<Movie, String> {
       Used to filter listings by category.
     */
     List<Movie> findByType(String type);
+
+    /*
+      Streams every movie/TV show straight from a MongoDB cursor instead of loading a List.
+      The driver fetches documents in batches of cursorBatchSize, so memory stays bounded.
+      The returned Stream holds an open cursor and must be closed by the caller.
+    */
+    @Meta(cursorBatchSize = 500)
+    Stream<Movie> streamAllBy();
+
+    /*
+      Same as streamAllBy(), restricted to one type (e.g. "movie" or "tvshow").
+    */
+    @Meta(cursorBatchSize = 500)
+    Stream<Movie> streamByType(String type);
 }
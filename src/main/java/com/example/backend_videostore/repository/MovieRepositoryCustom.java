@@ -0,0 +1,53 @@
+package com.example.backend_videostore.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.example.backend_videostore.model.Movie;
+
+/*
+  MovieRepositoryCustom declares the queries on the "movies" collection that
+  cannot be expressed as Spring Data derived query methods.
+
+  Spring Data picks up the implementation from MovieRepositoryCustomImpl
+  and merges it into MovieRepository, so callers keep using a single repository.
+*/
+public interface MovieRepositoryCustom {
+
+    /*
+      Keyset (cursor) pagination over the "movies" collection ordered by _id.
+      - type: optional type filter (null means all types)
+      - afterId: only documents with an _id greater than this one are returned (null means from the start)
+      - limit: maximum number of documents to return
+      - fields: optional set of fields to load besides _id (null means the whole document, empty only _id)
+    */
+    List<Movie> findPage(String type, String afterId, int limit, Set<String> fields);
+
+    /*
+      Inserts movies with one unordered bulk write (a single round trip).
+      Every movie must already have an ID. A failing document does not stop the others.
+      Returns the error message of each failed document, keyed by its position in the list.
+    */
+    Map<Integer, String> bulkInsert(List<Movie> movies);
+
+    /*
+      Updates the editable fields of existing movies with one unordered bulk write.
+      Returns the error message of each failed document, keyed by its position in the list.
+    */
+    Map<Integer, String> bulkUpdate(List<Movie> movies);
+
+    /*
+      Returns which of the given IDs exist in the collection (reads only the _id field).
+    */
+    Set<String> findExistingIds(Collection<String> ids);
+
+    /*
+      Sets the given fields of one movie and increases its version, in a single
+      findAndModify round trip.
+      - expectedVersion: when not null, the update only applies if the stored version matches
+      Returns the updated movie, or null if no document matched (missing ID or version mismatch).
+    */
+    Movie updateFields(String id, Map<String, Object> fields, Long expectedVersion);
+}
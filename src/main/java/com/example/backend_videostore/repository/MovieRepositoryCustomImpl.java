@@ -0,0 +1,167 @@
+package com.example.backend_videostore.repository;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.example.backend_videostore.model.Movie;
+
+/*
+  MovieRepositoryCustomImpl implements the custom queries declared in MovieRepositoryCustom
+  using MongoTemplate directly.
+*/
+public class MovieRepositoryCustomImpl implements MovieRepositoryCustom {
+
+    /* Injects MongoTemplate to build queries that derived methods cannot express */
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    /*
+       Runs the keyset query built by pageQuery().
+    */
+    @Override
+    public List<Movie> findPage(String type, String afterId, int limit, Set<String> fields) {
+        return mongoTemplate.find(pageQuery(type, afterId, limit, fields), Movie.class);
+    }
+
+    /*
+       Builds a keyset query:
+       - filters by type when provided
+       - starts strictly after the given _id, so the next page never re-reads earlier documents
+       - sorts by _id, which is always indexed, and stops after "limit" documents
+       - restricts the returned fields when a projection is requested (_id is always included;
+         an empty projection returns only _id)
+
+       Shared with ReactiveMovieRepositoryCustomImpl.
+    */
+    static Query pageQuery(String type, String afterId, int limit, Set<String> fields) {
+        Query query = new Query();
+
+        if (type != null) {
+            query.addCriteria(Criteria.where("type").is(type));
+        }
+        if (afterId != null) {
+            query.addCriteria(Criteria.where("_id").gt(new ObjectId(afterId)));
+        }
+        if (fields != null) {
+            query.fields().include("_id");
+            fields.forEach(field -> query.fields().include(field));
+        }
+
+        return query.with(Sort.by(Sort.Direction.ASC, "_id")).limit(limit);
+    }
+
+    /*
+       Queues one insert per movie and sends them as a single unordered bulk write.
+    */
+    @Override
+    public Map<Integer, String> bulkInsert(List<Movie> movies) {
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Movie.class);
+        bulk.insert(movies);
+        return executeBulk(bulk);
+    }
+
+    /*
+       Queues one $set (and version $inc) per movie, matched by _id,
+       and sends them as a single unordered bulk write.
+    */
+    @Override
+    public Map<Integer, String> bulkUpdate(List<Movie> movies) {
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Movie.class);
+        for (Movie movie : movies) {
+            Update update = fieldsUpdate(editableFields(movie));
+            bulk.updateOne(Query.query(Criteria.where("_id").is(movie.getId())), update);
+        }
+        return executeBulk(bulk);
+    }
+
+    /*
+       Runs findAndModify with returnNew, so the caller gets the updated document
+       without a second query.
+    */
+    @Override
+    public Movie updateFields(String id, Map<String, Object> fields, Long expectedVersion) {
+        return mongoTemplate.findAndModify(updateQuery(id, expectedVersion), fieldsUpdate(fields),
+                FindAndModifyOptions.options().returnNew(true), Movie.class);
+    }
+
+    /*
+       Matches one movie by _id and, when expectedVersion is given, by version.
+       Documents without a version field count as version 0.
+       Shared with ReactiveMovieRepositoryCustomImpl.
+    */
+    static Query updateQuery(String id, Long expectedVersion) {
+        Query query = Query.query(Criteria.where("_id").is(id));
+        if (expectedVersion != null) {
+            query.addCriteria(expectedVersion == 0
+                    ? new Criteria().orOperator(Criteria.where("version").is(0L), Criteria.where("version").exists(false))
+                    : Criteria.where("version").is(expectedVersion));
+        }
+        return query;
+    }
+
+    /*
+       $set of the given fields plus $inc of the version.
+       Shared with ReactiveMovieRepositoryCustomImpl.
+    */
+    static Update fieldsUpdate(Map<String, Object> fields) {
+        Update update = new Update();
+        fields.forEach(update::set);
+        return update.inc("version", 1);
+    }
+
+    /*
+       All fields a full update (PUT) replaces.
+       Shared with ReactiveMovieRepositoryCustomImpl and the services.
+    */
+    public static Map<String, Object> editableFields(Movie movie) {
+        Map<String, Object> fields = new HashMap<>();
+        fields.put("title", movie.getTitle());
+        fields.put("shortDescription", movie.getShortDescription());
+        fields.put("rentalPrice", movie.getRentalPrice());
+        fields.put("purchasePrice", movie.getPurchasePrice());
+        fields.put("imageUrl", movie.getImageUrl());
+        fields.put("type", movie.getType());
+        return fields;
+    }
+
+    /*
+       Finds which IDs exist with one query that only returns _id.
+    */
+    @Override
+    public Set<String> findExistingIds(Collection<String> ids) {
+        Query query = Query.query(Criteria.where("_id").in(ids));
+        query.fields().include("_id");
+        return mongoTemplate.find(query, Movie.class).stream()
+                .map(Movie::getId)
+                .collect(Collectors.toSet());
+    }
+
+    /*
+       Executes a bulk write and collects per-document errors.
+       In unordered mode MongoDB applies every operation it can and reports the failed ones by index.
+    */
+    private static Map<Integer, String> executeBulk(BulkOperations bulk) {
+        Map<Integer, String> errors = new HashMap<>();
+        try {
+            bulk.execute();
+        } catch (BulkOperationException ex) {
+            ex.getErrors().forEach(error -> errors.put(error.getIndex(), error.getMessage()));
+        }
+        return errors;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.backend_videostore.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import com.example.backend_videostore.model.MovieStats;
+
+/*
+  This interface provides access to the activity counters of movies ("movie_stats" collection).
+  The counters are written in batches through MovieStatsRepositoryCustom.
+*/
+public interface MovieStatsRepository extends MongoRepository<MovieStats, String>, MovieStatsRepositoryCustom {
+
+    /*
+      Returns the counters of the movies with activity since the given time
+      (uses the updatedAt index); TrendingTitles seeds its scores with them.
+    */
+    List<MovieStats> findByUpdatedAtAfter(Instant since);
+}
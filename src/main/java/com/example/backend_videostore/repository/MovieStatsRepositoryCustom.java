@@ -0,0 +1,22 @@
+package com.example.backend_videostore.repository;
+
+import java.time.Duration;
+import java.util.Map;
+
+import com.example.backend_videostore.service.PopularityTracker;
+
+/*
+  MovieStatsRepositoryCustom declares the batched counter writes of TrendingTitles,
+  implemented with a MongoTemplate bulk operation in MovieStatsRepositoryCustomImpl.
+*/
+public interface MovieStatsRepositoryCustom {
+
+    /*
+      Adds the views and search hits of many movies with one unordered bulk write:
+      one atomic upsert per movie, so concurrent flushes (several instances) add up
+      instead of overwriting each other. The same update decays the stored trendingScore
+      from its updatedAt to now (halving every halfLife) and adds
+      views + searchHitWeight * searchHits to it. Any failure is thrown.
+    */
+    void incrementAll(Map<String, PopularityTracker.Activity> activity, Duration halfLife, double searchHitWeight);
+}
@@ -0,0 +1,75 @@
+package com.example.backend_videostore.repository;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.example.backend_videostore.model.MovieStats;
+import com.example.backend_videostore.service.PopularityTracker;
+
+/*
+  MovieStatsRepositoryCustomImpl implements the batched counter writes declared in
+  MovieStatsRepositoryCustom using MongoTemplate directly.
+
+  Each upsert is an update pipeline rather than $inc, because decaying the trending score
+  needs the stored score and updatedAt; within one $set stage every expression reads the
+  document as it was before the update.
+*/
+public class MovieStatsRepositoryCustomImpl implements MovieStatsRepositoryCustom {
+
+    /* Injects MongoTemplate to run the bulk writes */
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public void incrementAll(Map<String, PopularityTracker.Activity> activity, Duration halfLife, double searchHitWeight) {
+        if (activity.isEmpty()) {
+            return;
+        }
+        Date now = new Date();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, MovieStats.class);
+        activity.forEach((id, counts) -> {
+            Document set = new Document()
+                    .append("views", plus("$views", counts.views()))
+                    .append("searchHits", plus("$searchHits", counts.searchHits()))
+                    .append("trendingScore", new Document("$add", List.of(
+                            decayed(now, halfLife),
+                            counts.views() + searchHitWeight * counts.searchHits())))
+                    .append("updatedAt", now);
+            if (counts.type() != null) {
+                set.append("type", counts.type());
+            }
+            AggregationOperation stage = context -> new Document("$set", set);
+            bulk.upsert(Query.query(Criteria.where("_id").is(id)), AggregationUpdate.from(List.of(stage)));
+        });
+        bulk.execute();
+    }
+
+    /* { $add: [ { $ifNull: [ field, 0 ] }, amount ] } */
+    private static Document plus(String field, long amount) {
+        return new Document("$add", List.of(new Document("$ifNull", List.of(field, 0L)), amount));
+    }
+
+    /*
+       The stored trendingScore decayed from updatedAt to now:
+       trendingScore * 0.5 ^ (max(0, now - updatedAt) / halfLife), 0 for a new document.
+       Subtracting two dates gives milliseconds; max(0, ...) ignores clock skew between instances.
+    */
+    private static Document decayed(Date now, Duration halfLife) {
+        Document elapsed = new Document("$max", List.of(0L,
+                new Document("$subtract", List.of(now, new Document("$ifNull", List.of("$updatedAt", now))))));
+        return new Document("$multiply", List.of(
+                new Document("$ifNull", List.of("$trendingScore", 0.0)),
+                new Document("$pow", List.of(0.5, new Document("$divide", List.of(elapsed, (double) halfLife.toMillis()))))));
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.backend_videostore.repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+
+import com.example.backend_videostore.model.Order;
+
+/*
+  OrderRepository is a Spring Data MongoDB repository for the "orders" collection.
+
+  It also extends OrderRepositoryCustom for the batched writes of the checkout path.
+*/
+public interface OrderRepository extends MongoRepository<Order, String>, OrderRepositoryCustom {
+
+    /*
+      A user's orders, most recent first (served by the user_created index).
+    */
+    List<Order> findByUserEmailOrderByCreatedAtDesc(String userEmail, Pageable pageable);
+
+    /*
+      The order created with a given Idempotency-Key, if any.
+    */
+    Optional<Order> findByUserEmailAndIdempotencyKey(String userEmail, String idempotencyKey);
+
+    /*
+      A user's purchases and rentals still running at "now" (used to load the user's library).
+    */
+    @Query("{ 'userEmail': ?0, '$or': [ { 'kind': 'PURCHASE' }, { 'expiresAt': { '$gt': ?1 } } ] }")
+    List<Order> findActiveByUserEmail(String userEmail, Instant now);
+
+    /*
+      A user's orders created after "since" (served by the user_created index); used to catch
+      a library in memory up with orders written by other instances.
+    */
+    List<Order> findByUserEmailAndCreatedAtAfter(String userEmail, Instant since);
+
+    /*
+      Every order, one user after the other, each user's newest first (the order of the
+      user_created index, so no in-memory sort). The caller must close the returned Stream.
+    */
+    Stream<Order> streamAllByOrderByUserEmailAscCreatedAtDesc();
+}
@@ -0,0 +1,38 @@
+package com.example.backend_videostore.repository;
+
+import java.util.List;
+import java.util.Map;
+
+import com.example.backend_videostore.model.LedgerEntry;
+import com.example.backend_videostore.model.Order;
+
+/*
+  OrderRepositoryCustom declares the batched writes of the checkout path,
+  implemented with MongoTemplate bulk operations in OrderRepositoryCustomImpl.
+*/
+public interface OrderRepositoryCustom {
+
+    /* MongoDB error code of a unique index violation */
+    int DUPLICATE_KEY = 11000;
+
+    /*
+      Inserts many orders with one unordered bulk write.
+      Returns the failed orders by their position in the list, with the MongoDB error code
+      (11000 = duplicate key, i.e. the Idempotency-Key was already used); empty if all were inserted.
+    */
+    Map<Integer, Integer> insertOrders(List<Order> orders);
+
+    /*
+      Appends ledger entries with one unordered bulk write.
+      Entries whose order already has one (duplicate orderId) are skipped;
+      any other failure is thrown.
+    */
+    void appendLedger(List<LedgerEntry> entries);
+
+    /*
+      Creates the unique indexes the checkout relies on: {userEmail, idempotencyKey} on "orders"
+      (a retried checkout must not create a second order) and orderId on "ledger" (an order must
+      not be charged twice). Creating an index that already exists is a no-op; any failure is thrown.
+    */
+    void ensureUniqueIndexes();
+}
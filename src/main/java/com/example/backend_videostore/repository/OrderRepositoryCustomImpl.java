@@ -0,0 +1,76 @@
+package com.example.backend_videostore.repository;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import com.example.backend_videostore.model.LedgerEntry;
+import com.example.backend_videostore.model.Order;
+import com.mongodb.bulk.BulkWriteError;
+
+/*
+  OrderRepositoryCustomImpl implements the batched writes declared in OrderRepositoryCustom
+  using MongoTemplate directly.
+*/
+public class OrderRepositoryCustomImpl implements OrderRepositoryCustom {
+
+    /* Injects MongoTemplate to run the bulk writes */
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    /* Injects the mapping context that knows the index annotations of each document */
+    @Autowired
+    private MongoMappingContext mappingContext;
+
+    @Override
+    public Map<Integer, Integer> insertOrders(List<Order> orders) {
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Order.class);
+        bulk.insert(orders);
+
+        Map<Integer, Integer> errors = new HashMap<>();
+        try {
+            bulk.execute();
+        } catch (BulkOperationException ex) {
+            ex.getErrors().forEach(error -> errors.put(error.getIndex(), error.getCode()));
+        }
+        return errors;
+    }
+
+    @Override
+    public void appendLedger(List<LedgerEntry> entries) {
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, LedgerEntry.class);
+        bulk.insert(entries);
+        try {
+            bulk.execute();
+        } catch (BulkOperationException ex) {
+            for (BulkWriteError error : ex.getErrors()) {
+                if (error.getCode() != DUPLICATE_KEY) {
+                    throw ex;
+                }
+            }
+        }
+    }
+
+    /* 
+       Creates the unique indexes declared on Order and LedgerEntry, exactly as annotated,
+       so they match the ones MongoIndexInitializer creates.
+    */
+    @Override
+    public void ensureUniqueIndexes() {
+        IndexResolver resolver = IndexResolver.create(mappingContext);
+        for (Class<?> type : List.of(Order.class, LedgerEntry.class)) {
+            resolver.resolveIndexFor(type).forEach(index -> {
+                if (Boolean.TRUE.equals(index.getIndexOptions().get("unique"))) {
+                    mongoTemplate.indexOps(type).createIndex(index);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.backend_videostore.repository;
+
+import org.springframework.data.mongodb.repository.Meta;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+
+import com.example.backend_videostore.model.Movie;
+
+import reactor.core.publisher.Flux;
+
+/*
+  ReactiveMovieRepository is the non-blocking counterpart of MovieRepository,
+  used by the reactive variant of the movie API (profile "reactive").
+
+  It extends ReactiveMongoRepository<Movie, String>, whose methods return
+  Mono (zero or one result) and Flux (a stream of results) instead of blocking.
+*/
+public interface ReactiveMovieRepository extends ReactiveMongoRepository<Movie, String>, ReactiveMovieRepositoryCustom {
+
+    /*
+      Finds movies where the title contains a specific string (case-insensitive).
+    */
+    Flux<Movie> findByTitleContainingIgnoreCase(String title);
+
+    /*
+      Streams every movie/TV show. Documents are requested from the database
+      as the subscriber asks for them (backpressure), in batches of cursorBatchSize.
+    */
+    @Meta(cursorBatchSize = 500)
+    Flux<Movie> findAllBy();
+
+    /*
+      Streams the movies/TV shows of one type (e.g. "movie" or "tvshow").
+    */
+    @Meta(cursorBatchSize = 500)
+    Flux<Movie> findByType(String type);
+}
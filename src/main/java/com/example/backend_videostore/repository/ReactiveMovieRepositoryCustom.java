@@ -0,0 +1,28 @@
+package com.example.backend_videostore.repository;
+
+import java.util.Map;
+import java.util.Set;
+
+import com.example.backend_videostore.model.Movie;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/*
+  ReactiveMovieRepositoryCustom declares the non-blocking versions of the
+  paginated listing query and the single-document update from MovieRepositoryCustom.
+*/
+public interface ReactiveMovieRepositoryCustom {
+
+    /*
+      Keyset (cursor) pagination over the "movies" collection ordered by _id.
+      Same parameters as MovieRepositoryCustom.findPage().
+    */
+    Flux<Movie> findPage(String type, String afterId, int limit, Set<String> fields);
+
+    /*
+      Sets the given fields of one movie and increases its version in one findAndModify.
+      Same parameters as MovieRepositoryCustom.updateFields(); completes empty if nothing matched.
+    */
+    Mono<Movie> updateFields(String id, Map<String, Object> fields, Long expectedVersion);
+}
@@ -0,0 +1,36 @@
+package com.example.backend_videostore.repository;
+
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+
+import com.example.backend_videostore.model.Movie;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/*
+  ReactiveMovieRepositoryCustomImpl implements ReactiveMovieRepositoryCustom
+  with ReactiveMongoTemplate, reusing the queries built for the blocking repository.
+*/
+public class ReactiveMovieRepositoryCustomImpl implements ReactiveMovieRepositoryCustom {
+
+    /* Injects ReactiveMongoTemplate to run the query without blocking */
+    @Autowired
+    private ReactiveMongoTemplate reactiveMongoTemplate;
+
+    @Override
+    public Flux<Movie> findPage(String type, String afterId, int limit, Set<String> fields) {
+        return reactiveMongoTemplate.find(MovieRepositoryCustomImpl.pageQuery(type, afterId, limit, fields), Movie.class);
+    }
+
+    @Override
+    public Mono<Movie> updateFields(String id, Map<String, Object> fields, Long expectedVersion) {
+        return reactiveMongoTemplate.findAndModify(MovieRepositoryCustomImpl.updateQuery(id, expectedVersion),
+                MovieRepositoryCustomImpl.fieldsUpdate(fields),
+                FindAndModifyOptions.options().returnNew(true), Movie.class);
+    }
+}
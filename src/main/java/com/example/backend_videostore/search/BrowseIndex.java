@@ -0,0 +1,153 @@
+package com.example.backend_videostore.search;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.example.backend_videostore.model.Movie;
+import com.example.backend_videostore.service.CatalogLoadedEvent;
+import com.example.backend_videostore.service.MovieChangedEvent;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/*
+  BrowseIndex keeps the current CatalogColumns snapshot used by GET /api/movies/browse.
+
+  The index is filled by CatalogBootstrap at startup and kept up to date from MovieChangedEvent.
+  A write only records the change and schedules a full rebuild of the columns on the
+  "browse-index" thread. Rebuilds are spaced at least movies.browse.min-rebuild-interval apart
+  (measured from the end of the previous one): the first write after a quiet period is rebuilt
+  at once, and writes arriving while a rebuild is pending join it. Whatever the write rate, the
+  builder therefore runs at most once per interval, so a bulk import or a steady stream of
+  edits costs a bounded share of one core rather than one O(n log n) build per write.
+
+  The columns are rebuilt rather than patched in place because every sort order is a packed
+  permutation over all rows and the facet counts and type positions are derived from them;
+  inserting one row shifts every later position of each order, which is O(n) per write on
+  arrays that readers share without locking, so a patch would still copy the arrays. The
+  build sorts primitive keys and takes tens of milliseconds for the whole catalog.
+
+  Queries never lock and never wait for a rebuild: they read the current snapshot through a
+  volatile reference, which lags the writes by at most the interval plus the build time.
+
+  The lock on this object only guards the map of movies and is never held while building,
+  so the event listeners (and the writers that publish the events) are not slowed down by it.
+
+  Until the first full load has completed, isReady() is false: there is no snapshot to serve.
+*/
+@Component
+public class BrowseIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(BrowseIndex.class);
+
+    /* Current movies by ID, guarded by this; kept sorted so a rebuild starts from rows in ID order */
+    private final Map<String, Movie> movies = new TreeMap<>();
+
+    /* True while a rebuild is scheduled and has not yet copied the movies, guarded by this */
+    private boolean rebuildScheduled;
+
+    private volatile CatalogColumns columns = CatalogColumns.build(List.of());
+
+    private volatile boolean ready;
+
+    @Value("${movies.browse.min-rebuild-interval:1s}")
+    private Duration minRebuildInterval;
+
+    /* System.nanoTime() when the last rebuild finished; written by the builder thread only */
+    private volatile long lastRebuiltAt = System.nanoTime() - TimeUnit.DAYS.toNanos(1);
+
+    /* Runs every build, one at a time, so a newer snapshot is never replaced by an older one */
+    private ScheduledExecutorService builder;
+
+    @PostConstruct
+    public void init() {
+        builder = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "browse-index");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        builder.shutdownNow();
+    }
+
+    /*
+       Returns true once the whole catalog has been indexed.
+    */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /*
+       Returns the latest snapshot; writes made within the last min-rebuild-interval may not be in it yet.
+    */
+    public CatalogColumns columns() {
+        return columns;
+    }
+
+    /*
+       Applies a catalog change and schedules a rebuild, unless one is already waiting:
+       at once if the last one finished more than min-rebuild-interval ago, else when it will have.
+    */
+    @EventListener
+    public void onMovieChanged(MovieChangedEvent event) {
+        synchronized (this) {
+            if (event.getKind() == MovieChangedEvent.Kind.DELETED) {
+                event.getIds().forEach(movies::remove);
+            } else {
+                event.getMovies().forEach(movie -> movies.put(movie.getId(), movie));
+            }
+            if (rebuildScheduled) {
+                return;
+            }
+            rebuildScheduled = true;
+        }
+        long wait = lastRebuiltAt + minRebuildInterval.toNanos() - System.nanoTime();
+        builder.schedule(this::rebuild, Math.max(0, wait), TimeUnit.NANOSECONDS);
+    }
+
+    /*
+       Builds the first complete snapshot once CatalogBootstrap has delivered every movie;
+       the index is ready once it is published.
+    */
+    @EventListener
+    public void onCatalogLoaded(CatalogLoadedEvent event) {
+        builder.execute(() -> {
+            if (rebuild()) {
+                ready = true;
+            }
+        });
+    }
+
+    /* Runs on the builder thread: copies the movies under the lock, builds without it */
+    private boolean rebuild() {
+        List<Movie> snapshot;
+        synchronized (this) {
+            rebuildScheduled = false;
+            snapshot = new ArrayList<>(movies.values());
+        }
+        try {
+            columns = CatalogColumns.build(snapshot);
+            return true;
+        } catch (RuntimeException ex) {
+            log.error("Could not rebuild the browse index of {} movies", snapshot.size(), ex);
+            return false;
+        } finally {
+            lastRebuiltAt = System.nanoTime();
+        }
+    }
+}
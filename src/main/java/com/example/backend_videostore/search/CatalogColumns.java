@@ -0,0 +1,525 @@
+package com.example.backend_videostore.search;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.IntPredicate;
+
+import com.example.backend_videostore.model.Movie;
+
+/*
+  CatalogColumns is an immutable, column-oriented snapshot of the catalog that answers
+  filtered, sorted and paginated browse queries (GET /api/movies/browse) with type facets.
+
+  Layout (one row per movie, rows in ID order):
+  - rentalPrice / purchasePrice: double[] columns (NaN when a price is missing)
+  - titleKeys: lower-cased titles, for the title sort
+  - typeRows: one BitSet per type, with the rows of that type
+  - byTitle / byRentalPrice / byPurchasePrice: the rows sorted by that column (ties in ID order);
+    the ID order needs no array since it is the row order itself
+  - rentalTypePositions / purchaseTypePositions: per type, the positions in byRentalPrice /
+    byPurchasePrice of the rows of that type, ascending; together they hold one int per row
+    whatever the number of types
+
+  A query walks the rows in the order of its sort, starting at the cursor (found by binary search)
+  and, when it sorts by a price it also filters on, only within the price range (binary search too).
+  Each row is checked with a bit lookup and two double comparisons, and the walk stops once the
+  page is full: a page costs O(log n + rows skipped) rather than O(n log n).
+
+  Facet counts (matching titles per type, whatever types were selected) cost one BitSet cardinality
+  per type without a price filter, two binary searches in the type's positions with one price range,
+  and one pass over the rows of the narrower range when both prices are filtered.
+
+  Building a snapshot sorts primitive longs (value rank << 32 | row) rather than boxed rows.
+
+  Snapshots are never changed; BrowseIndex builds a new one after catalog writes.
+*/
+public final class CatalogColumns {
+
+    /* Orders a browse query can ask for */
+    public enum SortKey {
+
+        ID("id"), TITLE("title"), RENTAL_PRICE("rentalPrice"), PURCHASE_PRICE("purchasePrice");
+
+        private final String field;
+
+        SortKey(String field) {
+            this.field = field;
+        }
+
+        static SortKey of(String field) {
+            for (SortKey key : values()) {
+                if (key.field.equals(field)) {
+                    return key;
+                }
+            }
+            throw new IllegalArgumentException("Unknown sort: " + field);
+        }
+    }
+
+    /* Inclusive price bounds; a null bound is open. A movie without the price only matches an open range. */
+    public record PriceRange(Double min, Double max) {
+
+        public static final PriceRange ANY = new PriceRange(null, null);
+
+        public PriceRange {
+            if (min != null && max != null && min > max) {
+                throw new IllegalArgumentException("Price range minimum " + min + " is above its maximum " + max);
+            }
+        }
+
+        boolean isAny() {
+            return min == null && max == null;
+        }
+
+        boolean contains(double price) {
+            if (isAny()) {
+                return true;
+            }
+            return !Double.isNaN(price) && (min == null || price >= min) && (max == null || price <= max);
+        }
+    }
+
+    /*
+      A browse query:
+      - types: the types to return (empty = all)
+      - sort: a field name (id, title, rentalPrice, purchasePrice), "-" first for descending; null = id
+      - after: the nextCursor of the previous page, or null for the first page
+    */
+    public record Query(Set<String> types, PriceRange rentalPrice, PriceRange purchasePrice,
+                        String sort, String after, int limit) {
+
+        public Query {
+            sortKey(sort);
+        }
+    }
+
+    /*
+      One page of a browse query:
+      - total: number of movies matching the whole query
+      - facets: type -> number of movies matching the price ranges, for every type of the catalog
+    */
+    public record Result(List<Movie> items, String nextCursor, long total, Map<String, Long> facets) {
+    }
+
+    private final Movie[] rows;
+
+    private final String[] ids;
+
+    private final String[] titleKeys;
+
+    private final double[] rentalPrice;
+
+    private final double[] purchasePrice;
+
+    /* Index into typeNames of each row's type, -1 without a type */
+    private final int[] typeOrdinals;
+
+    /* Known types, sorted */
+    private final String[] typeNames;
+
+    private final BitSet[] typeRows;
+
+    private final int[] byTitle;
+
+    private final int[] byRentalPrice;
+
+    private final int[] byPurchasePrice;
+
+    /* [type ordinal, or typeNames.length for rows without a type] -> ascending positions in the order */
+    private final int[][] rentalTypePositions;
+
+    private final int[][] purchaseTypePositions;
+
+    private CatalogColumns(Movie[] rows) {
+        int size = rows.length;
+        this.rows = rows;
+        ids = new String[size];
+        titleKeys = new String[size];
+        rentalPrice = new double[size];
+        purchasePrice = new double[size];
+        typeOrdinals = new int[size];
+
+        TreeSet<String> types = new TreeSet<>();
+        for (Movie movie : rows) {
+            if (movie.getType() != null) {
+                types.add(movie.getType());
+            }
+        }
+        typeNames = types.toArray(String[]::new);
+        typeRows = new BitSet[typeNames.length];
+        for (int t = 0; t < typeRows.length; t++) {
+            typeRows[t] = new BitSet(size);
+        }
+
+        for (int row = 0; row < size; row++) {
+            Movie movie = rows[row];
+            ids[row] = movie.getId();
+            titleKeys[row] = movie.getTitle() != null ? movie.getTitle().toLowerCase(Locale.ROOT) : "";
+            rentalPrice[row] = price(movie.getRentalPrice());
+            purchasePrice[row] = price(movie.getPurchasePrice());
+            typeOrdinals[row] = movie.getType() != null ? ordinal(movie.getType()) : -1;
+            if (typeOrdinals[row] >= 0) {
+                typeRows[typeOrdinals[row]].set(row);
+            }
+        }
+
+        byTitle = sortRows(titleRanks());
+        byRentalPrice = sortRows(priceRanks(rentalPrice));
+        byPurchasePrice = sortRows(priceRanks(purchasePrice));
+        rentalTypePositions = typePositions(byRentalPrice);
+        purchaseTypePositions = typePositions(byPurchasePrice);
+    }
+
+    /*
+       Builds a snapshot of the given movies (movies without an ID are ignored).
+    */
+    public static CatalogColumns build(Collection<Movie> movies) {
+        return new CatalogColumns(movies.stream()
+                .filter(movie -> movie.getId() != null)
+                .sorted(Comparator.comparing(Movie::getId))
+                .toArray(Movie[]::new));
+    }
+
+    public int size() {
+        return rows.length;
+    }
+
+    /*
+       Runs a browse query. Throws IllegalArgumentException for an unknown sort or an invalid cursor.
+    */
+    public Result query(Query query) {
+        boolean descending = query.sort() != null && query.sort().startsWith("-");
+        SortKey sort = sortKey(query.sort());
+        BitSet typeFilter = typeFilter(query.types());
+        IntPredicate matches = row -> (typeFilter == null || typeFilter.get(row))
+                && query.rentalPrice().contains(rentalPrice[row])
+                && query.purchasePrice().contains(purchasePrice[row]);
+
+        // positions (in the sort order) that can match: the price range when sorting by that price,
+        // then only what comes after the cursor
+        int[] order = order(sort);
+        int from = 0;
+        int to = rows.length;
+        if (sort == SortKey.RENTAL_PRICE || sort == SortKey.PURCHASE_PRICE) {
+            double[] prices = sort == SortKey.RENTAL_PRICE ? rentalPrice : purchasePrice;
+            PriceRange range = sort == SortKey.RENTAL_PRICE ? query.rentalPrice() : query.purchasePrice();
+            from = from(order, prices, range);
+            to = to(order, prices, range);
+        }
+        if (query.after() != null) {
+            Cursor cursor = Cursor.decode(query.after(), sort);
+            if (descending) {
+                to = Math.min(to, search(order, row -> compare(sort, row, cursor) < 0));
+            } else {
+                from = Math.max(from, search(order, row -> compare(sort, row, cursor) <= 0));
+            }
+        }
+
+        List<Movie> items = new ArrayList<>(Math.min(query.limit() + 1, 1024));
+        int lastRow = -1;
+        if (order == null && typeFilter != null) {
+            // ID order with a type filter: jump from one row of the type to the next
+            for (int row = descending ? typeFilter.previousSetBit(to - 1) : typeFilter.nextSetBit(from);
+                 row >= from && row < to && items.size() <= query.limit();
+                 row = descending ? typeFilter.previousSetBit(row - 1) : typeFilter.nextSetBit(row + 1)) {
+                if (matches.test(row)) {
+                    lastRow = collect(items, row, query.limit(), lastRow);
+                }
+            }
+        } else {
+            for (int step = 0; step < to - from && items.size() <= query.limit(); step++) {
+                int position = descending ? to - 1 - step : from + step;
+                int row = order != null ? order[position] : position;
+                if (matches.test(row)) {
+                    lastRow = collect(items, row, query.limit(), lastRow);
+                }
+            }
+        }
+
+        String nextCursor = null;
+        if (items.size() > query.limit()) {
+            items.remove(items.size() - 1);
+            nextCursor = Cursor.encode(sortValue(sort, lastRow), ids[lastRow]);
+        }
+
+        long[] counts = facetCounts(query.rentalPrice(), query.purchasePrice());
+        Map<String, Long> facets = new LinkedHashMap<>();
+        long total = 0;
+        for (int t = 0; t < typeNames.length; t++) {
+            facets.put(typeNames[t], counts[t]);
+            if (query.types().isEmpty() || query.types().contains(typeNames[t])) {
+                total += counts[t];
+            }
+        }
+        if (query.types().isEmpty()) {
+            total += counts[typeNames.length];
+        }
+        return new Result(items, nextCursor, total, facets);
+    }
+
+    private static SortKey sortKey(String sort) {
+        if (sort == null) {
+            return SortKey.ID;
+        }
+        return SortKey.of(sort.startsWith("-") ? sort.substring(1) : sort);
+    }
+
+    /* Adds a row to the page; returns the last row of the page (not of the look-ahead row) */
+    private int collect(List<Movie> items, int row, int limit, int lastRow) {
+        items.add(rows[row]);
+        return items.size() <= limit ? row : lastRow;
+    }
+
+    /*
+       Counts the rows in both price ranges per type; the last count is for rows without a type.
+    */
+    private long[] facetCounts(PriceRange rental, PriceRange purchase) {
+        long[] counts = new long[typeNames.length + 1];
+        if (rental.isAny() && purchase.isAny()) {
+            long typed = 0;
+            for (int t = 0; t < typeNames.length; t++) {
+                counts[t] = typeRows[t].cardinality();
+                typed += counts[t];
+            }
+            counts[typeNames.length] = rows.length - typed;
+            return counts;
+        }
+
+        int rentalFrom = from(byRentalPrice, rentalPrice, rental);
+        int rentalTo = to(byRentalPrice, rentalPrice, rental);
+        int purchaseFrom = from(byPurchasePrice, purchasePrice, purchase);
+        int purchaseTo = to(byPurchasePrice, purchasePrice, purchase);
+        if (purchase.isAny() || rental.isAny()) {
+            // one range: the positions of each type that fall within it
+            int[][] positions = purchase.isAny() ? rentalTypePositions : purchaseTypePositions;
+            int from = purchase.isAny() ? rentalFrom : purchaseFrom;
+            int to = purchase.isAny() ? rentalTo : purchaseTo;
+            for (int t = 0; t < counts.length; t++) {
+                counts[t] = to > from ? countBelow(positions[t], to) - countBelow(positions[t], from) : 0;
+            }
+            return counts;
+        }
+
+        // both ranges: walk the rows of the narrower one and check the other
+        boolean byRental = rentalTo - rentalFrom <= purchaseTo - purchaseFrom;
+        int[] order = byRental ? byRentalPrice : byPurchasePrice;
+        int from = byRental ? rentalFrom : purchaseFrom;
+        int to = byRental ? rentalTo : purchaseTo;
+        for (int position = from; position < to; position++) {
+            int row = order[position];
+            if (rental.contains(rentalPrice[row]) && purchase.contains(purchasePrice[row])) {
+                int ordinal = typeOrdinals[row];
+                counts[ordinal >= 0 ? ordinal : typeNames.length]++;
+            }
+        }
+        return counts;
+    }
+
+    /* First position of a price order within the range */
+    private int from(int[] order, double[] prices, PriceRange range) {
+        return range.min() != null ? search(order, row -> prices[row] < range.min()) : 0;
+    }
+
+    /* Position after the last one of a price order within the range (rows without a price sort last) */
+    private int to(int[] order, double[] prices, PriceRange range) {
+        if (range.max() != null) {
+            return search(order, row -> prices[row] <= range.max());
+        }
+        return range.isAny() ? rows.length : search(order, row -> !Double.isNaN(prices[row]));
+    }
+
+    /* Rows of the selected types, or null when every type is selected */
+    private BitSet typeFilter(Set<String> types) {
+        if (types.isEmpty()) {
+            return null;
+        }
+        BitSet selected = new BitSet();
+        for (String type : types) {
+            int ordinal = ordinal(type);
+            if (ordinal >= 0) {
+                if (types.size() == 1) {
+                    return typeRows[ordinal];
+                }
+                selected.or(typeRows[ordinal]);
+            }
+        }
+        return selected;
+    }
+
+    private int ordinal(String type) {
+        int ordinal = Arrays.binarySearch(typeNames, type);
+        return ordinal >= 0 ? ordinal : -1;
+    }
+
+    /* The rows in the order of a sort; null for the ID order, which is the row order */
+    private int[] order(SortKey sort) {
+        return switch (sort) {
+            case ID -> null;
+            case TITLE -> byTitle;
+            case RENTAL_PRICE -> byRentalPrice;
+            case PURCHASE_PRICE -> byPurchasePrice;
+        };
+    }
+
+    /*
+       Returns the first position whose row does not satisfy "before", which must hold
+       for a prefix of the positions (binary search).
+    */
+    private int search(int[] order, IntPredicate before) {
+        int low = 0;
+        int high = rows.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (before.test(order != null ? order[middle] : middle)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /* Compares a row with a cursor in ascending sort order (ties in ID order) */
+    private int compare(SortKey sort, int row, Cursor cursor) {
+        int byValue = switch (sort) {
+            case ID -> 0;
+            case TITLE -> titleKeys[row].compareTo(cursor.value());
+            case RENTAL_PRICE -> Double.compare(rentalPrice[row], cursor.number());
+            case PURCHASE_PRICE -> Double.compare(purchasePrice[row], cursor.number());
+        };
+        return byValue != 0 ? byValue : ids[row].compareTo(cursor.id());
+    }
+
+    private String sortValue(SortKey sort, int row) {
+        return switch (sort) {
+            case ID -> "";
+            case TITLE -> titleKeys[row];
+            case RENTAL_PRICE -> Double.toString(rentalPrice[row]);
+            case PURCHASE_PRICE -> Double.toString(purchasePrice[row]);
+        };
+    }
+
+    /*
+       Sorts the rows by a rank per row (equal values, equal ranks), ties in row order:
+       rank and row are packed into one long, so a primitive sort does the work.
+    */
+    private static int[] sortRows(int[] ranks) {
+        long[] keys = new long[ranks.length];
+        for (int row = 0; row < ranks.length; row++) {
+            keys[row] = (long) ranks[row] << 32 | row;
+        }
+        Arrays.sort(keys);
+        int[] order = new int[keys.length];
+        for (int position = 0; position < keys.length; position++) {
+            order[position] = (int) keys[position];
+        }
+        return order;
+    }
+
+    /* Rank of each row's price among the distinct prices (Double.compare order, NaN last) */
+    private static int[] priceRanks(double[] prices) {
+        double[] sorted = prices.clone();
+        Arrays.sort(sorted);
+        int distinct = 0;
+        for (double price : sorted) {
+            if (distinct == 0 || Double.compare(sorted[distinct - 1], price) != 0) {
+                sorted[distinct++] = price;
+            }
+        }
+        int[] ranks = new int[prices.length];
+        for (int row = 0; row < prices.length; row++) {
+            ranks[row] = Arrays.binarySearch(sorted, 0, distinct, prices[row]);
+        }
+        return ranks;
+    }
+
+    /* Rank of each row's title key among the distinct title keys */
+    private int[] titleRanks() {
+        String[] sorted = titleKeys.clone();
+        Arrays.sort(sorted);
+        Map<String, Integer> rankByTitle = new HashMap<>(sorted.length * 2);
+        for (int position = sorted.length - 1; position >= 0; position--) {
+            rankByTitle.put(sorted[position], position);
+        }
+        int[] ranks = new int[titleKeys.length];
+        for (int row = 0; row < titleKeys.length; row++) {
+            ranks[row] = rankByTitle.get(titleKeys[row]);
+        }
+        return ranks;
+    }
+
+    /* The positions along an order of the rows of each type (rows without a type last), ascending */
+    private int[][] typePositions(int[] order) {
+        int[] sizes = new int[typeNames.length + 1];
+        for (int ordinal : typeOrdinals) {
+            sizes[ordinal >= 0 ? ordinal : typeNames.length]++;
+        }
+        int[][] positions = new int[sizes.length][];
+        for (int t = 0; t < sizes.length; t++) {
+            positions[t] = new int[sizes[t]];
+            sizes[t] = 0;
+        }
+        for (int position = 0; position < order.length; position++) {
+            int ordinal = typeOrdinals[order[position]];
+            int t = ordinal >= 0 ? ordinal : typeNames.length;
+            positions[t][sizes[t]++] = position;
+        }
+        return positions;
+    }
+
+    /* Number of ascending positions below "position" (binary search) */
+    private static int countBelow(int[] positions, int position) {
+        int low = 0;
+        int high = positions.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (positions[middle] < position) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static double price(Double price) {
+        return price != null ? price : Double.NaN;
+    }
+
+    /*
+      Position of the last movie of a page: its sort value and ID, so that the next page starts
+      right after it even if that movie has been changed or deleted meanwhile.
+      Sent to clients as URL-safe Base64 of "value\nid".
+    */
+    private record Cursor(String value, double number, String id) {
+
+        static String encode(String value, String id) {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((value + "\n" + id).getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String cursor, SortKey sort) {
+            try {
+                String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = decoded.lastIndexOf('\n');
+                String value = decoded.substring(0, separator);
+                boolean numeric = sort == SortKey.RENTAL_PRICE || sort == SortKey.PURCHASE_PRICE;
+                return new Cursor(value, numeric ? Double.parseDouble(value) : Double.NaN, decoded.substring(separator + 1));
+            } catch (RuntimeException ex) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+        }
+    }
+}
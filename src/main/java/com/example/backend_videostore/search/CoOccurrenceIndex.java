@@ -0,0 +1,473 @@
+package com.example.backend_videostore.search;
+
+import java.util.ArrayList;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+/*
+  CoOccurrenceIndex counts how often two titles are rented or bought by the same user,
+  and keeps, for every title, the K titles most often taken together with it.
+
+  It is maintained incrementally, one order at a time:
+  - every title gets a small int number, so counters are int -> int maps (open addressing)
+    instead of maps of Strings and boxed Integers
+  - each user's last "historySize" distinct titles are remembered; a new order adds 1 to
+    the pair (new title, each of those titles), in both directions
+  - each title's top K is a bounded min-heap of K entries updated with every increment,
+    so reading the related titles costs O(K), whatever the size of the catalog or the history
+
+  Counter maps only grow; compact() trims each one to its "maxNeighbours" largest counts
+  and forgets deleted titles. A trimmed pair that occurs again starts over from 1, so counts
+  are exact for frequent pairs and approximate for the long tail, which is never recommended.
+
+  A deleted title loses its ID at once but keeps its number, marked in "removed", until the
+  next compact() has taken it out of every counter and user history; the number is then free
+  and the next new title reuses it. Title numbers, rows and the removed set are therefore
+  bounded by the titles that have been ordered and not deleted, plus those deleted since the
+  last compaction, not by every title ever ordered.
+
+  This class is not thread-safe; RelatedTitles guards it with a read/write lock.
+*/
+public final class CoOccurrenceIndex {
+
+    private final int topK;
+
+    private final int historySize;
+
+    private final int maxNeighbours;
+
+    /* Title ID -> number, and back (null for a free number) */
+    private final Map<String, Integer> numbers = new HashMap<>();
+
+    private final List<String> titleIds = new ArrayList<>();
+
+    /* Numbers of deleted titles that compact() has freed, reused before new ones */
+    private final ArrayDeque<Integer> free = new ArrayDeque<>();
+
+    /* Per title number: co-occurrence counters, top K and number of orders */
+    private final List<Row> rows = new ArrayList<>();
+
+    /* Numbers of deleted titles, until compact() frees them */
+    private final BitSet removed = new BitSet();
+
+    /* User -> numbers of the user's last distinct titles, oldest first (least recently active users dropped first) */
+    private final LinkedHashMap<String, int[]> histories;
+
+    public CoOccurrenceIndex(int topK, int historySize, int maxNeighbours, int maxUsers) {
+        this.topK = topK;
+        this.historySize = historySize;
+        this.maxNeighbours = Math.max(topK, maxNeighbours);
+        this.histories = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, int[]> eldest) {
+                return size() > maxUsers;
+            }
+        };
+    }
+
+    /* Number of titles that have been ordered and not deleted */
+    public int size() {
+        return numbers.size();
+    }
+
+    /* Number of users whose recent titles are remembered */
+    public int users() {
+        return histories.size();
+    }
+
+    /* 
+       Records that a user rented or bought a title.
+       A title already in the user's recent history (a second rental, a rental then a purchase)
+       changes nothing.
+    */
+    public void record(String user, String titleId) {
+        int title = number(titleId);
+        Row row = rows.get(title);
+
+        int[] history = histories.getOrDefault(user, new int[0]);
+        for (int other : history) {
+            if (other == title) {
+                return;
+            }
+        }
+        row.orders++;
+        for (int other : history) {
+            if (!removed.get(other)) {
+                row.increment(other);
+                rows.get(other).increment(title);
+            }
+        }
+
+        int[] updated;
+        if (history.length < historySize) {
+            updated = Arrays.copyOf(history, history.length + 1);
+        } else {
+            updated = new int[historySize];
+            System.arraycopy(history, history.length - historySize + 1, updated, 0, historySize - 1);
+        }
+        updated[updated.length - 1] = title;
+        histories.put(user, updated);
+    }
+
+    /* 
+       Returns up to "limit" titles most often taken together with the given one, most frequent first.
+    */
+    public List<String> related(String titleId, int limit) {
+        Integer title = numbers.get(titleId);
+        if (title == null || removed.get(title)) {
+            return List.of();
+        }
+        List<String> related = new ArrayList<>(Math.min(limit, topK));
+        for (int other : rows.get(title).top.sorted()) {
+            if (related.size() == limit) {
+                break;
+            }
+            if (!removed.get(other)) {
+                related.add(titleIds.get(other));
+            }
+        }
+        return related;
+    }
+
+    /* 
+       Returns how often a title was ordered.
+    */
+    public int orders(String titleId) {
+        Integer title = numbers.get(titleId);
+        return title == null || removed.get(title) ? 0 : rows.get(title).orders;
+    }
+
+    /* 
+       Returns the ordered titles, most ordered first.
+    */
+    public List<String> titlesByOrders() {
+        return IntStream.range(0, titleIds.size())
+                .filter(title -> !removed.get(title) && rows.get(title).orders > 0)
+                .boxed()
+                .sorted(Comparator.comparingInt((Integer title) -> rows.get(title).orders).reversed())
+                .map(titleIds::get)
+                .toList();
+    }
+
+    /* 
+       Forgets a deleted title. Other titles still count it until the next compact(),
+       but it is never returned; a title created again with the same ID starts from nothing.
+    */
+    public void remove(String titleId) {
+        Integer title = numbers.remove(titleId);
+        if (title != null) {
+            removed.set(title);
+            rows.set(title, new Row(topK));
+        }
+    }
+
+    /* 
+       Drops the counters of deleted titles and trims every title to its maxNeighbours
+       largest counters; the top K of a trimmed title is rebuilt from the counters left.
+       The numbers of deleted titles are then taken out of the user histories and freed.
+       Returns the number of counters dropped.
+    */
+    public int compact() {
+        int dropped = 0;
+        for (Row row : rows) {
+            int before = row.counters.size();
+            boolean changed = !removed.isEmpty() && row.counters.removeIf(removed::get);
+            if (row.counters.size() > maxNeighbours) {
+                row.counters.retainLargest(maxNeighbours);
+                changed = true;
+            }
+            if (changed) {
+                row.top = TopK.of(row.counters, topK);
+            }
+            dropped += before - row.counters.size();
+        }
+        if (!removed.isEmpty()) {
+            reclaimRemoved();
+        }
+        return dropped;
+    }
+
+    /* Runs once no counter refers to a deleted title: removes them from the histories, frees their numbers */
+    private void reclaimRemoved() {
+        for (Map.Entry<String, int[]> entry : histories.entrySet()) {
+            int[] history = entry.getValue();
+            int kept = 0;
+            for (int title : history) {
+                if (!removed.get(title)) {
+                    kept++;
+                }
+            }
+            if (kept < history.length) {
+                int[] filtered = new int[kept];
+                int next = 0;
+                for (int title : history) {
+                    if (!removed.get(title)) {
+                        filtered[next++] = title;
+                    }
+                }
+                entry.setValue(filtered);
+            }
+        }
+        removed.stream().forEach(title -> {
+            titleIds.set(title, null);
+            free.push(title);
+        });
+        removed.clear();
+    }
+
+    private int number(String titleId) {
+        Integer title = numbers.get(titleId);
+        if (title == null) {
+            if (free.isEmpty()) {
+                title = titleIds.size();
+                titleIds.add(titleId);
+                rows.add(new Row(topK));
+            } else {
+                title = free.pop();
+                titleIds.set(title, titleId);
+                rows.set(title, new Row(topK));
+            }
+            numbers.put(titleId, title);
+        }
+        return title;
+    }
+
+    /* Everything known about one title */
+    private static final class Row {
+
+        private final Counters counters = new Counters();
+
+        private TopK top;
+
+        private int orders;
+
+        private Row(int topK) {
+            this.top = new TopK(topK);
+        }
+
+        private void increment(int other) {
+            top.offer(other, counters.increment(other));
+        }
+    }
+
+    /* 
+       Map of int keys (title numbers) to int counts, with open addressing and linear probing.
+    */
+    static final class Counters {
+
+        private static final int EMPTY = -1;
+
+        private int[] keys = newKeys(8);
+
+        private int[] counts = new int[8];
+
+        private int size;
+
+        int size() {
+            return size;
+        }
+
+        int get(int key) {
+            int slot = find(key);
+            return keys[slot] == key ? counts[slot] : 0;
+        }
+
+        /* Adds 1 to a key's count and returns the new count */
+        int increment(int key) {
+            int slot = find(key);
+            if (keys[slot] != key) {
+                if ((size + 1) * 2 > keys.length) {
+                    resize(keys.length * 2);
+                    slot = find(key);
+                }
+                keys[slot] = key;
+                size++;
+            }
+            return ++counts[slot];
+        }
+
+        /* Removes the keys matching the predicate; returns true if any was removed */
+        boolean removeIf(IntPredicate predicate) {
+            int before = size;
+            rebuild(key -> !predicate.test(key), keys.length);
+            return size != before;
+        }
+
+        /* Keeps only the n largest counts (ties broken arbitrarily) */
+        void retainLargest(int n) {
+            // count in the high half, key in the low half: sorting sorts by count
+            long[] entries = new long[size];
+            int next = 0;
+            for (int slot = 0; slot < keys.length; slot++) {
+                if (keys[slot] != EMPTY) {
+                    entries[next++] = (long) counts[slot] << 32 | keys[slot];
+                }
+            }
+            Arrays.sort(entries);
+
+            keys = newKeys(Integer.highestOneBit(Math.max(4, n)) * 4);
+            counts = new int[keys.length];
+            size = 0;
+            for (int i = entries.length - 1; i >= Math.max(0, entries.length - n); i--) {
+                int slot = find((int) entries[i]);
+                keys[slot] = (int) entries[i];
+                counts[slot] = (int) (entries[i] >>> 32);
+                size++;
+            }
+        }
+
+        void forEach(IntIntConsumer action) {
+            for (int slot = 0; slot < keys.length; slot++) {
+                if (keys[slot] != EMPTY) {
+                    action.accept(keys[slot], counts[slot]);
+                }
+            }
+        }
+
+        private int find(int key) {
+            int mask = keys.length - 1;
+            int slot = (key * 0x9E3779B9) >>> 1 & mask;
+            while (keys[slot] != EMPTY && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private void resize(int capacity) {
+            rebuild(key -> true, capacity);
+        }
+
+        private void rebuild(IntPredicate keep, int capacity) {
+            int[] oldKeys = keys;
+            int[] oldCounts = counts;
+            keys = newKeys(capacity);
+            counts = new int[capacity];
+            size = 0;
+            for (int slot = 0; slot < oldKeys.length; slot++) {
+                if (oldKeys[slot] != EMPTY && keep.test(oldKeys[slot])) {
+                    int target = find(oldKeys[slot]);
+                    keys[target] = oldKeys[slot];
+                    counts[target] = oldCounts[slot];
+                    size++;
+                }
+            }
+        }
+
+        private static int[] newKeys(int capacity) {
+            int[] keys = new int[capacity];
+            Arrays.fill(keys, EMPTY);
+            return keys;
+        }
+    }
+
+    /* Receives the entries of a Counters map */
+    @FunctionalInterface
+    interface IntIntConsumer {
+        void accept(int key, int count);
+    }
+
+    /* 
+       The K keys with the largest counts, as a min-heap on the count: the root is the entry
+       to replace when a larger count comes in. K is small, so finding a key already in the
+       heap is a scan of K ints.
+    */
+    static final class TopK {
+
+        private final int[] keys;
+
+        private final int[] counts;
+
+        private int size;
+
+        TopK(int k) {
+            keys = new int[k];
+            counts = new int[k];
+        }
+
+        static TopK of(Counters counters, int k) {
+            TopK top = new TopK(k);
+            counters.forEach(top::offer);
+            return top;
+        }
+
+        /* Records the new count of a key (smaller only after its counter was trimmed) */
+        void offer(int key, int count) {
+            for (int i = 0; i < size; i++) {
+                if (keys[i] == key) {
+                    counts[i] = count;
+                    siftDown(siftUp(i));
+                    return;
+                }
+            }
+            if (size < keys.length) {
+                keys[size] = key;
+                counts[size] = count;
+                siftUp(size++);
+            } else if (keys.length > 0 && count > counts[0]) {
+                keys[0] = key;
+                counts[0] = count;
+                siftDown(0);
+            }
+        }
+
+        /* The keys, largest count first */
+        int[] sorted() {
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Integer.compare(counts[b], counts[a]));
+            int[] sorted = new int[size];
+            for (int i = 0; i < size; i++) {
+                sorted[i] = keys[order[i]];
+            }
+            return sorted;
+        }
+
+        /* Moves an entry up while smaller than its parent; returns its final position */
+        private int siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) / 2;
+                if (counts[parent] <= counts[i]) {
+                    break;
+                }
+                swap(i, parent);
+                i = parent;
+            }
+            return i;
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int smallest = i;
+                for (int child = 2 * i + 1; child <= 2 * i + 2 && child < size; child++) {
+                    if (counts[child] < counts[smallest]) {
+                        smallest = child;
+                    }
+                }
+                if (smallest == i) {
+                    return;
+                }
+                swap(i, smallest);
+                i = smallest;
+            }
+        }
+
+        private void swap(int a, int b) {
+            int key = keys[a];
+            int count = counts[a];
+            keys[a] = keys[b];
+            counts[a] = counts[b];
+            keys[b] = key;
+            counts[b] = count;
+        }
+    }
+}
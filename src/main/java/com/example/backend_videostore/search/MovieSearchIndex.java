@@ -0,0 +1,243 @@
+package com.example.backend_videostore.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.example.backend_videostore.model.Movie;
+import com.example.backend_videostore.service.CatalogLoadedEvent;
+import com.example.backend_videostore.service.MovieChangedEvent;
+
+/*
+  MovieSearchIndex is an in-memory inverted index over movie titles and short descriptions.
+
+  How it works:
+  - Each movie's title and short description are normalized and split into tokens (see TextNormalizer).
+  - "postings" maps every token to the movies containing it, with a weight per movie
+    (a token in the title counts TITLE_WEIGHT, in the description DESCRIPTION_WEIGHT).
+  - Tokens are kept sorted, so every token starting with a query word can be found with a
+    range lookup: "mat" matches "matrix" and "matilda" without scanning the catalog.
+
+  Ranking: every query word must match (AND). A movie's score is the sum of the weights of
+  the tokens it matched, doubled for exact (non-prefix) matches, plus a bonus when the title
+  starts with the whole query. Ties are broken by title. Only the best "limit" matches are
+  ever ordered: they are kept in a bounded min-heap whose root is the weakest of them, so a
+  query matching m movies costs O(m log limit) rather than a sort of all m.
+
+  The index is filled by CatalogBootstrap at startup and kept up to date from MovieChangedEvent.
+  Until the first full load has completed, isReady() is false and callers should fall back to MongoDB.
+*/
+@Component
+public class MovieSearchIndex {
+
+    private static final int TITLE_WEIGHT = 3;
+
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    private static final int TITLE_PREFIX_BONUS = 5;
+
+    /* Best match first: highest score, then title */
+    private static final Comparator<ScoredMovie> RANKING = Comparator.comparingInt(ScoredMovie::score).reversed()
+            .thenComparing(result -> result.movie().getTitle(), Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER));
+
+    /* Indexed movies by ID */
+    private final Map<String, Movie> movies = new HashMap<>();
+
+    /* Normalized titles by movie ID, for the title prefix bonus */
+    private final Map<String, String> normalizedTitles = new HashMap<>();
+
+    /* Token -> (movie ID -> weight) */
+    private final NavigableMap<String, Map<String, Integer>> postings = new TreeMap<>();
+
+    /* Movie ID -> tokens it was indexed under, used to remove it on update/delete */
+    private final Map<String, Set<String>> tokensByMovie = new HashMap<>();
+
+    /* One writer (catalog changes) or many readers (searches) at a time */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private volatile boolean ready;
+
+    /*
+       Returns true once the whole catalog has been indexed.
+    */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /*
+       Returns the number of indexed movies.
+    */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return movies.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /*
+       Applies a catalog change to the index.
+    */
+    @EventListener
+    public void onMovieChanged(MovieChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (event.getKind() == MovieChangedEvent.Kind.DELETED) {
+                event.getIds().forEach(this::remove);
+            } else {
+                event.getMovies().forEach(this::add);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /*
+       Marks the index as complete once CatalogBootstrap has delivered every movie.
+    */
+    @EventListener
+    public void onCatalogLoaded(CatalogLoadedEvent event) {
+        ready = true;
+    }
+
+    /*
+       Returns at most "limit" movies matching every word of the query, best matches first.
+    */
+    public List<Movie> search(String query, int limit) {
+        List<String> words = TextNormalizer.tokenize(query);
+        if (words.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<String, Integer> scores = null;
+            for (String word : words) {
+                Map<String, Integer> wordScores = scoreWord(word);
+                scores = scores == null ? wordScores : intersect(scores, wordScores);
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            // top "limit" matches, weakest at the root
+            String normalizedQuery = TextNormalizer.normalize(query);
+            PriorityQueue<ScoredMovie> top = new PriorityQueue<>(Math.min(limit, scores.size()) + 1, RANKING.reversed());
+            for (Map.Entry<String, Integer> entry : scores.entrySet()) {
+                int score = entry.getValue();
+                if (normalizedTitles.get(entry.getKey()).startsWith(normalizedQuery)) {
+                    score += TITLE_PREFIX_BONUS;
+                }
+                if (top.size() == limit && score < top.peek().score()) {
+                    continue;
+                }
+                ScoredMovie result = new ScoredMovie(movies.get(entry.getKey()), score);
+                if (top.size() < limit) {
+                    top.add(result);
+                } else if (RANKING.compare(result, top.peek()) < 0) {
+                    top.poll();
+                    top.add(result);
+                }
+            }
+
+            List<ScoredMovie> results = new ArrayList<>(top);
+            results.sort(RANKING);
+            return results.stream().map(ScoredMovie::movie).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /*
+       Scores every movie containing a token that starts with the given word.
+       Exact token matches count double.
+    */
+    private Map<String, Integer> scoreWord(String word) {
+        Map<String, Integer> scores = new HashMap<>();
+        NavigableMap<String, Map<String, Integer>> matches =
+                postings.subMap(word, true, word + Character.MAX_VALUE, false);
+
+        for (Map.Entry<String, Map<String, Integer>> match : matches.entrySet()) {
+            int multiplier = match.getKey().equals(word) ? 2 : 1;
+            for (Map.Entry<String, Integer> posting : match.getValue().entrySet()) {
+                scores.merge(posting.getKey(), posting.getValue() * multiplier, Math::max);
+            }
+        }
+        return scores;
+    }
+
+    /*
+       Keeps the movies present in both maps, adding up their scores.
+    */
+    private static Map<String, Integer> intersect(Map<String, Integer> left, Map<String, Integer> right) {
+        Map<String, Integer> result = new HashMap<>();
+        for (Map.Entry<String, Integer> entry : left.entrySet()) {
+            Integer other = right.get(entry.getKey());
+            if (other != null) {
+                result.put(entry.getKey(), entry.getValue() + other);
+            }
+        }
+        return result;
+    }
+
+    /*
+       Indexes a movie, replacing any previous version of it. Caller holds the write lock.
+    */
+    private void add(Movie movie) {
+        if (movie.getId() == null) {
+            return;
+        }
+        remove(movie.getId());
+
+        Set<String> titleTokens = new HashSet<>(TextNormalizer.tokenize(movie.getTitle()));
+        Set<String> descriptionTokens = new HashSet<>(TextNormalizer.tokenize(movie.getShortDescription()));
+        Set<String> tokens = new HashSet<>(titleTokens);
+        tokens.addAll(descriptionTokens);
+
+        for (String token : tokens) {
+            int weight = (titleTokens.contains(token) ? TITLE_WEIGHT : 0)
+                    + (descriptionTokens.contains(token) ? DESCRIPTION_WEIGHT : 0);
+            postings.computeIfAbsent(token, key -> new HashMap<>()).put(movie.getId(), weight);
+        }
+        movies.put(movie.getId(), movie);
+        normalizedTitles.put(movie.getId(), TextNormalizer.normalize(movie.getTitle()));
+        tokensByMovie.put(movie.getId(), tokens);
+    }
+
+    /*
+       Removes a movie from the index. Caller holds the write lock.
+    */
+    private void remove(String id) {
+        movies.remove(id);
+        normalizedTitles.remove(id);
+        Set<String> tokens = tokensByMovie.remove(id);
+        if (tokens == null) {
+            return;
+        }
+        for (String token : tokens) {
+            Map<String, Integer> posting = postings.get(token);
+            if (posting != null) {
+                posting.remove(id);
+                if (posting.isEmpty()) {
+                    postings.remove(token);
+                }
+            }
+        }
+    }
+
+    private record ScoredMovie(Movie movie, int score) {
+    }
+}
@@ -0,0 +1,262 @@
+package com.example.backend_videostore.search;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.backend_videostore.model.Movie;
+import com.example.backend_videostore.model.Order;
+import com.example.backend_videostore.repository.OrderRepository;
+import com.example.backend_videostore.service.MovieChangedEvent;
+import com.example.backend_videostore.service.MovieService;
+import com.example.backend_videostore.service.OrderPlacedEvent;
+
+import jakarta.annotation.PostConstruct;
+
+/*
+  RelatedTitles answers "customers who rented or bought this also took..." (GET /api/movies/{id}/related)
+  from a CoOccurrenceIndex kept in memory.
+
+  - At startup the order history is read once, in the order of the user_created index
+    (one user at a time), on a background thread. Until it is done, only fallbacks are returned.
+  - Every new order is then added as it is written (OrderPlacedEvent): no aggregation over
+    the orders collection ever runs again.
+  - Deleted movies are forgotten (MovieChangedEvent).
+  - Every movies.related.compaction-interval, a background job trims the counters and
+    recomputes the fallbacks: the most ordered titles of each type, used to complete a list
+    when a title has too few related ones (e.g. a new release nobody has rented yet).
+
+  Reading the related titles of a movie costs O(limit), however large the catalog or the history.
+*/
+@Component
+public class RelatedTitles {
+
+    private static final Logger log = LoggerFactory.getLogger(RelatedTitles.class);
+
+    /* Injects OrderRepository to read the order history at startup */
+    @Autowired
+    private OrderRepository orderRepository;
+
+    /* Injects MovieService to turn IDs into movies */
+    @Autowired
+    private MovieService movieService;
+
+    /* Largest number of related titles per movie; also the K of the per-title top-K heaps */
+    @Value("${movies.related.max-limit:20}")
+    private int maxLimit;
+
+    @Value("${movies.related.history-size:20}")
+    private int historySize;
+
+    @Value("${movies.related.max-neighbours:500}")
+    private int maxNeighbours;
+
+    @Value("${movies.related.max-users:1000000}")
+    private int maxUsers;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private CoOccurrenceIndex index;
+
+    /* Type -> most ordered titles of that type, recomputed by compact() */
+    private volatile Map<String, List<String>> fallbacks = Map.of();
+
+    /* Orders added by events while the history is loading, so the load does not count them twice;
+       null once loaded */
+    private Set<String> recordedDuringLoad = new HashSet<>();
+
+    @PostConstruct
+    public void init() {
+        index = new CoOccurrenceIndex(maxLimit, historySize, maxNeighbours, maxUsers);
+    }
+
+    /* 
+       Returns up to "limit" titles related to a movie, most related first, completed with
+       the most ordered titles of the same type. Throws IllegalArgumentException for a
+       limit outside 1..movies.related.max-limit.
+    */
+    public List<Movie> related(Movie movie, int limit) {
+        if (limit < 1 || limit > maxLimit) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + maxLimit);
+        }
+
+        Set<String> ids = new LinkedHashSet<>();
+        lock.readLock().lock();
+        try {
+            ids.addAll(index.related(movie.getId(), limit));
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (ids.size() < limit && movie.getType() != null) {
+            addFallbacks(ids, movie, fallbacks.getOrDefault(movie.getType(), List.of()), limit);
+        }
+        if (ids.size() < limit && movie.getType() != null) {
+            // nothing of this type was ordered yet: first titles of the (cached) listing
+            List<Movie> firstPage = movieService.getMoviesPage(movie.getType(), null, limit + 1, null).getItems();
+            addFallbacks(ids, movie, firstPage.stream().map(Movie::getId).toList(), limit);
+        }
+
+        List<Movie> related = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            movieService.getMovieById(id).ifPresent(related::add);
+        }
+        return related;
+    }
+
+    /* 
+       Reads the order history on a background thread once the application is ready.
+    */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        Thread thread = new Thread(this::load, "related-titles-bootstrap");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /* 
+       Adds new orders to the index. An order published again (a retried checkout)
+       is already in its user's history and adds nothing.
+    */
+    @EventListener
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        lock.writeLock().lock();
+        try {
+            for (Order order : event.getOrders()) {
+                if (recordedDuringLoad != null) {
+                    if (!recordedDuringLoad.add(order.getId())) {
+                        continue;
+                    }
+                }
+                index.record(order.getUserEmail(), order.getMovieId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /* 
+       Forgets deleted movies.
+    */
+    @EventListener
+    public void onMovieChanged(MovieChangedEvent event) {
+        if (event.getKind() != MovieChangedEvent.Kind.DELETED) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            event.getIds().forEach(index::remove);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /* 
+       Trims the counters and recomputes the per-type fallbacks.
+    */
+    @Scheduled(fixedDelayString = "${movies.related.compaction-interval:10m}")
+    public void compact() {
+        List<String> byOrders;
+        lock.writeLock().lock();
+        try {
+            int dropped = index.compact();
+            byOrders = index.titlesByOrders();
+            log.debug("Related titles compacted: {} titles, {} users, {} counters dropped",
+                    index.size(), index.users(), dropped);
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        // movie lookups are done outside the lock: they may query the database
+        Map<String, List<String>> byType = new HashMap<>();
+        for (String id : byOrders) {
+            Optional<Movie> movie = movieService.getMovieById(id);
+            if (movie.isPresent() && movie.get().getType() != null) {
+                List<String> ids = byType.computeIfAbsent(movie.get().getType(), type -> new ArrayList<>());
+                if (ids.size() <= maxLimit) {
+                    ids.add(id);
+                }
+            }
+        }
+        fallbacks = byType;
+    }
+
+    /* 
+       Feeds the whole order history to the index, one user at a time, oldest orders first.
+       Failures are logged; the index then only learns from new orders.
+    */
+    void load() {
+        long count = 0;
+        try (Stream<Order> orders = orderRepository.streamAllByOrderByUserEmailAscCreatedAtDesc()) {
+            String user = null;
+            List<Order> userOrders = new ArrayList<>();
+            for (Order order : (Iterable<Order>) orders::iterator) {
+                if (!order.getUserEmail().equals(user)) {
+                    recordLoaded(userOrders);
+                    userOrders.clear();
+                    user = order.getUserEmail();
+                }
+                userOrders.add(order);
+                count++;
+            }
+            recordLoaded(userOrders);
+        } catch (RuntimeException ex) {
+            log.error("Could not load the order history for related titles after {} orders", count, ex);
+        } finally {
+            lock.writeLock().lock();
+            try {
+                recordedDuringLoad = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        compact();
+        log.info("Loaded {} orders into related titles", count);
+    }
+
+    private static void addFallbacks(Set<String> ids, Movie movie, List<String> candidates, int limit) {
+        for (String id : candidates) {
+            if (ids.size() == limit) {
+                return;
+            }
+            if (!id.equals(movie.getId())) {
+                ids.add(id);
+            }
+        }
+    }
+
+    /* Records one user's orders, given newest first, in chronological order */
+    private void recordLoaded(List<Order> newestFirst) {
+        if (newestFirst.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            for (int i = newestFirst.size() - 1; i >= 0; i--) {
+                Order order = newestFirst.get(i);
+                if (!recordedDuringLoad.contains(order.getId())) {
+                    index.record(order.getUserEmail(), order.getMovieId());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.backend_videostore.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/*
+  TextNormalizer turns free text into the normalized form used by the in-memory search structures.
+
+  Normalization:
+  - accents are removed ("Amélie" -> "amelie")
+  - text is lower-cased
+  - anything that is not a letter or a digit separates tokens
+*/
+public final class TextNormalizer {
+
+    /* Combining marks left over after Unicode decomposition (the accents) */
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    /* Runs of characters that are neither letters nor digits */
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+
+    private TextNormalizer() {
+    }
+
+    /* 
+       Returns the normalized text with separators collapsed to single spaces,
+       e.g. "  Spider-Man: No Way Home " -> "spider man no way home".
+    */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        String stripped = DIACRITICS.matcher(decomposed).replaceAll("");
+        return SEPARATORS.matcher(stripped.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    /* 
+       Splits text into normalized tokens.
+    */
+    public static List<String> tokenize(String text) {
+        String normalized = normalize(text);
+        List<String> tokens = new ArrayList<>();
+        if (!normalized.isEmpty()) {
+            for (String token : normalized.split(" ")) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
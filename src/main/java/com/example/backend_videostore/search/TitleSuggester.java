@@ -0,0 +1,148 @@
+package com.example.backend_videostore.search;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.backend_videostore.model.Movie;
+import com.example.backend_videostore.service.CatalogLoadedEvent;
+import com.example.backend_videostore.service.MovieChangedEvent;
+import com.example.backend_videostore.service.PopularityTracker;
+
+import jakarta.annotation.PostConstruct;
+
+/*
+  TitleSuggester answers typeahead queries (GET /api/movies/suggest) from a TitleTrie.
+
+  - Titles are added, replaced and removed from MovieChangedEvent, and loaded at startup by CatalogBootstrap.
+  - Suggestions are ranked by popularity (PopularityTracker). Scores are pushed into the trie
+    periodically rather than on every view, so counting views stays cheap.
+  - Results are small Movie objects with only id, title, type and imageUrl.
+*/
+@Component
+public class TitleSuggester {
+
+    /* Injects the view counters used as the popularity score */
+    @Autowired
+    private PopularityTracker popularityTracker;
+
+    /* Largest number of suggestions per prefix; also the K of the per-node top-K lists */
+    @Value("${movies.suggest.max-limit:10}")
+    private int maxLimit;
+
+    /* Trie over normalized titles, created once maxLimit is known */
+    private TitleTrie trie;
+
+    /* Movie ID -> lightweight suggestion returned to clients */
+    private final Map<String, Movie> suggestions = new HashMap<>();
+
+    /* One writer (catalog or score changes) or many readers (suggest calls) at a time */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private volatile boolean ready;
+
+    @PostConstruct
+    void init() {
+        trie = new TitleTrie(maxLimit);
+    }
+
+    /* 
+       Returns true once the whole catalog has been loaded into the trie.
+    */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /* 
+       Returns the largest number of suggestions a client may ask for.
+    */
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    /* 
+       Returns up to "limit" movies with a title word starting with the prefix, most popular first.
+    */
+    public List<Movie> suggest(String prefix, int limit) {
+        String normalized = TextNormalizer.normalize(prefix);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            return trie.complete(normalized, limit).stream()
+                    .map(suggestions::get)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /* 
+       Applies a catalog change to the trie.
+    */
+    @EventListener
+    public void onMovieChanged(MovieChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (event.getKind() == MovieChangedEvent.Kind.DELETED) {
+                for (String id : event.getIds()) {
+                    trie.remove(id);
+                    suggestions.remove(id);
+                }
+            } else {
+                for (Movie movie : event.getMovies()) {
+                    if (movie.getId() == null) {
+                        continue;
+                    }
+                    trie.put(movie.getId(), TextNormalizer.normalize(movie.getTitle()),
+                            popularityTracker.getScore(movie.getId()));
+                    suggestions.put(movie.getId(), toSuggestion(movie));
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /* 
+       Marks the trie as complete once CatalogBootstrap has delivered every movie.
+    */
+    @EventListener
+    public void onCatalogLoaded(CatalogLoadedEvent event) {
+        ready = true;
+    }
+
+    /* 
+       Pushes the latest popularity scores into the trie.
+       Only movies whose score changed are re-ranked.
+    */
+    @Scheduled(fixedDelayString = "${movies.suggest.refresh-interval:30s}")
+    public void refreshPopularity() {
+        Map<String, Long> scores = popularityTracker.snapshot();
+        lock.writeLock().lock();
+        try {
+            trie.updateScores(scores);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static Movie toSuggestion(Movie movie) {
+        Movie suggestion = new Movie();
+        suggestion.setId(movie.getId());
+        suggestion.setTitle(movie.getTitle());
+        suggestion.setType(movie.getType());
+        suggestion.setImageUrl(movie.getImageUrl());
+        return suggestion;
+    }
+}
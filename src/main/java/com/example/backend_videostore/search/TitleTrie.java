@@ -0,0 +1,301 @@
+package com.example.backend_videostore.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/*
+  TitleTrie is a compact prefix tree over normalized movie titles, used for typeahead.
+
+  Every title is inserted once per word it contains, starting at that word:
+  "the dark knight" is reachable from "the...", "dark..." and "knight...".
+
+  Each node stores:
+  - its children as two parallel sorted arrays (labels and nodes), searched with binary search
+  - the IDs of the titles that end exactly at this node
+  - the top-K IDs of its whole subtree, ranked by score (popularity) then title
+
+  Because every node already knows its best K titles, a lookup is just a walk down the
+  prefix: its cost depends on the prefix length, not on the catalog size.
+  Inserts, removals and score changes recompute the top-K lists only on the affected paths.
+
+  This class is not thread-safe; TitleSuggester guards it with a read/write lock.
+*/
+class TitleTrie {
+
+    private static final char[] NO_LABELS = new char[0];
+
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private static final String[] NO_IDS = new String[0];
+
+    private final int topK;
+
+    private final Node root = new Node();
+
+    /* Indexed titles by movie ID */
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    /* Orders IDs by score (highest first), then by title, then by ID */
+    private final Comparator<String> ranking = Comparator
+            .comparingLong((String id) -> entries.get(id).score).reversed()
+            .thenComparing(id -> entries.get(id).title)
+            .thenComparing(Comparator.naturalOrder());
+
+    TitleTrie(int topK) {
+        this.topK = topK;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /*
+       Adds a title (or replaces the previous title of the same movie).
+    */
+    void put(String id, String normalizedTitle, long score) {
+        remove(id);
+        if (normalizedTitle.isEmpty()) {
+            return;
+        }
+
+        Entry entry = new Entry(normalizedTitle, score, wordSuffixes(normalizedTitle));
+        entries.put(id, entry);
+
+        List<List<Node>> paths = new ArrayList<>();
+        for (String key : entry.keys) {
+            List<Node> path = insertPath(key);
+            Node leaf = path.get(path.size() - 1);
+            leaf.ids = append(leaf.ids, id);
+            paths.add(path);
+        }
+        recompute(paths);
+    }
+
+    /*
+       Removes a movie's title, pruning nodes that no longer lead anywhere.
+    */
+    void remove(String id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            return;
+        }
+
+        List<List<Node>> paths = new ArrayList<>();
+        for (String key : entry.keys) {
+            List<Node> path = findPath(key);
+            if (path == null) {
+                continue;
+            }
+            Node leaf = path.get(path.size() - 1);
+            leaf.ids = without(leaf.ids, id);
+
+            for (int depth = path.size() - 1; depth > 0; depth--) {
+                Node node = path.get(depth);
+                if (node.ids.length > 0 || node.children.length > 0) {
+                    break;
+                }
+                path.get(depth - 1).removeChild(key.charAt(depth - 1));
+            }
+            paths.add(path);
+        }
+        recompute(paths);
+    }
+
+    /*
+       Updates the score of already indexed movies and re-ranks the affected paths.
+    */
+    void updateScores(Map<String, Long> scores) {
+        List<List<Node>> paths = new ArrayList<>();
+        for (Map.Entry<String, Long> score : scores.entrySet()) {
+            Entry entry = entries.get(score.getKey());
+            if (entry == null || entry.score == score.getValue()) {
+                continue;
+            }
+            entry.score = score.getValue();
+            for (String key : entry.keys) {
+                List<Node> path = findPath(key);
+                if (path != null) {
+                    paths.add(path);
+                }
+            }
+        }
+        recompute(paths);
+    }
+
+    /*
+       Returns up to "limit" (at most K) movie IDs whose title has a word starting with the prefix.
+    */
+    List<String> complete(String normalizedPrefix, int limit) {
+        Node node = root;
+        for (int i = 0; i < normalizedPrefix.length() && node != null; i++) {
+            node = node.child(normalizedPrefix.charAt(i));
+        }
+        if (node == null || node == root) {
+            return List.of();
+        }
+        return Arrays.asList(node.top).subList(0, Math.min(limit, node.top.length));
+    }
+
+    /*
+       Recomputes the top-K lists of the given paths, deepest nodes first,
+       so each node is rebuilt once from its already up-to-date children.
+    */
+    private void recompute(List<List<Node>> paths) {
+        List<Set<Node>> byDepth = new ArrayList<>();
+        for (List<Node> path : paths) {
+            for (int depth = 0; depth < path.size(); depth++) {
+                while (byDepth.size() <= depth) {
+                    byDepth.add(Collections.newSetFromMap(new IdentityHashMap<>()));
+                }
+                byDepth.get(depth).add(path.get(depth));
+            }
+        }
+
+        for (int depth = byDepth.size() - 1; depth >= 0; depth--) {
+            for (Node node : byDepth.get(depth)) {
+                Set<String> candidates = new LinkedHashSet<>(Arrays.asList(node.ids));
+                for (Node child : node.children) {
+                    candidates.addAll(Arrays.asList(child.top));
+                }
+                node.top = candidates.stream()
+                        .sorted(ranking)
+                        .limit(topK)
+                        .toArray(String[]::new);
+            }
+        }
+    }
+
+    /*
+       Walks the key from the root, creating missing nodes. Returns every node on the way.
+    */
+    private List<Node> insertPath(String key) {
+        List<Node> path = new ArrayList<>(key.length() + 1);
+        Node node = root;
+        path.add(node);
+        for (int i = 0; i < key.length(); i++) {
+            node = node.childOrCreate(key.charAt(i));
+            path.add(node);
+        }
+        return path;
+    }
+
+    /*
+       Walks the key from the root. Returns every node on the way, or null if the key is not present.
+    */
+    private List<Node> findPath(String key) {
+        List<Node> path = new ArrayList<>(key.length() + 1);
+        Node node = root;
+        path.add(node);
+        for (int i = 0; i < key.length(); i++) {
+            node = node.child(key.charAt(i));
+            if (node == null) {
+                return null;
+            }
+            path.add(node);
+        }
+        return path;
+    }
+
+    /*
+       "the dark knight" -> ["the dark knight", "dark knight", "knight"]
+    */
+    private static List<String> wordSuffixes(String normalizedTitle) {
+        List<String> keys = new ArrayList<>();
+        keys.add(normalizedTitle);
+        for (int i = normalizedTitle.indexOf(' '); i >= 0; i = normalizedTitle.indexOf(' ', i + 1)) {
+            keys.add(normalizedTitle.substring(i + 1));
+        }
+        return keys;
+    }
+
+    private static String[] append(String[] ids, String id) {
+        String[] result = Arrays.copyOf(ids, ids.length + 1);
+        result[ids.length] = id;
+        return result;
+    }
+
+    private static String[] without(String[] ids, String id) {
+        return Arrays.stream(ids).filter(existing -> !existing.equals(id)).toArray(String[]::new);
+    }
+
+    private static final class Entry {
+
+        private final String title;
+
+        private long score;
+
+        private final List<String> keys;
+
+        private Entry(String title, long score, List<String> keys) {
+            this.title = title;
+            this.score = score;
+            this.keys = keys;
+        }
+    }
+
+    private static final class Node {
+
+        private char[] labels = NO_LABELS;
+
+        private Node[] children = NO_CHILDREN;
+
+        private String[] ids = NO_IDS;
+
+        private String[] top = NO_IDS;
+
+        private Node child(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            return index >= 0 ? children[index] : null;
+        }
+
+        private Node childOrCreate(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            if (index >= 0) {
+                return children[index];
+            }
+
+            int insertAt = -index - 1;
+            Node child = new Node();
+
+            char[] newLabels = new char[labels.length + 1];
+            System.arraycopy(labels, 0, newLabels, 0, insertAt);
+            newLabels[insertAt] = label;
+            System.arraycopy(labels, insertAt, newLabels, insertAt + 1, labels.length - insertAt);
+
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(children, 0, newChildren, 0, insertAt);
+            newChildren[insertAt] = child;
+            System.arraycopy(children, insertAt, newChildren, insertAt + 1, children.length - insertAt);
+
+            labels = newLabels;
+            children = newChildren;
+            return child;
+        }
+
+        private void removeChild(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            if (index < 0) {
+                return;
+            }
+
+            char[] newLabels = new char[labels.length - 1];
+            System.arraycopy(labels, 0, newLabels, 0, index);
+            System.arraycopy(labels, index + 1, newLabels, index, labels.length - index - 1);
+
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(children, 0, newChildren, 0, index);
+            System.arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+
+            labels = newLabels;
+            children = newChildren;
+        }
+    }
+}
@@ -10,6 +10,8 @@ import org.springframework.security.web.authentication.WebAuthenticationDetailsS
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.example.backend_videostore.logging.AccessLogFilter;
+
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -34,7 +36,7 @@ public class JwtAuthFilter extends OncePerRequestFilter {
       1. If the request is for /api/users/login or /register, skip the filter.
       2. If there is no Authorization header or it doesn't start with "Bearer ", skip the filter.
       3. Otherwise, extract the token, decode the email, and set authentication in the security context
-         if the user is not already authenticated.
+         if the user is not already authenticated. The email is also recorded for the access log.
     */
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -59,6 +61,10 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         String token = authHeader.substring(7);
         String email = jwtUtil.extractEmail(token);
 
+        if (email != null) {
+            request.setAttribute(AccessLogFilter.USER_ATTRIBUTE, email);
+        }
+
         if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
             UsernamePasswordAuthenticationToken authToken =
                     new UsernamePasswordAuthenticationToken(email, null, new ArrayList<>());
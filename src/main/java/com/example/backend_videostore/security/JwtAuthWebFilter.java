@@ -0,0 +1,61 @@
+package com.example.backend_videostore.security;
+
+import java.util.ArrayList;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+
+import reactor.core.publisher.Mono;
+
+/*
+  JwtAuthWebFilter is the WebFlux counterpart of JwtAuthFilter, used with the "reactive" profile.
+
+  It applies the same logic:
+  1. Requests for /api/users/login or /register are passed through.
+  2. Requests without an "Authorization: Bearer ..." header are passed through.
+  3. Otherwise the token is verified with JwtUtil and the email becomes the authenticated
+     principal in the reactive security context of this exchange.
+
+  It is not a @Component on purpose: WebFilter beans are applied to every request by WebFlux,
+  whereas this one must only run inside the security chain (see ReactiveSecurityConfig).
+*/
+public class JwtAuthWebFilter implements WebFilter {
+
+    private final JwtUtil jwtUtil;
+
+    public JwtAuthWebFilter(JwtUtil jwtUtil) {
+        this.jwtUtil = jwtUtil;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String path = exchange.getRequest().getPath().value();
+
+        if (path.startsWith("/api/users/login") || path.startsWith("/api/users/register")) {
+            return chain.filter(exchange);
+        }
+
+        String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return chain.filter(exchange);
+        }
+
+        String token = authHeader.substring(7);
+        String email = jwtUtil.extractEmail(token);
+
+        if (email == null) {
+            return chain.filter(exchange);
+        }
+
+        UsernamePasswordAuthenticationToken authToken =
+                new UsernamePasswordAuthenticationToken(email, null, new ArrayList<>());
+
+        return chain.filter(exchange)
+                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authToken));
+    }
+}
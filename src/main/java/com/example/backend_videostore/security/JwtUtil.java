@@ -1,13 +1,31 @@
 package com.example.backend_videostore.security;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 
 /*
   JwtUtil is a utility class responsible for creating, parsing, and validating JWT tokens.
@@ -18,6 +36,13 @@ import io.jsonwebtoken.security.Keys;
   - Validate a token by comparing email and checking expiration
 
   The same secret key is used for both signing and verifying tokens.
+
+  Verification is the expensive part (Base64 decoding, JSON parsing and an HS512 signature check),
+  and clients send the same token on every request. So:
+  - a single thread-safe JwtParser is built once and reused
+  - successfully verified tokens are cached, keyed by the SHA-256 hash of the token
+    (the raw token is never stored), until the token's own "exp" time
+  - metrics report cache hits/misses, verification time and the verification time saved by hits
 */
 @Component
 public class JwtUtil {
@@ -33,6 +58,78 @@ public class JwtUtil {
     */
     private final long EXPIRATION_TIME = 86400000;
 
+    /* 
+       Reusable parser bound to the secret key. JwtParser is immutable and thread-safe.
+    */
+    private final JwtParser parser = Jwts.parserBuilder()
+            .setSigningKey(key)
+            .build();
+
+    /* Injects the MeterRegistry used to publish JWT verification metrics */
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /* Maximum number of verified tokens kept in memory */
+    @Value("${security.jwt.cache.max-size:10000}")
+    private long cacheMaxSize;
+
+    /* Token hash -> claims that were verified for that token */
+    private Cache<String, VerifiedToken> verifiedTokens;
+
+    /* Time spent on full verifications (cache misses) */
+    private Timer verifyTimer;
+
+    private Counter cacheHits;
+
+    private Counter cacheMisses;
+
+    /* Estimated verification time avoided thanks to cache hits */
+    private Counter savedVerifyTime;
+
+    /* 
+       Builds the verified-token cache and registers its metrics.
+       Each entry expires exactly when its token does.
+    */
+    @PostConstruct
+    void init() {
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String hash, VerifiedToken token, long currentTime) {
+                        long remainingMillis = token.expiresAtMillis() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String hash, VerifiedToken token, long currentTime, long currentDuration) {
+                        return expireAfterCreate(hash, token, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String hash, VerifiedToken token, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwtVerifiedTokens");
+        verifyTimer = Timer.builder("jwt.verify")
+                .description("Time to fully verify a JWT (signature and claims)")
+                .register(meterRegistry);
+        cacheHits = Counter.builder("jwt.verify.cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        cacheMisses = Counter.builder("jwt.verify.cache")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        savedVerifyTime = Counter.builder("jwt.verify.saved")
+                .description("Estimated verification time avoided by the verified-token cache")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
     /* 
        Generates a JWT token using the user's email as the subject.
        The token includes:
@@ -53,14 +150,10 @@ public class JwtUtil {
     /* 
        Extracts the email (subject) from a given JWT token.
        Used for authentication logic in JwtAuthFilter.
+       Throws a JwtException if the token is invalid or expired.
     */
     public String extractEmail(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+        return verify(token).subject();
     }
 
     /* 
@@ -69,20 +162,56 @@ public class JwtUtil {
        - Ensuring the token has not expired
     */
     public boolean validateToken(String token, String email) {
-        String extractedEmail = extractEmail(token);
-        return extractedEmail.equals(email) && !isTokenExpired(token);
+        VerifiedToken verified = verify(token);
+        return verified.subject().equals(email) && !isTokenExpired(verified);
     }
 
     /* 
        Checks whether the token is expired by comparing its expiration date to the current time.
     */
-    private boolean isTokenExpired(String token) {
-        Date expiration = Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getExpiration();
-        return expiration.before(new Date());
+    private boolean isTokenExpired(VerifiedToken token) {
+        return token.expiresAtMillis() < System.currentTimeMillis();
+    }
+
+    /* 
+       Returns the verified claims of a token, from the cache when the same token
+       was already verified and has not expired yet, otherwise by parsing it.
+    */
+    private VerifiedToken verify(String token) {
+        String hash = hash(token);
+        VerifiedToken cached = verifiedTokens.getIfPresent(hash);
+        if (cached != null && !isTokenExpired(cached)) {
+            cacheHits.increment();
+            savedVerifyTime.increment(verifyTimer.mean(TimeUnit.SECONDS));
+            return cached;
+        }
+
+        cacheMisses.increment();
+        long start = System.nanoTime();
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        verifyTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        Date expiration = claims.getExpiration();
+        VerifiedToken verified = new VerifiedToken(claims.getSubject(),
+                expiration != null ? expiration.getTime() : Long.MAX_VALUE);
+        verifiedTokens.put(hash, verified);
+        return verified;
+    }
+
+    /* 
+       SHA-256 of the token, used as cache key so raw tokens are not kept in memory.
+    */
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] bytes = digest.digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(bytes);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    /* Claims kept for a verified token */
+    private record VerifiedToken(String subject, long expiresAtMillis) {
     }
 }
@@ -0,0 +1,182 @@
+package com.example.backend_videostore.security;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/*
+  RateLimitFilter limits how many /api requests each client may send, so that scrapers and
+  brute-force bots cannot use up the MongoDB and BCrypt capacity everyone else needs.
+
+  A client is the authenticated user (the email from the JWT, so it runs after JwtAuthFilter)
+  or, without a token, the client IP. Each client has one TokenBucket per policy, and the
+  first policy matching the request applies:
+  - login: POST /api/users/login and /register (BCrypt work)
+  - search: GET /api/movies/search
+  - catalog: other GET /api/movies requests
+  - api: every other /api request
+
+  A policy is written "capacity/period", e.g. "10/1m": bursts of up to 10 requests,
+  refilled at 10 per minute. A refused request gets 429 Too Many Requests with Retry-After
+  (seconds until a token is available); refusals are counted as "ratelimit.rejected" per policy.
+
+  Buckets live in a bounded cache (security.rate-limit.max-clients) and are dropped once idle
+  for the longest policy period, after which they would be full again anyway, so memory stays
+  bounded whatever the number of clients.
+*/
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    /* Publishes the refusal counts */
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${security.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${security.rate-limit.login:10/1m}")
+    private String loginPolicy;
+
+    @Value("${security.rate-limit.search:50/10s}")
+    private String searchPolicy;
+
+    @Value("${security.rate-limit.catalog:200/10s}")
+    private String catalogPolicy;
+
+    @Value("${security.rate-limit.api:100/10s}")
+    private String apiPolicy;
+
+    @Value("${security.rate-limit.max-clients:100000}")
+    private long maxClients;
+
+    private Policy login;
+
+    private Policy search;
+
+    private Policy catalog;
+
+    private Policy api;
+
+    /* "policy client" -> bucket */
+    private Cache<String, TokenBucket> buckets;
+
+    @PostConstruct
+    public void init() {
+        login = Policy.parse("login", loginPolicy);
+        search = Policy.parse("search", searchPolicy);
+        catalog = Policy.parse("catalog", catalogPolicy);
+        api = Policy.parse("api", apiPolicy);
+
+        long idleNanos = List.of(login, search, catalog, api).stream().mapToLong(Policy::periodNanos).max().orElseThrow();
+        buckets = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(Duration.ofNanos(idleNanos))
+                .build();
+        meterRegistry.gauge("ratelimit.clients", buckets, cache -> cache.estimatedSize());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+        Policy policy = enabled ? policyFor(request) : null;
+        if (policy == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(policy.name() + " " + clientKey(request), key -> new TokenBucket(now));
+        long waitNanos = bucket.tryAcquire(now, policy.capacity(), policy.intervalNanos());
+        if (waitNanos == 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        meterRegistry.counter("ratelimit.rejected", "policy", policy.name()).increment();
+        long retryAfterSeconds = TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType("text/plain");
+        response.getWriter().write("Too many requests, please retry later");
+    }
+
+    /* 
+       Returns the policy of a request, or null for requests that are not limited.
+    */
+    private Policy policyFor(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        if (!path.startsWith("/api/")) {
+            return null;
+        }
+        String method = request.getMethod();
+        if (method.equals("POST") && (path.equals("/api/users/login") || path.equals("/api/users/register"))) {
+            return login;
+        }
+        if (method.equals("GET") && path.equals("/api/movies/search")) {
+            return search;
+        }
+        if (method.equals("GET") && (path.equals("/api/movies") || path.startsWith("/api/movies/"))) {
+            return catalog;
+        }
+        return api;
+    }
+
+    /* 
+       The authenticated user's email, or the client IP (which honours X-Forwarded-For
+       only when server.forward-headers-strategy trusts the proxy in front).
+    */
+    private static String clientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "user:" + authentication.getName();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    /* A rate limit: bursts of "capacity" requests, one more allowed every "interval" */
+    record Policy(String name, long capacity, long intervalNanos) {
+
+        long periodNanos() {
+            return capacity * intervalNanos;
+        }
+
+        /* Parses "capacity/period", e.g. "10/1m" */
+        static Policy parse(String name, String value) {
+            String[] parts = value.split("/");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Rate limit must be capacity/period: " + value);
+            }
+            long capacity = Long.parseLong(parts[0].trim());
+            Duration period = DurationStyle.detectAndParse(parts[1].trim());
+            if (capacity < 1 || period.isNegative() || period.isZero()) {
+                throw new IllegalArgumentException("Rate limit must allow at least one request per period: " + value);
+            }
+            return new Policy(name, capacity, period.toNanos() / capacity);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.backend_videostore.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+  TokenBucket is the request budget of one client for one rate limit policy.
+
+  It is a token bucket of "capacity" tokens refilled at one token every "interval",
+  stored as a single number: the time at which the bucket will be full again
+  (the "theoretical arrival time" of the GCRA formulation of a token bucket).
+  - the bucket is full when that time is in the past
+  - taking a token pushes it one interval further
+  - a request is refused when it would push it more than capacity intervals ahead
+
+  Being one long, the state is updated with a compare-and-set: concurrent requests of the
+  same client never block each other, and a bucket costs a few dozen bytes.
+*/
+final class TokenBucket {
+
+    /* Nanotime at which the bucket is full again */
+    private final AtomicLong fullAt;
+
+    TokenBucket(long nowNanos) {
+        this.fullAt = new AtomicLong(nowNanos);
+    }
+
+    /* 
+       Takes one token. Returns 0 if one was available, otherwise how many nanoseconds
+       to wait until one is (nothing is taken then).
+    */
+    long tryAcquire(long nowNanos, long capacity, long intervalNanos) {
+        long burstNanos = capacity * intervalNanos;
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, nowNanos) + intervalNanos;
+            long excess = next - nowNanos - burstNanos;
+            if (excess > 0) {
+                return excess;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
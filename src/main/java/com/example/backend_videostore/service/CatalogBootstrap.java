@@ -0,0 +1,149 @@
+package com.example.backend_videostore.service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import com.example.backend_videostore.model.Movie;
+
+/*
+  CatalogBootstrap fills the in-memory views of the catalog (search index, ...) when the application starts.
+
+  Once the application is ready it streams the "movies" collection on a background thread
+  and publishes it in chunks as MovieChangedEvent LOADED events, followed by a CatalogLoadedEvent.
+  Running in the background keeps startup fast and lets the application start even when
+  MongoDB is unreachable; the views fall back to database queries until the load succeeds.
+  A failed load is retried with an exponential backoff (1 s doubling up to 30 s).
+
+  Writes can happen while the catalog is being streamed, and a chunk read from the cursor
+  before a write would otherwise overwrite the newer movie (or bring a deleted one back) in
+  every view. The IDs of every SAVED or DELETED event published during the load are therefore
+  recorded, before any other listener sees the event, and left out of the LOADED chunks:
+  the views already hold the result of the write.
+*/
+@Component
+public class CatalogBootstrap {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogBootstrap.class);
+
+    /* Injects MovieService to stream the catalog from the database */
+    @Autowired
+    private MovieService movieService;
+
+    /* Publishes the LOADED chunks and the final CatalogLoadedEvent */
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /* Turns the bootstrap off, e.g. for tools that do not need in-memory views */
+    @Value("${movies.bootstrap.enabled:true}")
+    private boolean enabled;
+
+    /* Number of movies delivered per LOADED event */
+    @Value("${movies.bootstrap.chunk-size:1000}")
+    private int chunkSize;
+
+    /* IDs written since the load started, guarded by this; null once the catalog is loaded */
+    private Set<String> writtenDuringLoad;
+
+    /* 
+       Starts loading the catalog on a daemon thread once the application is ready.
+    */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) {
+            return;
+        }
+        synchronized (this) {
+            writtenDuringLoad = new HashSet<>();
+        }
+        Thread thread = new Thread(this::loadWithRetries, "catalog-bootstrap");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /* 
+       Records the IDs written while the catalog is loading. Runs before every other listener,
+       and holds the same lock as the publication of a chunk: a write is either recorded before
+       a chunk is filtered, or applied to the views after the chunk.
+    */
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public synchronized void onMovieChanged(MovieChangedEvent event) {
+        if (writtenDuringLoad != null && event.getKind() != MovieChangedEvent.Kind.LOADED) {
+            writtenDuringLoad.addAll(event.getIds());
+        }
+    }
+
+    /* 
+       Loads the catalog, retrying until it succeeds or the thread is interrupted.
+    */
+    void loadWithRetries() {
+        long backoffMillis = 1000;
+        while (!load()) {
+            log.warn("Retrying the catalog load in {} ms", backoffMillis);
+            try {
+                Thread.sleep(backoffMillis);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            backoffMillis = Math.min(backoffMillis * 2, 30_000);
+        }
+    }
+
+    /* 
+       Streams every movie and publishes them chunk by chunk, then the CatalogLoadedEvent.
+       Returns false if the load failed (the views stay incomplete and not ready).
+       Movies already delivered by a failed attempt are delivered again, which changes nothing.
+    */
+    boolean load() {
+        long count = 0;
+        try (Stream<Movie> movies = movieService.streamMovies(null)) {
+            List<Movie> chunk = new ArrayList<>(chunkSize);
+            for (Movie movie : (Iterable<Movie>) movies::iterator) {
+                chunk.add(movie);
+                if (chunk.size() == chunkSize) {
+                    count += publish(chunk);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                count += publish(chunk);
+            }
+        } catch (RuntimeException ex) {
+            log.error("Could not load the catalog into memory after {} movies", count, ex);
+            return false;
+        }
+
+        synchronized (this) {
+            writtenDuringLoad = null;
+        }
+        log.info("Loaded {} movies into in-memory catalog views", count);
+        eventPublisher.publishEvent(new CatalogLoadedEvent(count));
+        return true;
+    }
+
+    /* Publishes the movies of a chunk that were not written during the load; returns how many */
+    private synchronized int publish(List<Movie> chunk) {
+        List<Movie> unchanged = writtenDuringLoad == null || writtenDuringLoad.isEmpty()
+                ? chunk
+                : chunk.stream().filter(movie -> !writtenDuringLoad.contains(movie.getId())).toList();
+        if (!unchanged.isEmpty()) {
+            eventPublisher.publishEvent(MovieChangedEvent.loaded(unchanged));
+        }
+        return unchanged.size();
+    }
+}
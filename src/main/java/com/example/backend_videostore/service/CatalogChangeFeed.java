@@ -0,0 +1,277 @@
+package com.example.backend_videostore.service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.backend_videostore.model.Movie;
+import com.mongodb.MongoCommandException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+
+import jakarta.annotation.PreDestroy;
+
+/*
+  CatalogChangeFeed keeps the in-memory catalog views (CatalogReplica, search index, caches, ...)
+  in sync with writes made by OTHER instances of the application.
+
+  It follows the MongoDB change stream of "movies" on a daemon thread ("catalog-change-feed")
+  and publishes every insert, update or delete as a MovieChangedEvent, exactly as if the write
+  had been made locally. Changes this instance has already applied are recognized (the replica
+  already holds the same version) and skipped.
+
+  - The stream is resumed from the last resume token after a network error or a failover,
+    so no change is lost while MongoDB is briefly unreachable.
+  - When it cannot be resumed (the token has left the oplog, the collection was dropped)
+    the replica is resynchronized from a full read of the collection, and the stream restarts.
+  - A resync also runs every movies.replica.resync-interval, as a safety net for anything
+    missed, and is the only source of remote changes on a standalone MongoDB (change streams
+    need a replica set).
+
+  A resync publishes only the differences: SAVED for changed movies, DELETED for movies
+  that no longer exist.
+*/
+@Component
+public class CatalogChangeFeed {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogChangeFeed.class);
+
+    /* Server error codes: change streams not supported, resume point no longer in the oplog */
+    private static final Set<Integer> UNSUPPORTED = Set.of(40573);
+
+    private static final Set<Integer> NOT_RESUMABLE = Set.of(280, 286);
+
+    /* Injects MongoTemplate to open the change stream */
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    /* Injects MovieService to read the whole catalog for a resync */
+    @Autowired
+    private MovieService movieService;
+
+    /* Injects the replica, to skip changes it already holds and to diff a resync */
+    @Autowired
+    private CatalogReplica replica;
+
+    /* Publishes the remote changes */
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /* Turns the change stream off (periodic resync only) */
+    @Value("${movies.replica.change-stream:true}")
+    private boolean changeStreamEnabled;
+
+    /* Number of movies per SAVED event published by a resync */
+    @Value("${movies.bootstrap.chunk-size:1000}")
+    private int chunkSize;
+
+    private volatile boolean running;
+
+    /* Where to resume the stream after an error; null = from now */
+    private BsonDocument resumeToken;
+
+    /* 
+       Starts following the change stream once the application is ready.
+    */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!changeStreamEnabled) {
+            return;
+        }
+        running = true;
+        Thread thread = new Thread(this::follow, "catalog-change-feed");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+    }
+
+    /* 
+       Resynchronizes the replica periodically (once it has been loaded).
+    */
+    @Scheduled(initialDelayString = "${movies.replica.resync-interval:15m}",
+            fixedDelayString = "${movies.replica.resync-interval:15m}")
+    public void scheduledResync() {
+        if (!replica.isReady()) {
+            return;
+        }
+        try {
+            resync();
+        } catch (RuntimeException ex) {
+            log.warn("Catalog resync failed", ex);
+        }
+    }
+
+    /* 
+       Follows the change stream until the application stops, reopening it after errors
+       with a growing pause (1 second, doubling up to 30 seconds).
+    */
+    private void follow() {
+        long backoffMillis = 1000;
+        while (running) {
+            try {
+                watch();
+                backoffMillis = 1000;
+            } catch (MongoCommandException ex) {
+                if (UNSUPPORTED.contains(ex.getErrorCode())) {
+                    log.warn("MongoDB does not support change streams, relying on periodic resync only");
+                    return;
+                }
+                if (NOT_RESUMABLE.contains(ex.getErrorCode())) {
+                    log.warn("Catalog change stream cannot be resumed, resynchronizing");
+                    resumeToken = null;
+                    resyncQuietly();
+                    continue;
+                }
+                log.warn("Catalog change stream failed, retrying in {} ms", backoffMillis, ex);
+                backoffMillis = pause(backoffMillis);
+            } catch (RuntimeException ex) {
+                log.warn("Catalog change stream failed, retrying in {} ms", backoffMillis, ex);
+                backoffMillis = pause(backoffMillis);
+            }
+        }
+    }
+
+    /* 
+       Opens the stream (from the resume token, if any) and applies changes as they come.
+       Waits at most one second per poll so that the loop notices when the application stops.
+       The resume token is kept current even when nothing changes ("post batch" token).
+    */
+    private void watch() {
+        ChangeStreamIterable<Document> stream = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Movie.class))
+                .watch()
+                .fullDocument(FullDocument.UPDATE_LOOKUP)
+                .maxAwaitTime(1, TimeUnit.SECONDS);
+        if (resumeToken != null) {
+            stream = stream.resumeAfter(resumeToken);
+        }
+
+        try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = stream.cursor()) {
+            while (running) {
+                ChangeStreamDocument<Document> change = cursor.tryNext();
+                if (change != null) {
+                    apply(change);
+                }
+                if (cursor.getResumeToken() != null) {
+                    resumeToken = cursor.getResumeToken();
+                }
+            }
+        }
+    }
+
+    /* 
+       Publishes one change unless the replica already has it.
+       A stream invalidated by a drop or rename cannot continue: the replica is resynchronized.
+    */
+    private void apply(ChangeStreamDocument<Document> change) {
+        switch (change.getOperationType()) {
+            case INSERT, UPDATE, REPLACE -> {
+                // null when the movie was deleted before the update could be looked up
+                if (change.getFullDocument() == null) {
+                    return;
+                }
+                Movie movie = mongoTemplate.getConverter().read(Movie.class, change.getFullDocument());
+                if (!replica.contains(movie)) {
+                    eventPublisher.publishEvent(MovieChangedEvent.saved(List.of(movie)));
+                }
+            }
+            case DELETE -> {
+                String id = id(change.getDocumentKey().get("_id"));
+                if (replica.containsId(id)) {
+                    eventPublisher.publishEvent(MovieChangedEvent.deleted(List.of(id)));
+                }
+            }
+            case DROP, RENAME, DROP_DATABASE, INVALIDATE -> {
+                resumeToken = null;
+                resyncQuietly();
+            }
+            default -> {
+            }
+        }
+    }
+
+    /* 
+       Reads the whole collection and publishes the differences with the replica.
+       Movies written while the read runs are left alone: their own events are newer
+       than what the read may have seen.
+    */
+    public synchronized void resync() {
+        replica.beginResync();
+        Set<String> seen = new HashSet<>();
+        List<Movie> changed = new ArrayList<>();
+        Set<String> writtenMeanwhile;
+        try (Stream<Movie> movies = movieService.streamMovies(null)) {
+            for (Movie movie : (Iterable<Movie>) movies::iterator) {
+                seen.add(movie.getId());
+                if (!replica.contains(movie)) {
+                    changed.add(movie);
+                }
+            }
+        } finally {
+            writtenMeanwhile = replica.endResync();
+        }
+
+        changed.removeIf(movie -> writtenMeanwhile.contains(movie.getId()));
+        List<String> deleted = replica.ids().stream()
+                .filter(id -> !seen.contains(id) && !writtenMeanwhile.contains(id))
+                .toList();
+
+        for (int from = 0; from < changed.size(); from += chunkSize) {
+            eventPublisher.publishEvent(MovieChangedEvent.saved(changed.subList(from, Math.min(from + chunkSize, changed.size()))));
+        }
+        if (!deleted.isEmpty()) {
+            eventPublisher.publishEvent(MovieChangedEvent.deleted(deleted));
+        }
+        if (!changed.isEmpty() || !deleted.isEmpty()) {
+            log.info("Catalog resync applied {} changed and {} deleted movies", changed.size(), deleted.size());
+        }
+    }
+
+    private void resyncQuietly() {
+        if (!replica.isReady()) {
+            return;
+        }
+        try {
+            resync();
+        } catch (RuntimeException ex) {
+            log.warn("Catalog resync failed", ex);
+        }
+    }
+
+    private long pause(long backoffMillis) {
+        try {
+            Thread.sleep(backoffMillis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+        return Math.min(backoffMillis * 2, 30_000);
+    }
+
+    /* ObjectId keys become their hex string, like Movie.id */
+    private static String id(BsonValue key) {
+        return key.isObjectId() ? key.asObjectId().getValue().toHexString() : key.asString().getValue();
+    }
+}
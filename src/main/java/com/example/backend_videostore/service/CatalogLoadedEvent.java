@@ -0,0 +1,18 @@
+package com.example.backend_videostore.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/*
+  CatalogLoadedEvent is published by CatalogBootstrap once the whole catalog has been
+  read from the database and delivered as MovieChangedEvent LOADED events.
+
+  In-memory views of the catalog use it to know they are complete and may answer
+  queries on their own instead of falling back to MongoDB.
+*/
+@Getter
+@AllArgsConstructor
+public class CatalogLoadedEvent {
+
+    private final long movieCount;
+}
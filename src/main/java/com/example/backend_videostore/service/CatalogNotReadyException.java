@@ -0,0 +1,13 @@
+package com.example.backend_videostore.service;
+
+/*
+  Thrown by a query that is only answered from an in-memory view of the catalog
+  (e.g. browse) while that view is still being loaded at startup.
+  The controllers turn it into 503 Service Unavailable with Retry-After.
+*/
+public class CatalogNotReadyException extends RuntimeException {
+
+    public CatalogNotReadyException(String message) {
+        super(message);
+    }
+}
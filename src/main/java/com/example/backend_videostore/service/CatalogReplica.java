@@ -0,0 +1,229 @@
+package com.example.backend_videostore.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.example.backend_videostore.model.Movie;
+
+/*
+  CatalogReplica is a full in-memory copy of the "movies" collection, from which MovieService
+  answers catalog reads once it is complete.
+
+  It is filled like the other in-memory views: by the LOADED events of CatalogBootstrap at
+  startup, then by every MovieChangedEvent. CatalogChangeFeed turns the writes made by other
+  instances (MongoDB change stream) into MovieChangedEvents too, so every instance holds the
+  same catalog a few milliseconds after any write, wherever it was made.
+
+  Movies are kept in ConcurrentSkipListMaps sorted by ID, one for the whole catalog and one per
+  type, so keyset pages ("after" an ID, ascending) are a walk from a known position and reads
+  never lock. Writes are serialized; a write never replaces a movie by an older version of it
+  (a change stream event may arrive after the local write that superseded it).
+*/
+@Component
+public class CatalogReplica {
+
+    /* Movie ID -> movie, sorted by ID (ObjectId hex strings sort like the ObjectIds) */
+    private final ConcurrentSkipListMap<String, Movie> movies = new ConcurrentSkipListMap<>();
+
+    /* Type -> the movies of that type, sorted by ID */
+    private final Map<String, ConcurrentSkipListMap<String, Movie>> moviesByType = new ConcurrentHashMap<>();
+
+    private volatile boolean ready;
+
+    /* IDs written while a resync is running (see beginResync), null otherwise */
+    private Set<String> changedDuringResync;
+
+    /*
+       Returns true once the whole catalog has been loaded.
+    */
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        return movies.size();
+    }
+
+    public Optional<Movie> findById(String id) {
+        return Optional.ofNullable(movies.get(id));
+    }
+
+    /*
+       Returns the movies with the given IDs, in the order of the IDs; unknown IDs are skipped.
+    */
+    public List<Movie> findAllById(List<String> ids) {
+        List<Movie> found = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            Movie movie = movies.get(id);
+            if (movie != null) {
+                found.add(movie);
+            }
+        }
+        return found;
+    }
+
+    /*
+       Returns the movies of a type, or every movie when type is null, sorted by ID.
+    */
+    public List<Movie> findAll(String type) {
+        return new ArrayList<>(view(type).values());
+    }
+
+    /*
+       Streams the movies of a type, or every movie when type is null, sorted by ID,
+       without copying them. Movies written while the stream runs may or may not be seen.
+    */
+    public Stream<Movie> stream(String type) {
+        return view(type).values().stream();
+    }
+
+    /*
+       Returns up to "limit" movies (of a type, when given) with an ID greater than afterId,
+       sorted by ID, restricted to the requested fields like the database projection
+       (null = every field, empty = the ID only).
+    */
+    public List<Movie> findPage(String type, String afterId, int limit, Set<String> fields) {
+        NavigableMap<String, Movie> view = view(type);
+        Collection<Movie> candidates = afterId != null ? view.tailMap(afterId, false).values() : view.values();
+
+        List<Movie> page = new ArrayList<>(Math.min(limit, 1024));
+        for (Movie movie : candidates) {
+            if (page.size() == limit) {
+                break;
+            }
+            page.add(fields != null ? project(movie, fields) : movie);
+        }
+        return page;
+    }
+
+    /*
+       Returns true if the replica holds exactly this movie (same version and fields).
+       Used to skip change stream events for writes this instance has already applied.
+    */
+    public boolean contains(Movie movie) {
+        return movie.equals(movies.get(movie.getId()));
+    }
+
+    public boolean containsId(String id) {
+        return movies.containsKey(id);
+    }
+
+    /*
+       Applies a catalog change.
+    */
+    @EventListener
+    public synchronized void onMovieChanged(MovieChangedEvent event) {
+        if (event.getKind() != MovieChangedEvent.Kind.LOADED && changedDuringResync != null) {
+            changedDuringResync.addAll(event.getIds());
+        }
+        if (event.getKind() == MovieChangedEvent.Kind.DELETED) {
+            event.getIds().forEach(this::remove);
+        } else {
+            event.getMovies().forEach(this::put);
+        }
+    }
+
+    /*
+       Marks the replica as complete once CatalogBootstrap has delivered every movie.
+    */
+    @EventListener
+    public void onCatalogLoaded(CatalogLoadedEvent event) {
+        ready = true;
+    }
+
+    /*
+       Starts recording the IDs written from now on (see CatalogChangeFeed.resync): a resync
+       compares a database snapshot with the replica and must not undo writes made meanwhile.
+    */
+    synchronized void beginResync() {
+        changedDuringResync = ConcurrentHashMap.newKeySet();
+    }
+
+    /*
+       Stops recording and returns the IDs written since beginResync().
+    */
+    synchronized Set<String> endResync() {
+        Set<String> changed = changedDuringResync;
+        changedDuringResync = null;
+        return changed != null ? changed : Set.of();
+    }
+
+    /*
+       Returns a copy of the IDs currently held.
+    */
+    Set<String> ids() {
+        return Set.copyOf(movies.keySet());
+    }
+
+    private NavigableMap<String, Movie> view(String type) {
+        if (type == null) {
+            return movies;
+        }
+        NavigableMap<String, Movie> byType = moviesByType.get(type);
+        return byType != null ? byType : new ConcurrentSkipListMap<>();
+    }
+
+    private void put(Movie movie) {
+        Movie previous = movies.get(movie.getId());
+        if (previous != null && version(previous) > version(movie)) {
+            return;
+        }
+        movies.put(movie.getId(), movie);
+        if (previous != null && previous.getType() != null && !previous.getType().equals(movie.getType())) {
+            removeFromType(previous);
+        }
+        if (movie.getType() != null) {
+            moviesByType.computeIfAbsent(movie.getType(), type -> new ConcurrentSkipListMap<>()).put(movie.getId(), movie);
+        }
+    }
+
+    private void remove(String id) {
+        Movie previous = movies.remove(id);
+        if (previous != null && previous.getType() != null) {
+            removeFromType(previous);
+        }
+    }
+
+    private void removeFromType(Movie movie) {
+        ConcurrentSkipListMap<String, Movie> byType = moviesByType.get(movie.getType());
+        if (byType != null) {
+            byType.remove(movie.getId());
+        }
+    }
+
+    /* Documents written before versioning was added have no version: they count as 0 */
+    private static long version(Movie movie) {
+        return movie.getVersion() != null ? movie.getVersion() : 0;
+    }
+
+    /*
+       Copies only the requested fields (and the ID), like a MongoDB projection.
+    */
+    static Movie project(Movie movie, Set<String> fields) {
+        Movie projected = new Movie();
+        projected.setId(movie.getId());
+        for (String field : fields) {
+            switch (field) {
+                case "title" -> projected.setTitle(movie.getTitle());
+                case "shortDescription" -> projected.setShortDescription(movie.getShortDescription());
+                case "rentalPrice" -> projected.setRentalPrice(movie.getRentalPrice());
+                case "purchasePrice" -> projected.setPurchasePrice(movie.getPurchasePrice());
+                case "imageUrl" -> projected.setImageUrl(movie.getImageUrl());
+                case "type" -> projected.setType(movie.getType());
+                default -> throw new IllegalArgumentException("Unknown field: " + field);
+            }
+        }
+        return projected;
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.backend_videostore.service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import com.example.backend_videostore.model.Movie;
+
+/*
+  CatalogVersion identifies the state of the whole catalog, used as the ETag of catalog listings.
+
+  The version is a digest of the catalog itself: the XOR of a 64-bit hash of every movie's
+  (ID, version) pair. Every write changes a movie's version, adds or removes a movie, so two
+  requests that see the same value see the same catalog. Because it is computed from what is
+  stored in MongoDB and not from what happened on this instance, every instance holding the
+  same catalog hands out the same ETag: a client load-balanced to another node, or talking to a
+  restarted one, still gets 304 Not Modified. Writes made through other instances reach this
+  one through CatalogChangeFeed, so the digests converge as soon as the change is applied.
+
+  The digest is kept up to date from MovieChangedEvent in O(1) per movie: XOR out the pair
+  that is replaced or deleted, XOR in the new one. Like CatalogReplica, it keeps the newest
+  version of a movie, so a change delivered twice (the local event and the change stream)
+  or late counts once.
+
+  Until CatalogBootstrap has delivered the whole catalog the digest does not describe it, so
+  etag() returns null and listings are sent without an ETag.
+
+  A digest identifies content, so it comes back when the catalog does (a movie added, then
+  deleted). Keys of this instance's caches must never repeat, so they use current() instead:
+  a count of the writes applied here, which only moves forward.
+
+  Callers must read the ETag BEFORE reading the data: if a write happens in between, the
+  response is newer than its ETag and the next conditional request simply misses.
+*/
+@Component
+public class CatalogVersion {
+
+    /* Movie ID -> version included in the digest; guarded by this */
+    private final Map<String, Long> versions = new HashMap<>();
+
+    /* Digest of "versions"; guarded by this */
+    private long digest;
+
+    /* Digest as of the last write applied, read without locking */
+    private volatile long published;
+
+    private volatile boolean loaded;
+
+    private final AtomicLong writes = new AtomicLong();
+
+    /*
+       Returns the number of catalog writes applied on this instance; it never repeats,
+       which makes it the version part of local cache keys.
+    */
+    public long current() {
+        return writes.get();
+    }
+
+    /*
+       Returns the current catalog version as a strong ETag, e.g. "c-3k2j8d1x0q9z",
+       or null while the catalog is still loading.
+    */
+    public String etag() {
+        return loaded ? "\"c-" + Long.toUnsignedString(published, 36) + "\"" : null;
+    }
+
+    /*
+       Applies a catalog change to the digest. LOADED events only replay existing data: they
+       build the digest but do not publish it, and are not counted as writes.
+       Runs after MovieCacheInvalidator has dropped the stale cache entries.
+    */
+    @EventListener
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public synchronized void onMovieChanged(MovieChangedEvent event) {
+        if (event.getKind() == MovieChangedEvent.Kind.DELETED) {
+            for (String id : event.getIds()) {
+                Long previous = versions.remove(id);
+                if (previous != null) {
+                    digest ^= fingerprint(id, previous);
+                }
+            }
+        } else {
+            for (Movie movie : event.getMovies()) {
+                put(movie);
+            }
+        }
+        if (event.getKind() != MovieChangedEvent.Kind.LOADED) {
+            published = digest;
+            writes.incrementAndGet();
+        }
+    }
+
+    /*
+       Publishes the digest of the complete catalog.
+    */
+    @EventListener
+    public synchronized void onCatalogLoaded(CatalogLoadedEvent event) {
+        published = digest;
+        loaded = true;
+    }
+
+    private void put(Movie movie) {
+        if (movie.getId() == null) {
+            return;
+        }
+        // documents written before versioning was added have no version: they count as 0
+        long version = movie.getVersion() != null ? movie.getVersion() : 0;
+        Long previous = versions.get(movie.getId());
+        if (previous != null) {
+            if (previous >= version) {
+                return;
+            }
+            digest ^= fingerprint(movie.getId(), previous);
+        }
+        versions.put(movie.getId(), version);
+        digest ^= fingerprint(movie.getId(), version);
+    }
+
+    /* 64-bit hash of one (ID, version) pair: FNV-1a over the ID, mixed with the version (SplitMix64 finalizer) */
+    static long fingerprint(String id, long version) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < id.length(); i++) {
+            hash = (hash ^ id.charAt(i)) * 0x100000001b3L;
+        }
+        long mixed = hash + version * 0x9E3779B97F4A7C15L;
+        mixed = (mixed ^ (mixed >>> 30)) * 0xBF58476D1CE4E5B9L;
+        mixed = (mixed ^ (mixed >>> 27)) * 0x94D049BB133111EBL;
+        return mixed ^ (mixed >>> 31);
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.backend_videostore.service;
+
+/*
+  Thrown by the iterator of a bulk request for one item that is well-formed JSON but does not
+  map to the expected type (e.g. a string where a price is expected). MovieBulkService reports
+  that item as INVALID and goes on with the next one; input that is not valid JSON at all
+  surfaces as IllegalArgumentException instead and ends the request.
+*/
+public class InvalidBulkItemException extends RuntimeException {
+
+    public InvalidBulkItemException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.backend_videostore.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.backend_videostore.model.LibraryItem;
+import com.example.backend_videostore.model.Order;
+import com.example.backend_videostore.repository.OrderRepository;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/*
+  LibraryService answers "may this user watch this movie?" (an active rental or a purchase)
+  from memory, so playback checks do not query MongoDB.
+
+  - Each user's library (see UserLibrary) is loaded from "orders" the first time it is needed,
+    then kept in a bounded cache (library.max-users) until it has not been used for
+    library.idle-ttl. The cache holds futures: the request that misses inserts one and runs
+    the query itself, outside any lock of the cache, and concurrent requests wait for it.
+  - New orders are added to the libraries already in memory as soon as they are written
+    (OrderPlacedEvent). An order written while the library is being loaded is added once the
+    load completes, so it is never missed; the event (delivered on the OrderBatcher writer
+    thread) never waits for a load.
+  - Rentals are removed when they end by a timer wheel swept every library.sweep-interval.
+    Lookups compare the expiry with the current time themselves, so a rental stops counting
+    at its exact end even before it is swept; the sweep only frees the memory.
+
+  Orders written by other instances raise no event here. Before a library answers "no" to an
+  entitlement check, and before it is listed, it is caught up with one indexed query for the
+  user's orders created since its last sync (minus CATCH_UP_OVERLAP, for clock differences
+  between instances and orders still queued in a batch). That query usually returns nothing;
+  a positive entitlement check, the hot path of playback, still never queries MongoDB.
+*/
+@Service
+public class LibraryService {
+
+    /* How far back before the last sync a catch-up reads; re-adding an order changes nothing */
+    static final Duration CATCH_UP_OVERLAP = Duration.ofMinutes(1);
+
+    /* Injects OrderRepository to load libraries */
+    @Autowired
+    private OrderRepository orderRepository;
+
+    /* Publishes the number of libraries and pending expiries */
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${library.max-users:100000}")
+    private long maxUsers;
+
+    @Value("${library.idle-ttl:30m}")
+    private Duration idleTtl;
+
+    @Value("${library.sweep-interval:1m}")
+    private Duration sweepInterval;
+
+    /* User email -> library, complete or still loading */
+    private AsyncCache<String, UserLibrary> libraries;
+
+    /* Rentals waiting to be removed when they end */
+    private TimerWheel<Expiry> expiries;
+
+    @PostConstruct
+    public void init() {
+        libraries = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterAccess(idleTtl)
+                .recordStats()
+                .buildAsync();
+        // one slot per sweep, one turn per day: a 48h rental goes round the wheel twice
+        int slots = (int) Math.max(1, Duration.ofDays(1).dividedBy(sweepInterval));
+        expiries = new TimerWheel<>(sweepInterval.toMillis(), slots, System.currentTimeMillis());
+
+        meterRegistry.gauge("library.users", libraries, cache -> cache.synchronous().estimatedSize());
+        meterRegistry.gauge("library.expiries.pending", expiries, TimerWheel::size);
+    }
+
+    /* 
+       Returns the active rentals and purchases of a user, ordered by movie ID.
+    */
+    public List<LibraryItem> getLibrary(String userEmail) {
+        UserLibrary library = library(userEmail);
+        catchUp(userEmail, library);
+        return library.items(System.currentTimeMillis());
+    }
+
+    /* 
+       Returns the user's active rental or purchase of a movie, if any.
+    */
+    public Optional<LibraryItem> getEntitlement(String userEmail, String movieId) {
+        UserLibrary library = library(userEmail);
+        long now = System.currentTimeMillis();
+        long expiresAt = library.expiresAt(movieId, now);
+        if (expiresAt < 0) {
+            // the rental may have been placed through another instance
+            catchUp(userEmail, library);
+            expiresAt = library.expiresAt(movieId, now);
+        }
+        return expiresAt < 0 ? Optional.empty() : Optional.of(UserLibrary.item(movieId, expiresAt, now));
+    }
+
+    /* 
+       Adds newly written orders to the libraries in memory, or to the ones being loaded once
+       their load completes (adding an order the load has also read changes nothing).
+       Libraries not in memory are left alone: they will read the orders when loaded.
+    */
+    @EventListener
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        for (Order order : event.getOrders()) {
+            CompletableFuture<UserLibrary> library = libraries.asMap().get(order.getUserEmail());
+            if (library != null) {
+                library.thenAccept(loaded -> add(order.getUserEmail(), loaded, order));
+            }
+        }
+    }
+
+    /* 
+       Removes the rentals that have ended from the libraries in memory.
+    */
+    @Scheduled(fixedDelayString = "${library.sweep-interval:1m}")
+    public void sweepExpired() {
+        long now = System.currentTimeMillis();
+        for (Expiry expiry : expiries.advance(now)) {
+            CompletableFuture<UserLibrary> library = libraries.asMap().get(expiry.userEmail());
+            // a library still loading only reads the rentals that are still running
+            UserLibrary loaded = library != null ? library.getNow(null) : null;
+            if (loaded != null) {
+                loaded.removeExpired(expiry.movieId(), now);
+            }
+        }
+    }
+
+    /* 
+       Returns the user's library, loading it with one query if it is not in memory.
+       The query runs on the calling thread after the future has been inserted, so the cache
+       is never locked while MongoDB answers. A failed load is removed and thrown to every waiter.
+    */
+    private UserLibrary library(String userEmail) {
+        CompletableFuture<UserLibrary> loading = new CompletableFuture<>();
+        CompletableFuture<UserLibrary> existing = libraries.asMap().putIfAbsent(userEmail, loading);
+        if (existing != null) {
+            return existing.join();
+        }
+        try {
+            UserLibrary library = new UserLibrary();
+            Instant now = Instant.now();
+            for (Order order : orderRepository.findActiveByUserEmail(userEmail, now)) {
+                add(userEmail, library, order);
+            }
+            library.markSynced(now.toEpochMilli());
+            loading.complete(library);
+            return library;
+        } catch (RuntimeException ex) {
+            libraries.asMap().remove(userEmail, loading);
+            loading.completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    /* 
+       Adds the user's orders created since the library was last synced, whichever
+       instance wrote them.
+    */
+    private void catchUp(String userEmail, UserLibrary library) {
+        Instant now = Instant.now();
+        Instant since = Instant.ofEpochMilli(library.syncedAt()).minus(CATCH_UP_OVERLAP);
+        for (Order order : orderRepository.findByUserEmailAndCreatedAtAfter(userEmail, since)) {
+            add(userEmail, library, order);
+        }
+        library.markSynced(now.toEpochMilli());
+    }
+
+    private void add(String userEmail, UserLibrary library, Order order) {
+        if (order.getKind() == Order.Kind.PURCHASE) {
+            library.add(order.getMovieId(), UserLibrary.OWNED);
+        } else {
+            long expiresAt = order.getExpiresAt().toEpochMilli();
+            library.add(order.getMovieId(), expiresAt);
+            expiries.schedule(new Expiry(userEmail, order.getMovieId()), expiresAt);
+        }
+    }
+
+    /* A rental to remove when it ends */
+    private record Expiry(String userEmail, String movieId) {
+    }
+}
@@ -0,0 +1,268 @@
+package com.example.backend_videostore.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import com.example.backend_videostore.model.BulkItemResult;
+import com.example.backend_videostore.model.BulkResult;
+import com.example.backend_videostore.model.Movie;
+import com.example.backend_videostore.repository.MovieRepository;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/*
+  MovieBulkService imports, updates and deletes many movies at once for catalog administration.
+
+  Items are read one by one from an Iterator (so a large request body is never held in memory
+  as a whole), validated against the constraints declared on Movie (@NotBlank, @NotNull),
+  and written in chunks of movies.bulk.chunk-size with one MongoDB bulk operation per chunk.
+
+  Invalid or failing items do not stop the others: every item gets its own entry in the
+  BulkResult. That includes an item that is valid JSON with a field of the wrong type
+  (InvalidBulkItemException from the iterator): it is INVALID and reading goes on. Only if the
+  input stops being valid JSON are the items read so far written and the rest abandoned, with
+  an "error" message in the result.
+
+  Each written chunk publishes a MovieChangedEvent, like single writes in MovieService.
+*/
+@Service
+public class MovieBulkService {
+
+    /* Injects the MovieRepository to run the bulk writes */
+    @Autowired
+    private MovieRepository movieRepository;
+
+    /* Bean Validation validator, used to check each item like @Valid would */
+    @Autowired
+    private Validator validator;
+
+    /* Publishes MovieChangedEvent after every written chunk */
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /* Number of items written per bulk operation */
+    @Value("${movies.bulk.chunk-size:500}")
+    private int chunkSize;
+
+    /*
+       Inserts new movies. IDs sent by the client are ignored; new IDs are assigned.
+    */
+    public BulkResult importMovies(Iterator<Movie> movies) {
+        BulkResult result = new BulkResult();
+        List<Indexed<Movie>> chunk = new ArrayList<>(chunkSize);
+
+        readAll(movies, result, (index, movie) -> {
+            movie.setId(null);
+            List<String> errors = validate(movie);
+            if (!errors.isEmpty()) {
+                result.add(new BulkItemResult(index, null, BulkItemResult.Status.INVALID, errors));
+                return;
+            }
+            movie.setId(new ObjectId().toHexString());
+            movie.setVersion(0L);
+            chunk.add(new Indexed<>(index, movie));
+            if (chunk.size() == chunkSize) {
+                insertChunk(chunk, result);
+            }
+        }, () -> insertChunk(chunk, result));
+
+        return result;
+    }
+
+    /*
+       Updates existing movies, matched by their "id". All editable fields are replaced, as with PUT.
+       The Movie constraints require every editable field, so an item missing one is INVALID:
+       an update never sets a field to null because the client left it out.
+       A "version" sent by the client is ignored: the stored version is increased by the update.
+    */
+    public BulkResult updateMovies(Iterator<Movie> movies) {
+        BulkResult result = new BulkResult();
+        List<Indexed<Movie>> chunk = new ArrayList<>(chunkSize);
+
+        readAll(movies, result, (index, movie) -> {
+            movie.setVersion(null);
+            List<String> errors = validate(movie);
+            if (movie.getId() == null) {
+                errors.add("Id is required");
+            }
+            if (!errors.isEmpty()) {
+                result.add(new BulkItemResult(index, movie.getId(), BulkItemResult.Status.INVALID, errors));
+                return;
+            }
+            chunk.add(new Indexed<>(index, movie));
+            if (chunk.size() == chunkSize) {
+                updateChunk(chunk, result);
+            }
+        }, () -> updateChunk(chunk, result));
+
+        return result;
+    }
+
+    /*
+       Deletes movies by ID.
+    */
+    public BulkResult deleteMovies(Iterator<String> ids) {
+        BulkResult result = new BulkResult();
+        List<Indexed<String>> chunk = new ArrayList<>(chunkSize);
+
+        readAll(ids, result, (index, id) -> {
+            if (id == null || id.isBlank()) {
+                result.add(new BulkItemResult(index, id, BulkItemResult.Status.INVALID, List.of("Id is required")));
+                return;
+            }
+            chunk.add(new Indexed<>(index, id));
+            if (chunk.size() == chunkSize) {
+                deleteChunk(chunk, result);
+            }
+        }, () -> deleteChunk(chunk, result));
+
+        return result;
+    }
+
+    /*
+       Feeds every item to the handler, then flushes the last partial chunk.
+       An item of the wrong shape is reported INVALID and skipped; a failure to read the input
+       any further (malformed JSON) ends the loop and is reported in the result.
+    */
+    private <T> void readAll(Iterator<T> items, BulkResult result, ItemHandler<T> handler, Runnable flush) {
+        int index = 0;
+        try {
+            while (items.hasNext()) {
+                T item;
+                try {
+                    item = items.next();
+                } catch (InvalidBulkItemException ex) {
+                    result.setReceived(index + 1);
+                    result.add(new BulkItemResult(index++, null, BulkItemResult.Status.INVALID, List.of(ex.getMessage())));
+                    continue;
+                }
+                result.setReceived(index + 1);
+                if (item == null) {
+                    result.add(new BulkItemResult(index++, null, BulkItemResult.Status.INVALID, List.of("Item is empty")));
+                    continue;
+                }
+                handler.handle(index++, item);
+            }
+        } catch (IllegalArgumentException ex) {
+            result.setError("Could not read item " + index + ": " + ex.getMessage());
+        }
+        flush.run();
+        result.getItems().sort(Comparator.comparingInt(BulkItemResult::getIndex));
+    }
+
+    private void insertChunk(List<Indexed<Movie>> chunk, BulkResult result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<Movie> movies = chunk.stream().map(Indexed::item).toList();
+        Map<Integer, String> errors = movieRepository.bulkInsert(movies);
+
+        List<Movie> written = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            Indexed<Movie> item = chunk.get(i);
+            String error = errors.get(i);
+            if (error == null) {
+                written.add(item.item());
+                result.add(new BulkItemResult(item.index(), item.item().getId(), BulkItemResult.Status.CREATED, null));
+            } else {
+                result.add(new BulkItemResult(item.index(), null, BulkItemResult.Status.FAILED, List.of(error)));
+            }
+        }
+        publishSaved(written);
+        chunk.clear();
+    }
+
+    private void updateChunk(List<Indexed<Movie>> chunk, BulkResult result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        Set<String> existing = movieRepository.findExistingIds(chunk.stream().map(item -> item.item().getId()).toList());
+
+        List<Indexed<Movie>> found = new ArrayList<>();
+        for (Indexed<Movie> item : chunk) {
+            if (existing.contains(item.item().getId())) {
+                found.add(item);
+            } else {
+                result.add(new BulkItemResult(item.index(), item.item().getId(), BulkItemResult.Status.NOT_FOUND, null));
+            }
+        }
+
+        Map<Integer, String> errors = found.isEmpty()
+                ? Map.of()
+                : movieRepository.bulkUpdate(found.stream().map(Indexed::item).toList());
+
+        List<String> written = new ArrayList<>();
+        for (int i = 0; i < found.size(); i++) {
+            Indexed<Movie> item = found.get(i);
+            String error = errors.get(i);
+            if (error == null) {
+                written.add(item.item().getId());
+                result.add(new BulkItemResult(item.index(), item.item().getId(), BulkItemResult.Status.UPDATED, null));
+            } else {
+                result.add(new BulkItemResult(item.index(), item.item().getId(), BulkItemResult.Status.FAILED, List.of(error)));
+            }
+        }
+        // the event must carry the stored documents (new version included), not the request items:
+        // views keep the newest version of a movie and would ignore the items
+        if (!written.isEmpty()) {
+            publishSaved(movieRepository.findAllById(written));
+        }
+        chunk.clear();
+    }
+
+    private void deleteChunk(List<Indexed<String>> chunk, BulkResult result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        Set<String> existing = movieRepository.findExistingIds(chunk.stream().map(Indexed::item).toList());
+        movieRepository.deleteAllById(existing);
+
+        for (Indexed<String> item : chunk) {
+            BulkItemResult.Status status = existing.contains(item.item())
+                    ? BulkItemResult.Status.DELETED
+                    : BulkItemResult.Status.NOT_FOUND;
+            result.add(new BulkItemResult(item.index(), item.item(), status, null));
+        }
+        if (!existing.isEmpty()) {
+            eventPublisher.publishEvent(MovieChangedEvent.deleted(List.copyOf(existing)));
+        }
+        chunk.clear();
+    }
+
+    private void publishSaved(List<Movie> written) {
+        if (!written.isEmpty()) {
+            eventPublisher.publishEvent(MovieChangedEvent.saved(written));
+        }
+    }
+
+    /*
+       Returns the constraint violation messages of a movie (empty if valid).
+    */
+    private List<String> validate(Movie movie) {
+        List<String> errors = new ArrayList<>();
+        for (ConstraintViolation<Movie> violation : validator.validate(movie)) {
+            errors.add(violation.getMessage());
+        }
+        return errors;
+    }
+
+    /* An item together with its position in the request */
+    private record Indexed<T>(int index, T item) {
+    }
+
+    @FunctionalInterface
+    private interface ItemHandler<T> {
+        void handle(int index, T item);
+    }
+}
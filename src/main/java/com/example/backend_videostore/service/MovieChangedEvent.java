@@ -0,0 +1,55 @@
+package com.example.backend_videostore.service;
+
+import java.util.List;
+
+import com.example.backend_videostore.model.Movie;
+
+import lombok.Getter;
+
+/*
+  MovieChangedEvent is published by MovieService after the "movies" collection changes.
+
+  Components that keep derived in-memory state about the catalog (caches, indexes, ...)
+  listen for it with @EventListener instead of being called by MovieService directly.
+  Listeners run synchronously on the thread that made the change, so the state is
+  up to date by the time the write request returns.
+
+  - kind SAVED: "movies" holds the inserted or updated documents
+  - kind DELETED: "ids" holds the IDs of the deleted documents
+  - kind LOADED: "movies" holds documents read by CatalogBootstrap at startup;
+    nothing changed in the database, so caches do not need to be invalidated
+*/
+@Getter
+public class MovieChangedEvent {
+
+    public enum Kind { SAVED, DELETED, LOADED }
+
+    private final Kind kind;
+
+    private final List<Movie> movies;
+
+    private final List<String> ids;
+
+    private MovieChangedEvent(Kind kind, List<Movie> movies, List<String> ids) {
+        this.kind = kind;
+        this.movies = movies;
+        this.ids = ids;
+    }
+
+    /* Creates an event for inserted or updated movies */
+    public static MovieChangedEvent saved(List<Movie> movies) {
+        return new MovieChangedEvent(Kind.SAVED, List.copyOf(movies),
+                movies.stream().map(Movie::getId).toList());
+    }
+
+    /* Creates an event for deleted movies */
+    public static MovieChangedEvent deleted(List<String> ids) {
+        return new MovieChangedEvent(Kind.DELETED, List.of(), List.copyOf(ids));
+    }
+
+    /* Creates an event for movies read from the database while bootstrapping in-memory views */
+    public static MovieChangedEvent loaded(List<Movie> movies) {
+        return new MovieChangedEvent(Kind.LOADED, List.copyOf(movies),
+                movies.stream().map(Movie::getId).toList());
+    }
+}
@@ -1,17 +1,43 @@
 package com.example.backend_videostore.service;
 
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 
+import com.example.backend_videostore.config.CacheConfig;
+
 import com.example.backend_videostore.model.Movie;
+import com.example.backend_videostore.model.MovieBrowsePage;
+import com.example.backend_videostore.model.MoviePage;
 import com.example.backend_videostore.repository.MovieRepository;
+import com.example.backend_videostore.repository.MovieRepositoryCustomImpl;
+import com.example.backend_videostore.search.BrowseIndex;
+import com.example.backend_videostore.search.CatalogColumns;
+import com.example.backend_videostore.search.MovieSearchIndex;
+import com.example.backend_videostore.search.TitleSuggester;
 
 /*
   MovieService contains business logic related to movies and TV shows.
   It acts as a middle layer between the MovieController and MovieRepository.
+
+  Reads by ID and encoded listing responses are cached (see CacheConfig). Every write publishes
+  a MovieChangedEvent so caches and other in-memory views of the catalog stay in sync.
+
+  Once the CatalogReplica has been loaded, reads (by ID, pages, by type, the whole catalog
+  and the export) are answered from it instead of MongoDB; until then they query the database.
 */
 @Service
 public class MovieService {
@@ -20,40 +46,231 @@ public class MovieService {
     @Autowired
     private MovieRepository movieRepository;
 
+    /* Publishes MovieChangedEvent after every write */
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /* In-memory full-text index used by searchByTitle */
+    @Autowired
+    private MovieSearchIndex searchIndex;
+
+    /* In-memory copy of the catalog that serves reads once it is loaded */
+    @Autowired
+    private CatalogReplica replica;
+
+    /* In-memory prefix trie used by suggestTitles */
+    @Autowired
+    private TitleSuggester titleSuggester;
+
+    /* In-memory columnar index used by browseMovies */
+    @Autowired
+    private BrowseIndex browseIndex;
+
+    /* Fields a client may request with "fields=" on paginated listings; also the fields a PATCH may change */
+    private static final Set<String> PROJECTABLE_FIELDS = Set.of(
+            "title", "shortDescription", "rentalPrice", "purchasePrice", "imageUrl", "type");
+
+    /* Page size used when the client does not send "limit" */
+    @Value("${movies.page.default-limit:50}")
+    private int defaultPageLimit;
+
+    /* Largest page size a client may ask for */
+    @Value("${movies.page.max-limit:500}")
+    private int maxPageLimit;
+
+    /* Number of search results returned when the client does not send "limit" */
+    @Value("${movies.search.default-limit:50}")
+    private int defaultSearchLimit;
+
+    /* Largest number of search results a client may ask for */
+    @Value("${movies.search.max-limit:200}")
+    private int maxSearchLimit;
+
     /* 
        Adds a new movie or TV show to the database.
        Uses MongoRepository's save() method.
     */
     public Movie addMovie(Movie movie) {
-        return movieRepository.save(movie);
+        movie.setVersion(null);
+        Movie saved = movieRepository.save(movie);
+        eventPublisher.publishEvent(MovieChangedEvent.saved(List.of(saved)));
+        return saved;
     }
 
     /* 
        Retrieves all movies and TV shows from the database.
     */
     public List<Movie> getAllMovies() {
+        if (replica.isReady()) {
+            return replica.findAll(null);
+        }
         return movieRepository.findAll();
     }
 
+    /* 
+       Retrieves one page of movies and TV shows using keyset pagination on the document ID.
+       - type: optional filter ("movie" or "tvshow")
+       - after: the nextCursor of the previous page, or null for the first page
+       - limit: page size, defaults to movies.page.default-limit and is capped at movies.page.max-limit
+       - fields: optional comma-separated list of fields to return (the ID is always returned)
+
+       One extra document is read to know whether another page exists without a count query.
+       Throws IllegalArgumentException for an invalid cursor, limit or field name.
+
+       Pages are not cached here: the serialized responses are, per catalog version, in
+       ListingResponseCache, and once the replica is loaded a page is a walk over a sorted map.
+    */
+    public MoviePage getMoviesPage(String type, String after, Integer limit, String fields) {
+        int pageSize = resolvePageLimit(limit);
+        if (after != null && !ObjectId.isValid(after)) {
+            throw new IllegalArgumentException("Invalid cursor: " + after);
+        }
+
+        Set<String> projection = parseFields(fields);
+        List<Movie> movies = replica.isReady()
+                ? replica.findPage(type, after, pageSize + 1, projection)
+                : movieRepository.findPage(type, after, pageSize + 1, projection);
+        if (movies.size() <= pageSize) {
+            return new MoviePage(movies, null);
+        }
+
+        List<Movie> items = movies.subList(0, pageSize);
+        return new MoviePage(List.copyOf(items), items.get(pageSize - 1).getId());
+    }
+
+    /* 
+       Streams all movies and TV shows (or only the given type) from a database cursor.
+       Used by the catalog export; the caller must close the returned Stream.
+    */
+    public Stream<Movie> streamMovies(String type) {
+        return type != null ? movieRepository.streamByType(type) : movieRepository.streamAllBy();
+    }
+
+    /* 
+       Same as streamMovies(), served from the CatalogReplica once it is loaded.
+       Used by the catalog export.
+    */
+    public Stream<Movie> exportMovies(String type) {
+        if (replica.isReady()) {
+            return replica.stream(type);
+        }
+        return streamMovies(type);
+    }
+
     /* 
        Retrieves a movie or TV show by its ID.
        Returns Optional<Movie> to safely handle "not found" cases.
+       Found movies are cached in the movieById cache. "Not found" is not cached: the movie
+       may be created right after, and a node that learns about it from the change feed
+       would otherwise keep answering 404 until the entry expires.
+       (#result is the unwrapped movie, null for Optional.empty().)
+
+       The cache key includes the catalog version read before the lookup. A lookup that read
+       a movie just before a write may store it after MovieCacheInvalidator has evicted it, but
+       only under the previous version, which no request uses once the write is complete.
     */
+    @Cacheable(value = CacheConfig.MOVIE_BY_ID, key = "@catalogVersion.current() + ':' + #id", unless = "#result == null")
     public Optional<Movie> getMovieById(String id) {
+        if (replica.isReady()) {
+            return replica.findById(id);
+        }
         return movieRepository.findById(id);
     }
 
     /* 
-       Searches for movies or TV shows where the title contains the provided string (case-insensitive).
+       Retrieves several movies by ID, in the order of the IDs; IDs that do not exist are skipped.
+       Served from the CatalogReplica once it is loaded, otherwise with one database query.
     */
-    public List<Movie> searchByTitle(String title) {
-        return movieRepository.findByTitleContainingIgnoreCase(title);
+    public List<Movie> getMoviesByIds(List<String> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        if (replica.isReady()) {
+            return replica.findAllById(ids);
+        }
+        Map<String, Movie> found = new HashMap<>();
+        movieRepository.findAllById(ids).forEach(movie -> found.put(movie.getId(), movie));
+        return ids.stream().map(found::get).filter(movie -> movie != null).toList();
+    }
+
+    /* 
+       Searches movies and TV shows by words of their title and short description, best matches first.
+       - limit: maximum number of results, defaults to movies.search.default-limit
+
+       Served from the in-memory MovieSearchIndex. Until the index has been built at startup,
+       falls back to the database (case-insensitive "title contains" query).
+       Throws IllegalArgumentException for a limit outside 1..movies.search.max-limit.
+    */
+    public List<Movie> searchByTitle(String title, Integer limit) {
+        int maxResults = resolveSearchLimit(limit);
+
+        if (searchIndex.isReady()) {
+            return searchIndex.search(title, maxResults);
+        }
+
+        List<Movie> movies = movieRepository.findByTitleContainingIgnoreCase(title);
+        return movies.size() > maxResults ? movies.subList(0, maxResults) : movies;
+    }
+
+    /* 
+       Returns typeahead suggestions: movies with a title word starting with the prefix, most popular first.
+       - limit: maximum number of suggestions, defaults to (and is capped at) movies.suggest.max-limit
+
+       Served from the in-memory TitleSuggester. Until it has been loaded at startup,
+       falls back to searchByTitle.
+    */
+    public List<Movie> suggestTitles(String prefix, Integer limit) {
+        int maxResults = limit != null ? limit : titleSuggester.getMaxLimit();
+        if (maxResults < 1 || maxResults > titleSuggester.getMaxLimit()) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + titleSuggester.getMaxLimit());
+        }
+
+        if (titleSuggester.isReady()) {
+            return titleSuggester.suggest(prefix, maxResults);
+        }
+        return searchByTitle(prefix, maxResults);
+    }
+
+    /* 
+       Returns one page of the movies matching type and price filters, in the requested order,
+       with the number of matches per type (facets).
+       - types: optional comma-separated types, e.g. "movie,tvshow"
+       - price bounds: optional and inclusive
+       - sort: id (default), title, rentalPrice or purchasePrice, with "-" first for descending
+       - after / limit / fields: as in getMoviesPage (the cursor is the nextCursor of this query)
+
+       Served from the in-memory BrowseIndex only: building its columns per request from the
+       whole catalog would read every movie from the database on every call.
+       Throws IllegalArgumentException for an invalid range, sort, cursor, limit or field name,
+       and CatalogNotReadyException while the index is still loading at startup.
+    */
+    public MovieBrowsePage browseMovies(String types, Double minRentalPrice, Double maxRentalPrice,
+                                        Double minPurchasePrice, Double maxPurchasePrice,
+                                        String sort, String after, Integer limit, String fields) {
+        Set<String> projection = parseFields(fields);
+        CatalogColumns.Query query = new CatalogColumns.Query(parseTypes(types),
+                new CatalogColumns.PriceRange(minRentalPrice, maxRentalPrice),
+                new CatalogColumns.PriceRange(minPurchasePrice, maxPurchasePrice),
+                sort, after, resolvePageLimit(limit));
+
+        if (!browseIndex.isReady()) {
+            throw new CatalogNotReadyException("The catalog is still loading, please retry shortly");
+        }
+        CatalogColumns.Result result = browseIndex.columns().query(query);
+
+        List<Movie> items = projection != null
+                ? result.items().stream().map(movie -> CatalogReplica.project(movie, projection)).toList()
+                : result.items();
+        return new MovieBrowsePage(items, result.nextCursor(), result.total(), result.facets());
     }
 
     /* 
        Filters movies or TV shows by their type (e.g., "movie" or "tvshow").
     */
     public List<Movie> findByType(String type) {
+        if (replica.isReady()) {
+            return replica.findAll(type);
+        }
         return movieRepository.findByType(type);
     }
 
@@ -62,22 +279,145 @@ public class MovieService {
     */
     public void deleteMovie(String id) {
         movieRepository.deleteById(id);
+        eventPublisher.publishEvent(MovieChangedEvent.deleted(List.of(id)));
     }
 
     /* 
-       Updates an existing movie by its ID with the fields from the provided updatedMovie object.
-       If the movie is not found, throws a RuntimeException.
+       Updates an existing movie by its ID with the fields from the provided updatedMovie object
+       (title, description, prices, image URL and type).
+       - expectedVersion: optional version from an If-Match header; the update is rejected if the
+         movie was changed in the meantime
+
+       Runs as a single findAndModify round trip (see MovieRepositoryCustom.updateFields).
+       Throws NoSuchElementException if the movie is not found and
+       OptimisticLockingFailureException if expectedVersion does not match.
+    */
+    public Movie updateMovie(String id, Movie updatedMovie, Long expectedVersion) {
+        return applyUpdate(id, MovieRepositoryCustomImpl.editableFields(updatedMovie), expectedVersion);
+    }
+
+    /* 
+       Partially updates a movie: only the fields present in "changes" are modified.
+       Accepted fields are the editable ones (see PROJECTABLE_FIELDS); string fields must not be
+       blank and prices must be numbers. Throws IllegalArgumentException for anything else.
+       Same concurrency rules and exceptions as updateMovie().
     */
-    public Movie updateMovie(String id, Movie updatedMovie) {
-        return movieRepository.findById(id)
-                .map(movie -> {
-                    movie.setTitle(updatedMovie.getTitle());
-                    movie.setShortDescription(updatedMovie.getShortDescription());
-                    movie.setRentalPrice(updatedMovie.getRentalPrice());
-                    movie.setPurchasePrice(updatedMovie.getPurchasePrice());
-                    movie.setImageUrl(updatedMovie.getImageUrl());
-                    return movieRepository.save(movie);
-                })
-                .orElseThrow(() -> new RuntimeException("Movie not found"));
+    public Movie patchMovie(String id, Map<String, Object> changes, Long expectedVersion) {
+        return applyUpdate(id, patchFields(changes), expectedVersion);
+    }
+
+    /* 
+       Applies a field update in one round trip and publishes the change.
+       When nothing matched, a second query tells "not found" apart from "version mismatch".
+    */
+    private Movie applyUpdate(String id, Map<String, Object> fields, Long expectedVersion) {
+        Movie saved = movieRepository.updateFields(id, fields, expectedVersion);
+        if (saved == null) {
+            if (expectedVersion != null && movieRepository.existsById(id)) {
+                throw new OptimisticLockingFailureException("Movie " + id + " was modified by someone else");
+            }
+            throw new NoSuchElementException("Movie not found");
+        }
+
+        eventPublisher.publishEvent(MovieChangedEvent.saved(List.of(saved)));
+        return saved;
+    }
+
+    /* 
+       Validates the body of a PATCH and converts it to the fields to $set
+       (prices become Double). Shared with ReactiveMovieService.
+    */
+    static Map<String, Object> patchFields(Map<String, Object> changes) {
+        if (changes == null || changes.isEmpty()) {
+            throw new IllegalArgumentException("No fields to update");
+        }
+
+        Map<String, Object> fields = new HashMap<>();
+        for (Map.Entry<String, Object> change : changes.entrySet()) {
+            String name = change.getKey();
+            Object value = change.getValue();
+            if (!PROJECTABLE_FIELDS.contains(name)) {
+                throw new IllegalArgumentException("Field cannot be updated: " + name);
+            }
+            if (name.endsWith("Price")) {
+                if (!(value instanceof Number number)) {
+                    throw new IllegalArgumentException(name + " must be a number");
+                }
+                fields.put(name, number.doubleValue());
+            } else {
+                if (!(value instanceof String text) || text.isBlank()) {
+                    throw new IllegalArgumentException(name + " must not be blank");
+                }
+                fields.put(name, text);
+            }
+        }
+        return fields;
+    }
+
+    /* 
+       Applies the default page size and rejects sizes outside 1..movies.page.max-limit.
+       Also used by ReactiveMovieService.
+    */
+    int resolvePageLimit(Integer limit) {
+        if (limit == null) {
+            return defaultPageLimit;
+        }
+        if (limit < 1 || limit > maxPageLimit) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + maxPageLimit);
+        }
+        return limit;
+    }
+
+    /* 
+       Applies the default number of search results and rejects limits outside 1..movies.search.max-limit.
+       Also used by ReactiveMovieService.
+    */
+    int resolveSearchLimit(Integer limit) {
+        int maxResults = limit != null ? limit : defaultSearchLimit;
+        if (maxResults < 1 || maxResults > maxSearchLimit) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + maxSearchLimit);
+        }
+        return maxResults;
+    }
+
+    /* 
+       Parses the comma-separated "type" parameter of browseMovies; empty when no type was requested.
+    */
+    private static Set<String> parseTypes(String types) {
+        if (types == null || types.isBlank()) {
+            return Set.of();
+        }
+        Set<String> parsed = new LinkedHashSet<>();
+        for (String type : types.split(",")) {
+            if (!type.isBlank()) {
+                parsed.add(type.trim());
+            }
+        }
+        return parsed;
+    }
+
+    /* 
+       Parses the "fields" parameter into a set of field names.
+       Returns null when no projection was requested, and an empty set for "fields=id"
+       (the ID is always returned, so it needs no entry of its own).
+       Also used by ReactiveMovieService.
+    */
+    Set<String> parseFields(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+
+        Set<String> parsed = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty() || name.equals("id")) {
+                continue;
+            }
+            if (!PROJECTABLE_FIELDS.contains(name)) {
+                throw new IllegalArgumentException("Unknown field: " + name);
+            }
+            parsed.add(name);
+        }
+        return parsed;
     }
 }
@@ -0,0 +1,268 @@
+package com.example.backend_videostore.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import com.example.backend_videostore.model.LedgerEntry;
+import com.example.backend_videostore.model.Order;
+import com.example.backend_videostore.repository.OrderRepository;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/*
+  OrderBatcher writes orders to MongoDB in batches ("group commit").
+
+  Writing every order on its own costs one round trip to MongoDB per checkout, and at
+  release-day peaks the database round trips, not the application, limit throughput.
+  Instead, request threads put their order in a bounded queue and get a CompletableFuture;
+  a single writer thread ("order-writer") takes everything that is waiting and writes it
+  with one bulk insert into "orders" and one bulk insert into the ledger, then completes
+  the futures. The busier the application, the larger the batches, so the number of
+  round trips per second stays roughly constant while throughput grows.
+
+  - orders.batch.max-size: most orders written by one bulk insert
+  - orders.batch.max-delay: how long the writer waits for more orders after the first one;
+    0 (default) writes whatever is waiting at once, so an idle application adds no latency
+  - orders.batch.queue-capacity: orders allowed to wait; when the queue is full new
+    orders are rejected (RejectedExecutionException), which the controller turns into
+    429 Too Many Requests
+
+  Idempotency and the ledger depend on unique indexes ({userEmail, idempotencyKey} on "orders",
+  orderId on "ledger"). The writer creates them itself before the first batch, whatever
+  movies.indexes.create says, and fails the batches (and so the checkouts) until they exist.
+
+  Every write failure completes the checkouts with OrderNotWrittenException, which the
+  controller turns into 503 Service Unavailable: a retry with the same Idempotency-Key is safe.
+
+  Batch sizes and write times are published as "orders.batch.size" and "orders.batch.write".
+*/
+@Component
+public class OrderBatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderBatcher.class);
+
+    /* Injects OrderRepository for the bulk writes */
+    @Autowired
+    private OrderRepository orderRepository;
+
+    /* Publishes an OrderPlacedEvent for every batch written */
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /* Registers the batch metrics */
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${orders.batch.max-size:500}")
+    private int maxSize;
+
+    @Value("${orders.batch.max-delay:0ms}")
+    private Duration maxDelay;
+
+    @Value("${orders.batch.queue-capacity:10000}")
+    private int queueCapacity;
+
+    private BlockingQueue<PendingOrder> queue;
+
+    private Thread writer;
+
+    private volatile boolean running;
+
+    /* Set once the unique indexes are known to exist; only used by the writer thread */
+    private boolean indexesReady;
+
+    private DistributionSummary batchSize;
+
+    private Timer writeTimer;
+
+    /* 
+       Creates the queue and starts the writer thread.
+       Nothing is written until the first order arrives, so startup never waits for MongoDB.
+    */
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        batchSize = DistributionSummary.builder("orders.batch.size").register(meterRegistry);
+        writeTimer = Timer.builder("orders.batch.write").register(meterRegistry);
+        meterRegistry.gauge("orders.batch.queued", queue, BlockingQueue::size);
+
+        running = true;
+        writer = new Thread(this::run, "order-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /* 
+       Stops accepting orders and waits (up to 10 seconds) for the queued ones to be written.
+       Orders still queued afterwards (the writer timed out, or an order was queued just as
+       the writer exited) are failed rather than left waiting forever.
+    */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+
+        List<PendingOrder> left = new ArrayList<>();
+        queue.drainTo(left);
+        RejectedExecutionException stopped = new RejectedExecutionException("Application is stopping");
+        left.forEach(pending -> pending.future().completeExceptionally(stopped));
+    }
+
+    /* 
+       Queues an order for writing. The order must already have its ID.
+       The future completes with the stored order: the given one, or the one written
+       earlier with the same Idempotency-Key.
+       Throws RejectedExecutionException when the queue is full or the application is stopping.
+    */
+    public CompletableFuture<Order> submit(Order order) {
+        PendingOrder pending = new PendingOrder(order, new CompletableFuture<>());
+        if (!running || !queue.offer(pending)) {
+            throw new RejectedExecutionException("Order queue is full");
+        }
+        // stop() may have drained the queue between the check and the offer; an order it
+        // drained has been failed already, one it missed is taken back here
+        if (!running && queue.remove(pending)) {
+            throw new RejectedExecutionException("Application is stopping");
+        }
+        return pending.future();
+    }
+
+    /* 
+       Writer loop: waits for an order, collects what else is waiting (up to max-size,
+       waiting at most max-delay), writes the batch, and repeats until stopped and drained.
+    */
+    private void run() {
+        List<PendingOrder> batch = new ArrayList<>(maxSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingOrder first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxDelay.toNanos();
+                while (batch.size() < maxSize) {
+                    queue.drainTo(batch, maxSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= maxSize || remaining <= 0) {
+                        break;
+                    }
+                    PendingOrder next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                batchSize.record(batch.size());
+                writeTimer.record(() -> write(batch));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                batch.forEach(pending -> pending.future().completeExceptionally(ex));
+                return;
+            } catch (RuntimeException ex) {
+                log.error("Could not write {} orders", batch.size(), ex);
+                OrderNotWrittenException failure = ex instanceof OrderNotWrittenException notWritten
+                        ? notWritten : new OrderNotWrittenException("Orders could not be written", ex);
+                batch.forEach(pending -> pending.future().completeExceptionally(failure));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /* 
+       Writes one batch:
+       1. bulk insert of the orders; an order rejected as a duplicate (same user and
+          Idempotency-Key) resolves to the order already stored
+       2. bulk insert of the ledger entries of the written and the resolved orders;
+          the ledger skips orders it already has, so an order whose ledger entry was lost
+          (e.g. a crash between the two writes) gets it when the checkout is retried
+       3. an OrderPlacedEvent with the written and the resolved orders
+       4. completion of the futures, only once both writes have succeeded
+    */
+    void write(List<PendingOrder> batch) {
+        ensureIndexes();
+        List<Order> orders = batch.stream().map(PendingOrder::order).toList();
+        Map<Integer, Integer> errors = orderRepository.insertOrders(orders);
+
+        List<Order> stored = new ArrayList<>(orders.size());
+        List<LedgerEntry> ledger = new ArrayList<>(orders.size());
+        for (int i = 0; i < orders.size(); i++) {
+            Order order = orders.get(i);
+            Integer error = errors.get(i);
+            if (error == null) {
+                stored.add(order);
+            } else if (error == OrderRepository.DUPLICATE_KEY) {
+                order = orderRepository.findByUserEmailAndIdempotencyKey(order.getUserEmail(), order.getIdempotencyKey())
+                        .orElseThrow(() -> new IllegalStateException("Duplicate order not found"));
+                stored.add(order);
+            } else {
+                stored.add(null);
+                batch.get(i).future().completeExceptionally(
+                        new OrderNotWrittenException("Order could not be written (error " + error + ")"));
+                continue;
+            }
+            ledger.add(LedgerEntry.of(order));
+        }
+
+        if (!ledger.isEmpty()) {
+            orderRepository.appendLedger(ledger);
+            publish(stored.stream().filter(order -> order != null).toList());
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            if (stored.get(i) != null) {
+                batch.get(i).future().complete(stored.get(i));
+            }
+        }
+    }
+
+    /* 
+       Creates the unique indexes before the first batch is written. Until that succeeds every
+       batch fails, because without them a retried checkout could create a second order.
+    */
+    private void ensureIndexes() {
+        if (indexesReady) {
+            return;
+        }
+        try {
+            orderRepository.ensureUniqueIndexes();
+        } catch (RuntimeException ex) {
+            throw new OrderNotWrittenException("Unique order indexes are missing, orders cannot be written", ex);
+        }
+        indexesReady = true;
+    }
+
+    /* 
+       Publishes the written orders. The orders are stored whatever the listeners do,
+       so a failing listener is logged and does not fail the checkouts.
+    */
+    private void publish(List<Order> orders) {
+        try {
+            eventPublisher.publishEvent(new OrderPlacedEvent(orders));
+        } catch (RuntimeException ex) {
+            log.error("OrderPlacedEvent listener failed", ex);
+        }
+    }
+
+    /* An order waiting to be written, with the future of its request */
+    record PendingOrder(Order order, CompletableFuture<Order> future) {
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.backend_videostore.service;
+
+/*
+  Completes a checkout whose order could not be written to MongoDB: the unique order
+  indexes could not be created, the batch write failed, or the order itself was rejected.
+  The order may or may not be stored; a retry with the same Idempotency-Key returns the
+  stored one or writes it, so the controller answers 503 Service Unavailable with Retry-After.
+*/
+public class OrderNotWrittenException extends RuntimeException {
+
+    public OrderNotWrittenException(String message) {
+        super(message);
+    }
+
+    public OrderNotWrittenException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.backend_videostore.service;
+
+import java.util.List;
+
+import com.example.backend_videostore.model.Order;
+
+import lombok.Getter;
+
+/*
+  OrderPlacedEvent is published by OrderBatcher once a batch of orders (and their ledger
+  entries) has been written, before the checkouts are answered.
+
+  Components that keep in-memory state derived from orders (user libraries, ...) listen for
+  it with @EventListener. Listeners run synchronously on the "order-writer" thread, so they
+  must be quick: every checkout of the batch waits for them.
+
+  An order may be published again when a checkout is retried with the same Idempotency-Key;
+  listeners must treat it as already known.
+*/
+@Getter
+public class OrderPlacedEvent {
+
+    private final List<Order> orders;
+
+    public OrderPlacedEvent(List<Order> orders) {
+        this.orders = List.copyOf(orders);
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.backend_videostore.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import com.example.backend_videostore.model.Movie;
+import com.example.backend_videostore.model.Order;
+import com.example.backend_videostore.repository.OrderRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.annotation.PostConstruct;
+
+/*
+  OrderService handles rentals and purchases ("checkouts").
+
+  A checkout is identified by the user and an Idempotency-Key chosen by the client:
+  sending the same checkout again (e.g. after a timeout) returns the order created the first
+  time instead of charging twice.
+  - recent checkouts are remembered in memory (orders.idempotency.ttl / max-size), so a retry
+    arriving while the first attempt is still being written simply waits for the same result
+  - older ones are caught by the unique {userEmail, idempotencyKey} index (see OrderBatcher)
+
+  The price is read from the cached movie (MovieService.getMovieById), and the order is
+  written by OrderBatcher together with other concurrent checkouts.
+*/
+@Service
+public class OrderService {
+
+    /* Longest Idempotency-Key accepted */
+    static final int MAX_IDEMPOTENCY_KEY_LENGTH = 128;
+
+    /* Injects MovieService to look up the rented or purchased movie */
+    @Autowired
+    private MovieService movieService;
+
+    /* Injects OrderBatcher, which writes the orders */
+    @Autowired
+    private OrderBatcher orderBatcher;
+
+    /* Injects OrderRepository to list a user's orders */
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Value("${orders.rental-period:48h}")
+    private Duration rentalPeriod;
+
+    @Value("${orders.idempotency.ttl:24h}")
+    private Duration idempotencyTtl;
+
+    @Value("${orders.idempotency.max-size:100000}")
+    private long idempotencyMaxSize;
+
+    /* "email\nIdempotency-Key" -> checkout in progress or done */
+    private Cache<String, Checkout> recentCheckouts;
+
+    @PostConstruct
+    public void init() {
+        recentCheckouts = Caffeine.newBuilder()
+                .maximumSize(idempotencyMaxSize)
+                .expireAfterWrite(idempotencyTtl)
+                .build();
+    }
+
+    /* 
+       Rents or buys a movie for a user.
+       - idempotencyKey: optional; without it every call creates a new order
+
+       Returns a future completed with the stored order once it has been written.
+       Throws:
+       - NoSuchElementException if the movie does not exist
+       - IllegalArgumentException if the movie has no price for this kind of order,
+         or the Idempotency-Key was already used for a different checkout
+       - RejectedExecutionException if too many orders are waiting to be written
+    */
+    public CompletableFuture<Order> checkout(String userEmail, String movieId, Order.Kind kind, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            idempotencyKey = UUID.randomUUID().toString();
+        } else if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be 1 to " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
+        }
+
+        String cacheKey = userEmail + "\n" + idempotencyKey;
+        Checkout checkout = new Checkout(movieId, kind, new CompletableFuture<>());
+        Checkout previous = recentCheckouts.asMap().putIfAbsent(cacheKey, checkout);
+        if (previous != null) {
+            if (!previous.matches(movieId, kind)) {
+                throw new IllegalArgumentException("Idempotency-Key was already used for a different order");
+            }
+            return previous.result();
+        }
+
+        try {
+            Order order = newOrder(userEmail, movieId, kind, idempotencyKey);
+            orderBatcher.submit(order).whenComplete((stored, ex) -> {
+                if (ex == null && !checkout.matches(stored.getMovieId(), stored.getKind())) {
+                    ex = new IllegalArgumentException("Idempotency-Key was already used for a different order");
+                }
+                if (ex != null) {
+                    // a failed checkout can be retried with the same key
+                    recentCheckouts.asMap().remove(cacheKey, checkout);
+                    checkout.result().completeExceptionally(ex);
+                } else {
+                    checkout.result().complete(stored);
+                }
+            });
+        } catch (RuntimeException ex) {
+            recentCheckouts.asMap().remove(cacheKey, checkout);
+            checkout.result().completeExceptionally(ex);
+            throw ex;
+        }
+        return checkout.result();
+    }
+
+    /* 
+       Returns a user's most recent orders, newest first.
+    */
+    public List<Order> getOrders(String userEmail, int limit) {
+        return orderRepository.findByUserEmailOrderByCreatedAtDesc(userEmail, PageRequest.of(0, limit));
+    }
+
+    /* 
+       Builds the order at the movie's current price. The ID is assigned here so that
+       the ledger entry can refer to it within the same batch.
+    */
+    private Order newOrder(String userEmail, String movieId, Order.Kind kind, String idempotencyKey) {
+        Movie movie = movieService.getMovieById(movieId)
+                .orElseThrow(() -> new NoSuchElementException("Movie not found"));
+        Double price = kind == Order.Kind.RENTAL ? movie.getRentalPrice() : movie.getPurchasePrice();
+        if (price == null) {
+            throw new IllegalArgumentException("Movie is not available for " + kind.name().toLowerCase());
+        }
+
+        Instant now = Instant.now();
+        return new Order(new ObjectId().toHexString(), userEmail, idempotencyKey, movie.getId(), movie.getTitle(),
+                kind, price, now, kind == Order.Kind.RENTAL ? now.plus(rentalPeriod) : null);
+    }
+
+    /* A checkout remembered under its Idempotency-Key */
+    private record Checkout(String movieId, Order.Kind kind, CompletableFuture<Order> result) {
+
+        boolean matches(String otherMovieId, Order.Kind otherKind) {
+            return movieId.equals(otherMovieId) && kind == otherKind;
+        }
+    }
+}
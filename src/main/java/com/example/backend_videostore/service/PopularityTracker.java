@@ -0,0 +1,126 @@
+package com.example.backend_videostore.service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.example.backend_videostore.model.Movie;
+
+/*
+  PopularityTracker counts how often each movie is viewed (GET /api/movies/{id})
+  and returned by a search (GET /api/movies/search).
+
+  Counters are LongAdders, which spread concurrent increments over several cells,
+  so recording a view does not make request threads contend on a single value.
+  - the all-time view counts rank typeahead suggestions (see TitleSuggester)
+  - the views and search hits since the last flush are collected by TrendingTitles,
+    which turns them into trending scores and adds them to MongoDB
+*/
+@Component
+public class PopularityTracker {
+
+    /* Movie ID -> number of views since startup */
+    private final Map<String, LongAdder> views = new ConcurrentHashMap<>();
+
+    /* Movie ID -> views and search hits not yet collected by drainPending() */
+    private final Map<String, Pending> pending = new ConcurrentHashMap<>();
+
+    /* 
+       Records one view of a movie.
+    */
+    public void recordView(Movie movie) {
+        LongAdder counter = views.get(movie.getId());
+        if (counter == null) {
+            counter = views.computeIfAbsent(movie.getId(), id -> new LongAdder());
+        }
+        counter.increment();
+        pending(movie).views.increment();
+    }
+
+    /* 
+       Records that movies were returned by a search.
+    */
+    public void recordSearchHits(List<Movie> results) {
+        for (Movie movie : results) {
+            pending(movie).searchHits.increment();
+        }
+    }
+
+    /* 
+       Returns the popularity score of a movie (0 if never viewed).
+    */
+    public long getScore(String movieId) {
+        LongAdder counter = views.get(movieId);
+        return counter != null ? counter.sum() : 0;
+    }
+
+    /* 
+       Returns the current score of every viewed movie.
+    */
+    public Map<String, Long> snapshot() {
+        Map<String, Long> scores = new HashMap<>(views.size());
+        views.forEach((id, counter) -> scores.put(id, counter.sum()));
+        return scores;
+    }
+
+    /* 
+       Returns the views and search hits recorded since the previous call, per movie,
+       and starts counting again from 0. Movies without any are left out.
+       Counts recorded while this runs go to this call or to the next one, never to neither.
+    */
+    public Map<String, Activity> drainPending() {
+        Map<String, Activity> activity = new HashMap<>();
+        pending.forEach((id, counts) -> {
+            long viewCount = counts.views.sumThenReset();
+            long searchHitCount = counts.searchHits.sumThenReset();
+            if (viewCount > 0 || searchHitCount > 0) {
+                activity.put(id, new Activity(counts.type, viewCount, searchHitCount));
+            }
+        });
+        return activity;
+    }
+
+    /* 
+       Forgets the counters of deleted movies.
+    */
+    @EventListener
+    public void onMovieChanged(MovieChangedEvent event) {
+        if (event.getKind() == MovieChangedEvent.Kind.DELETED) {
+            event.getIds().forEach(views::remove);
+            event.getIds().forEach(pending::remove);
+        }
+    }
+
+    private Pending pending(Movie movie) {
+        Pending counts = pending.get(movie.getId());
+        if (counts == null) {
+            counts = pending.computeIfAbsent(movie.getId(), id -> new Pending());
+        }
+        counts.type = movie.getType();
+        return counts;
+    }
+
+    /* Views and search hits of one movie over some period, with the movie's type */
+    public record Activity(String type, long views, long searchHits) {
+
+        public Activity plus(Activity other) {
+            return new Activity(other.type(), views + other.views(), searchHits + other.searchHits());
+        }
+    }
+
+    /* Counters of one movie since the last drainPending() */
+    private static final class Pending {
+
+        private final LongAdder views = new LongAdder();
+
+        private final LongAdder searchHits = new LongAdder();
+
+        /* Type seen with the last view or hit; only ever written with the same few values */
+        private volatile String type;
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.backend_videostore.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+
+import com.example.backend_videostore.model.Movie;
+import com.example.backend_videostore.model.MoviePage;
+import com.example.backend_videostore.repository.MovieRepositoryCustomImpl;
+import com.example.backend_videostore.repository.ReactiveMovieRepository;
+import com.example.backend_videostore.search.MovieSearchIndex;
+import com.example.backend_videostore.search.TitleSuggester;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/*
+  ReactiveMovieService is the non-blocking counterpart of MovieService,
+  used by ReactiveMovieController when the application runs with the "reactive" profile.
+
+  It follows the same rules as MovieService (page sizes, projections, search limits) and
+  publishes the same MovieChangedEvent on writes, so the in-memory search index, typeahead
+  and caches stay in sync whichever stack handled the write. Search and typeahead are
+  answered from the in-memory structures once they are loaded, which never blocks.
+*/
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveMovieService {
+
+    /* Injects the reactive repository for non-blocking database operations */
+    @Autowired
+    private ReactiveMovieRepository movieRepository;
+
+    /* Injects MovieService to share its parameter validation */
+    @Autowired
+    private MovieService movieService;
+
+    /* In-memory full-text index used by searchByTitle */
+    @Autowired
+    private MovieSearchIndex searchIndex;
+
+    /* In-memory prefix trie used by suggestTitles */
+    @Autowired
+    private TitleSuggester titleSuggester;
+
+    /* Publishes MovieChangedEvent after every write */
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /* 
+       Adds a new movie or TV show to the database.
+    */
+    public Mono<Movie> addMovie(Movie movie) {
+        movie.setVersion(null);
+        return movieRepository.save(movie)
+                .doOnNext(saved -> eventPublisher.publishEvent(MovieChangedEvent.saved(List.of(saved))));
+    }
+
+    /* 
+       Retrieves one page of movies and TV shows using keyset pagination on the document ID.
+       See MovieService.getMoviesPage() for the parameters.
+    */
+    public Mono<MoviePage> getMoviesPage(String type, String after, Integer limit, String fields) {
+        return Mono.defer(() -> {
+            int pageSize = movieService.resolvePageLimit(limit);
+            if (after != null && !ObjectId.isValid(after)) {
+                return Mono.error(new IllegalArgumentException("Invalid cursor: " + after));
+            }
+
+            return movieRepository.findPage(type, after, pageSize + 1, movieService.parseFields(fields))
+                    .collectList()
+                    .map(movies -> movies.size() <= pageSize
+                            ? new MoviePage(movies, null)
+                            : new MoviePage(List.copyOf(movies.subList(0, pageSize)), movies.get(pageSize - 1).getId()));
+        });
+    }
+
+    /* 
+       Streams all movies and TV shows (or only the given type) with backpressure.
+    */
+    public Flux<Movie> streamMovies(String type) {
+        return type != null ? movieRepository.findByType(type) : movieRepository.findAllBy();
+    }
+
+    /* 
+       Retrieves a movie or TV show by its ID (empty if not found).
+    */
+    public Mono<Movie> getMovieById(String id) {
+        return movieRepository.findById(id);
+    }
+
+    /* 
+       Searches movies and TV shows by words of their title and short description, best matches first.
+       Falls back to the database until the in-memory index has been built.
+    */
+    public Flux<Movie> searchByTitle(String title, Integer limit) {
+        return Flux.defer(() -> {
+            int maxResults = movieService.resolveSearchLimit(limit);
+            if (searchIndex.isReady()) {
+                return Flux.fromIterable(searchIndex.search(title, maxResults));
+            }
+            return movieRepository.findByTitleContainingIgnoreCase(title).take(maxResults);
+        });
+    }
+
+    /* 
+       Returns typeahead suggestions, most popular first.
+       Falls back to searchByTitle until the in-memory trie has been loaded.
+    */
+    public Flux<Movie> suggestTitles(String prefix, Integer limit) {
+        return Flux.defer(() -> {
+            int maxResults = limit != null ? limit : titleSuggester.getMaxLimit();
+            if (maxResults < 1 || maxResults > titleSuggester.getMaxLimit()) {
+                return Flux.error(new IllegalArgumentException(
+                        "Limit must be between 1 and " + titleSuggester.getMaxLimit()));
+            }
+            if (titleSuggester.isReady()) {
+                return Flux.fromIterable(titleSuggester.suggest(prefix, maxResults));
+            }
+            return searchByTitle(prefix, maxResults);
+        });
+    }
+
+    /* 
+       Deletes a movie or TV show by its ID.
+    */
+    public Mono<Void> deleteMovie(String id) {
+        return movieRepository.deleteById(id)
+                .doOnSuccess(done -> eventPublisher.publishEvent(MovieChangedEvent.deleted(List.of(id))));
+    }
+
+    /* 
+       Updates an existing movie by its ID with the fields from the provided updatedMovie object,
+       in one findAndModify round trip. Same rules as MovieService.updateMovie():
+       fails with NoSuchElementException if the movie is not found and with
+       OptimisticLockingFailureException if expectedVersion does not match.
+    */
+    public Mono<Movie> updateMovie(String id, Movie updatedMovie, Long expectedVersion) {
+        return applyUpdate(id, MovieRepositoryCustomImpl.editableFields(updatedMovie), expectedVersion);
+    }
+
+    /* 
+       Partially updates a movie; see MovieService.patchMovie().
+    */
+    public Mono<Movie> patchMovie(String id, Map<String, Object> changes, Long expectedVersion) {
+        return Mono.fromCallable(() -> MovieService.patchFields(changes))
+                .flatMap(fields -> applyUpdate(id, fields, expectedVersion));
+    }
+
+    private Mono<Movie> applyUpdate(String id, Map<String, Object> fields, Long expectedVersion) {
+        return movieRepository.updateFields(id, fields, expectedVersion)
+                .switchIfEmpty(Mono.defer(() -> (expectedVersion == null ? Mono.just(false) : movieRepository.existsById(id))
+                        .flatMap(exists -> Mono.error(exists
+                                ? new OptimisticLockingFailureException("Movie " + id + " was modified by someone else")
+                                : new NoSuchElementException("Movie not found")))))
+                .doOnNext(saved -> eventPublisher.publishEvent(MovieChangedEvent.saved(List.of(saved))));
+    }
+}
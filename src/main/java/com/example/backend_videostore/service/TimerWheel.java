@@ -0,0 +1,82 @@
+package com.example.backend_videostore.service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/*
+  TimerWheel is a hashed timer wheel: it keeps values until their deadline and hands them
+  back once it has passed.
+
+  Time is cut into ticks, and a value is stored in the slot of its deadline's tick
+  (tick modulo the number of slots). Advancing the wheel only visits the slots of the
+  ticks elapsed since the last advance, so scheduling is O(1) and a sweep costs
+  the number of elapsed ticks plus the values in their slots, however many values are
+  waiting further ahead. Deadlines more than one turn away simply stay in their slot
+  until a later turn.
+
+  Deadlines are only as precise as one tick: a value comes out at the first advance
+  at or after its deadline, rounded up to the tick.
+*/
+final class TimerWheel<T> {
+
+    private final long tickMillis;
+
+    private final List<List<Timeout<T>>> slots;
+
+    /* Next tick to visit */
+    private long cursor;
+
+    TimerWheel(long tickMillis, int slotCount, long nowMillis) {
+        this.tickMillis = tickMillis;
+        this.slots = new ArrayList<>(slotCount);
+        for (int i = 0; i < slotCount; i++) {
+            slots.add(new ArrayList<>());
+        }
+        this.cursor = nowMillis / tickMillis;
+    }
+
+    /* 
+       Keeps a value until deadlineMillis. A deadline already passed comes out at the next advance.
+    */
+    synchronized void schedule(T value, long deadlineMillis) {
+        long tick = Math.max(deadlineMillis / tickMillis, cursor);
+        slot(tick).add(new Timeout<>(value, deadlineMillis));
+    }
+
+    /* 
+       Returns (and forgets) every value whose deadline is at or before nowMillis.
+    */
+    synchronized List<T> advance(long nowMillis) {
+        long target = nowMillis / tickMillis;
+        // after a long pause every slot is visited once, not once per missed tick
+        cursor = Math.max(cursor, target - slots.size() + 1);
+
+        List<T> due = new ArrayList<>();
+        for (; cursor <= target; cursor++) {
+            Iterator<Timeout<T>> timeouts = slot(cursor).iterator();
+            while (timeouts.hasNext()) {
+                Timeout<T> timeout = timeouts.next();
+                if (timeout.deadlineMillis() <= nowMillis) {
+                    due.add(timeout.value());
+                    timeouts.remove();
+                }
+            }
+        }
+        // the current tick is visited again next time, for its deadlines still ahead
+        cursor = target;
+        return due;
+    }
+
+    /* Number of values waiting */
+    synchronized int size() {
+        return slots.stream().mapToInt(List::size).sum();
+    }
+
+    private List<Timeout<T>> slot(long tick) {
+        return slots.get((int) Math.floorMod(tick, (long) slots.size()));
+    }
+
+    private record Timeout<T>(T value, long deadlineMillis) {
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.backend_videostore.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/*
+  TrendingScores holds an exponentially decayed activity score per movie and ranks them.
+
+  A view adds 1 to a movie's score and a search hit adds "searchHitWeight"; every score then
+  halves each "halfLife", so a title that was hot yesterday falls behind one that is hot now.
+  Scores that decay below "minScore" are dropped, which keeps the map to the titles with
+  recent activity.
+
+  Not thread-safe: TrendingTitles calls it under its own lock.
+*/
+final class TrendingScores {
+
+    private final double halfLifeMillis;
+
+    private final double searchHitWeight;
+
+    private final double minScore;
+
+    /* Movie ID -> decayed score, as of "decayedAt" */
+    private final Map<String, Score> scores = new HashMap<>();
+
+    private long decayedAt = Long.MIN_VALUE;
+
+    TrendingScores(long halfLifeMillis, double searchHitWeight, double minScore) {
+        this.halfLifeMillis = halfLifeMillis;
+        this.searchHitWeight = searchHitWeight;
+        this.minScore = minScore;
+    }
+
+    /*
+       Decays every score to "now" (epoch millis), then adds the activity counted since the previous call.
+    */
+    void add(Map<String, PopularityTracker.Activity> activity, long now) {
+        if (decayedAt != Long.MIN_VALUE && now > decayedAt) {
+            double factor = Math.pow(0.5, (now - decayedAt) / halfLifeMillis);
+            scores.values().removeIf(score -> (score.value *= factor) < minScore);
+        }
+        decayedAt = Math.max(decayedAt, now);
+
+        activity.forEach((id, counts) -> {
+            Score score = scores.computeIfAbsent(id, key -> new Score());
+            score.value += counts.views() + searchHitWeight * counts.searchHits();
+            if (counts.type() != null) {
+                score.type = counts.type();
+            }
+        });
+    }
+
+    /*
+       Seeds the score of a movie with a score computed elsewhere (e.g. stored in MongoDB)
+       as of "at" (epoch millis). The seed is decayed to the time of the last add() and
+       kept only if it is higher than what has been counted here, since it may already include
+       activity this instance has added. Seeds below "minScore" are ignored.
+    */
+    void seed(String id, String type, double value, long at) {
+        if (decayedAt != Long.MIN_VALUE && decayedAt > at) {
+            value *= Math.pow(0.5, (decayedAt - at) / halfLifeMillis);
+        }
+        if (value < minScore) {
+            return;
+        }
+        Score score = scores.computeIfAbsent(id, key -> new Score());
+        if (value > score.value) {
+            score.value = value;
+        }
+        if (score.type == null) {
+            score.type = type;
+        }
+    }
+
+    void remove(String id) {
+        scores.remove(id);
+    }
+
+    double score(String id) {
+        Score score = scores.get(id);
+        return score != null ? score.value : 0;
+    }
+
+    int size() {
+        return scores.size();
+    }
+
+    /*
+       Returns the "k" highest scores overall and per type, highest first
+       (ties in ID order), in one pass with a bounded min-heap per list: O(n log k).
+    */
+    Ranking top(int k) {
+        Comparator<Map.Entry<String, Score>> ascending = Comparator
+                .<Map.Entry<String, Score>>comparingDouble(entry -> entry.getValue().value)
+                .thenComparing(Map.Entry::getKey, Comparator.reverseOrder());
+
+        PriorityQueue<Map.Entry<String, Score>> all = new PriorityQueue<>(ascending);
+        Map<String, PriorityQueue<Map.Entry<String, Score>>> byType = new HashMap<>();
+        for (Map.Entry<String, Score> entry : scores.entrySet()) {
+            offer(all, entry, k, ascending);
+            if (entry.getValue().type != null) {
+                offer(byType.computeIfAbsent(entry.getValue().type, type -> new PriorityQueue<>(ascending)), entry, k, ascending);
+            }
+        }
+
+        Map<String, List<String>> typeRankings = new HashMap<>();
+        byType.forEach((type, heap) -> typeRankings.put(type, drain(heap)));
+        return new Ranking(drain(all), typeRankings);
+    }
+
+    private static void offer(PriorityQueue<Map.Entry<String, Score>> heap, Map.Entry<String, Score> entry, int k,
+                              Comparator<Map.Entry<String, Score>> ascending) {
+        if (heap.size() < k) {
+            heap.add(entry);
+        } else if (ascending.compare(entry, heap.peek()) > 0) {
+            heap.poll();
+            heap.add(entry);
+        }
+    }
+
+    /* Empties a min-heap into a list, highest first */
+    private static List<String> drain(PriorityQueue<Map.Entry<String, Score>> heap) {
+        List<String> ids = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            ids.add(heap.poll().getKey());
+        }
+        Collections.reverse(ids);
+        return List.copyOf(ids);
+    }
+
+    /* The top IDs overall ("all") and of each type, highest score first */
+    record Ranking(List<String> all, Map<String, List<String>> byType) {
+
+        static final Ranking EMPTY = new Ranking(List.of(), Map.of());
+
+        List<String> of(String type) {
+            return type == null ? all : byType.getOrDefault(type, List.of());
+        }
+    }
+
+    private static final class Score {
+
+        private double value;
+
+        private String type;
+    }
+}
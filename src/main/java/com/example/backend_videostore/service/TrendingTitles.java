@@ -0,0 +1,179 @@
+package com.example.backend_videostore.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.backend_videostore.model.Movie;
+import com.example.backend_videostore.model.MovieStats;
+import com.example.backend_videostore.repository.MovieStatsRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/*
+  TrendingTitles answers "what is hot right now" (GET /api/movies/trending) from memory.
+
+  Request threads only increment counters in PopularityTracker (LongAdders, no lock, no I/O).
+  Every movies.trending.flush-interval, a background job:
+  1. takes the views and search hits counted since the previous run
+  2. adds them to the decayed scores (see TrendingScores) and recomputes the top
+     movies.trending.max-limit titles, overall and per type; readers then see the new
+     ranking at once (a volatile reference), so a request costs O(limit)
+  3. adds them to the all-time counters in MongoDB ("movie_stats") with one bulk write of
+     $inc upserts, whatever the number of requests
+
+  If the write fails, the counts are kept and written with the next run; a partially applied
+  bulk write may then count some of them twice.
+
+  The same bulk write keeps a decayed score per movie in "movie_stats". On its first run
+  (retried on every run until it succeeds, so startup never waits for MongoDB) the job seeds
+  its scores with the stored ones updated within the last SEED_HALF_LIVES half-lives; older
+  scores have decayed below any useful weight. A restarted instance therefore ranks like
+  the others instead of starting empty.
+*/
+@Component
+public class TrendingTitles {
+
+    private static final Logger log = LoggerFactory.getLogger(TrendingTitles.class);
+
+    /* How far back (in half-lives) stored scores are read when seeding: they have decayed 1024 times since */
+    private static final int SEED_HALF_LIVES = 10;
+
+    /* Injects the counters filled by the controllers */
+    @Autowired
+    private PopularityTracker popularityTracker;
+
+    /* Injects MovieStatsRepository for the batched $inc writes */
+    @Autowired
+    private MovieStatsRepository movieStatsRepository;
+
+    /* Injects MovieService to turn IDs into movies */
+    @Autowired
+    private MovieService movieService;
+
+    /* Largest number of trending titles per request; also the size of the precomputed rankings */
+    @Value("${movies.trending.max-limit:50}")
+    private int maxLimit;
+
+    @Value("${movies.trending.half-life:6h}")
+    private Duration halfLife;
+
+    @Value("${movies.trending.search-hit-weight:0.5}")
+    private double searchHitWeight;
+
+    @Value("${movies.trending.min-score:0.01}")
+    private double minScore;
+
+    private TrendingScores scores;
+
+    private volatile TrendingScores.Ranking ranking = TrendingScores.Ranking.EMPTY;
+
+    /* Counts not yet written to MongoDB; only used by the flushing thread */
+    private Map<String, PopularityTracker.Activity> unflushed = new HashMap<>();
+
+    /* Set once the scores have been seeded from MongoDB; only used by the flushing thread */
+    private boolean seeded;
+
+    @PostConstruct
+    public void init() {
+        scores = new TrendingScores(halfLife.toMillis(), searchHitWeight, minScore);
+    }
+
+    /* 
+       Returns up to "limit" trending titles, of one type or of all types (type = null),
+       hottest first. Throws IllegalArgumentException for a limit outside 1..movies.trending.max-limit.
+    */
+    public List<Movie> getTrending(String type, int limit) {
+        if (limit < 1 || limit > maxLimit) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + maxLimit);
+        }
+        // the whole ranking (at most max-limit IDs) is resolved in one call, so that titles
+        // deleted since the ranking was computed are skipped without another lookup
+        List<Movie> trending = movieService.getMoviesByIds(ranking.of(type));
+        return trending.size() > limit ? trending.subList(0, limit) : trending;
+    }
+
+    /* 
+       Folds the latest counts into the ranking, then writes them to MongoDB.
+    */
+    @Scheduled(fixedDelayString = "${movies.trending.flush-interval:10s}")
+    public void flush() {
+        if (!seeded) {
+            seed();
+        }
+        Map<String, PopularityTracker.Activity> activity = popularityTracker.drainPending();
+        synchronized (scores) {
+            scores.add(activity, System.currentTimeMillis());
+            ranking = scores.top(maxLimit);
+        }
+        write(activity);
+    }
+
+    /* 
+       Seeds the scores with the ones stored in MongoDB by earlier runs and other instances.
+       A failure is logged and retried with the next flush.
+    */
+    private void seed() {
+        List<MovieStats> stored;
+        try {
+            stored = movieStatsRepository.findByUpdatedAtAfter(Instant.now().minus(halfLife.multipliedBy(SEED_HALF_LIVES)));
+        } catch (RuntimeException ex) {
+            log.warn("Could not read the stored trending scores, retrying with the next flush", ex);
+            return;
+        }
+        synchronized (scores) {
+            // brings the scores to the present first, so the seeds are decayed to the same time
+            scores.add(Map.of(), System.currentTimeMillis());
+            for (MovieStats stats : stored) {
+                scores.seed(stats.getId(), stats.getType(), stats.getTrendingScore(), stats.getUpdatedAt().toEpochMilli());
+            }
+            ranking = scores.top(maxLimit);
+        }
+        seeded = true;
+        log.info("Seeded the trending scores of {} movies", stored.size());
+    }
+
+    /* 
+       Writes what is still counted in memory before the application stops.
+    */
+    @PreDestroy
+    public void shutdown() {
+        write(popularityTracker.drainPending());
+    }
+
+    /* 
+       Forgets the scores of deleted movies.
+    */
+    @EventListener
+    public void onMovieChanged(MovieChangedEvent event) {
+        if (event.getKind() == MovieChangedEvent.Kind.DELETED) {
+            synchronized (scores) {
+                event.getIds().forEach(scores::remove);
+            }
+        }
+    }
+
+    private synchronized void write(Map<String, PopularityTracker.Activity> activity) {
+        activity.forEach((id, counts) -> unflushed.merge(id, counts, PopularityTracker.Activity::plus));
+        if (unflushed.isEmpty()) {
+            return;
+        }
+        try {
+            movieStatsRepository.incrementAll(unflushed, halfLife, searchHitWeight);
+            unflushed = new HashMap<>();
+        } catch (RuntimeException ex) {
+            log.warn("Could not write the counters of {} movies, retrying with the next flush", unflushed.size(), ex);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.backend_videostore.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.example.backend_videostore.model.LibraryItem;
+import com.example.backend_videostore.model.Order;
+
+/*
+  UserLibrary holds the movies one user may watch, in two parallel arrays:
+  - movieIds: sorted, so a lookup is a binary search
+  - expiresAt: end of the rental in epoch milliseconds, or OWNED for a purchase
+
+  Two arrays take a fraction of the memory of a map of objects, which matters when the
+  libraries of many users are kept in memory. The arrays are never modified in place:
+  writers (synchronized) build new ones and publish them through a volatile field, so
+  lookups never lock and never see a half-updated library.
+*/
+final class UserLibrary {
+
+    /* expiresAt value of a purchased movie */
+    static final long OWNED = Long.MAX_VALUE;
+
+    private record Entries(String[] movieIds, long[] expiresAt) {
+    }
+
+    private volatile Entries entries = new Entries(new String[0], new long[0]);
+
+    /* Orders created up to this time (epoch millis) are known to be in the library */
+    private volatile long syncedAt;
+
+    long syncedAt() {
+        return syncedAt;
+    }
+
+    /* Records that every order created up to "syncedAtMillis" has been added; never moves back */
+    synchronized void markSynced(long syncedAtMillis) {
+        syncedAt = Math.max(syncedAt, syncedAtMillis);
+    }
+
+    /* 
+       Returns when the user's right to watch a movie ends (OWNED for a purchase),
+       or -1 if the user has no active rental or purchase of it.
+    */
+    long expiresAt(String movieId, long nowMillis) {
+        Entries current = entries;
+        int index = Arrays.binarySearch(current.movieIds(), movieId);
+        if (index < 0 || current.expiresAt()[index] <= nowMillis) {
+            return -1;
+        }
+        return current.expiresAt()[index];
+    }
+
+    /* 
+       Adds a rental or purchase. A movie already in the library keeps the later expiry
+       (renting an owned movie changes nothing, buying a rented one makes it owned).
+    */
+    synchronized void add(String movieId, long expiresAtMillis) {
+        Entries current = entries;
+        int index = Arrays.binarySearch(current.movieIds(), movieId);
+        if (index >= 0) {
+            if (current.expiresAt()[index] < expiresAtMillis) {
+                long[] expiresAt = current.expiresAt().clone();
+                expiresAt[index] = expiresAtMillis;
+                entries = new Entries(current.movieIds(), expiresAt);
+            }
+            return;
+        }
+
+        int insertAt = -index - 1;
+        int size = current.movieIds().length;
+        String[] movieIds = new String[size + 1];
+        long[] expiresAt = new long[size + 1];
+        System.arraycopy(current.movieIds(), 0, movieIds, 0, insertAt);
+        System.arraycopy(current.expiresAt(), 0, expiresAt, 0, insertAt);
+        movieIds[insertAt] = movieId;
+        expiresAt[insertAt] = expiresAtMillis;
+        System.arraycopy(current.movieIds(), insertAt, movieIds, insertAt + 1, size - insertAt);
+        System.arraycopy(current.expiresAt(), insertAt, expiresAt, insertAt + 1, size - insertAt);
+        entries = new Entries(movieIds, expiresAt);
+    }
+
+    /* 
+       Removes a rental that has ended, unless it was extended since (another rental or a purchase).
+    */
+    synchronized void removeExpired(String movieId, long nowMillis) {
+        Entries current = entries;
+        int index = Arrays.binarySearch(current.movieIds(), movieId);
+        if (index < 0 || current.expiresAt()[index] > nowMillis) {
+            return;
+        }
+
+        int size = current.movieIds().length;
+        String[] movieIds = new String[size - 1];
+        long[] expiresAt = new long[size - 1];
+        System.arraycopy(current.movieIds(), 0, movieIds, 0, index);
+        System.arraycopy(current.expiresAt(), 0, expiresAt, 0, index);
+        System.arraycopy(current.movieIds(), index + 1, movieIds, index, size - index - 1);
+        System.arraycopy(current.expiresAt(), index + 1, expiresAt, index, size - index - 1);
+        entries = new Entries(movieIds, expiresAt);
+    }
+
+    /* 
+       Returns the active rentals and purchases, ordered by movie ID.
+    */
+    List<LibraryItem> items(long nowMillis) {
+        Entries current = entries;
+        List<LibraryItem> items = new ArrayList<>(current.movieIds().length);
+        for (int i = 0; i < current.movieIds().length; i++) {
+            items.add(item(current.movieIds()[i], current.expiresAt()[i], nowMillis));
+        }
+        items.removeIf(item -> item == null);
+        return items;
+    }
+
+    /* 
+       Converts one entry to a LibraryItem, or null if it has expired.
+    */
+    static LibraryItem item(String movieId, long expiresAtMillis, long nowMillis) {
+        if (expiresAtMillis <= nowMillis) {
+            return null;
+        }
+        if (expiresAtMillis == OWNED) {
+            return new LibraryItem(movieId, Order.Kind.PURCHASE, null);
+        }
+        return new LibraryItem(movieId, Order.Kind.RENTAL, Instant.ofEpochMilli(expiresAtMillis));
+    }
+}
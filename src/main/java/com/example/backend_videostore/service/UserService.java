@@ -1,9 +1,11 @@
 package com.example.backend_videostore.service;
 
-import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import com.example.backend_videostore.model.User;
@@ -16,6 +18,13 @@ import com.example.backend_videostore.repository.UserRepository;
   - Finding users by email
 
   It interacts with the UserRepository to perform database operations.
+
+  Password hashing and verification (BCrypt) run on the dedicated passwordHashingExecutor
+  (see PasswordConfig), so these methods return CompletableFutures. When the executor is
+  saturated the futures complete with RejectedExecutionException instead of queueing without limit.
+  The database calls (the lookup before a login, the writes after hashing) run on userStoreExecutor,
+  so the hashing threads only ever hash and the calling thread never blocks, whether it is a
+  Tomcat thread or, under the reactive profile, an event-loop thread.
 */
 @Service
 public class UserService {
@@ -25,28 +34,73 @@ public class UserService {
     private UserRepository userRepository;
 
     /* BCrypt encoder used to hash and verify passwords securely */
-    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    /* Bounded executor that runs all BCrypt work */
+    @Autowired
+    @Qualifier("passwordHashingExecutor")
+    private Executor passwordHashingExecutor;
+
+    /* Executor for the user lookups and writes around the hashing */
+    @Autowired
+    @Qualifier("userStoreExecutor")
+    private Executor userStoreExecutor;
 
     /* 
        Registers a new user:
-       - Hashes the plain-text password using BCrypt
-       - Saves the user to the database
-       - Returns the saved User object
+       - Hashes the plain-text password using BCrypt (on the hashing executor)
+       - Saves the user to the database (on the write executor)
+       - Completes with the saved User object, or with DuplicateKeyException when the email
+         is already registered (unique index on "email")
     */
-    public User register(User user) {
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
-        return userRepository.save(user);
+    public CompletableFuture<User> register(User user) {
+        return CompletableFuture
+                .supplyAsync(() -> passwordEncoder.encode(user.getPassword()), passwordHashingExecutor)
+                .thenApplyAsync(hash -> {
+                    user.setPassword(hash);
+                    return userRepository.save(user);
+                }, userStoreExecutor);
     }
 
     /* 
        Verifies user login credentials:
-       - Looks up user by email
-       - If found, compares the raw password with the stored hashed password
-       - Returns true if match, otherwise false
+       - Looks up user by email (on the store executor)
+       - If found, compares the raw password with the stored hashed password (on the hashing executor)
+       - If the stored hash was made with an outdated cost, re-hashes the password with the
+         current cost and saves it (on the write executor), so hashes are upgraded transparently
+         as users log in
+       - Completes with true if the credentials match, otherwise false
     */
-    public boolean login(String email, String rawPassword) {
-        Optional<User> optionalUser = userRepository.findByEmail(email);
-        return optionalUser.isPresent() && passwordEncoder.matches(rawPassword, optionalUser.get().getPassword());
+    public CompletableFuture<Boolean> login(String email, String rawPassword) {
+        if (email == null || rawPassword == null) {
+            return CompletableFuture.completedFuture(false);
+        }
+
+        return CompletableFuture
+                .supplyAsync(() -> userRepository.findByEmail(email), userStoreExecutor)
+                .thenCompose(optionalUser -> optionalUser
+                        .map(user -> verify(user, rawPassword))
+                        .orElseGet(() -> CompletableFuture.completedFuture(false)));
+    }
+
+    /* Checks the password of a found user on the hashing executor, then saves an upgraded hash */
+    private CompletableFuture<Boolean> verify(User user, String rawPassword) {
+        String storedHash = user.getPassword();
+        return CompletableFuture.supplyAsync(() -> {
+            if (!passwordEncoder.matches(rawPassword, storedHash)) {
+                return false;
+            }
+            if (passwordEncoder.upgradeEncoding(storedHash)) {
+                user.setPassword(passwordEncoder.encode(rawPassword));
+            }
+            return true;
+        }, passwordHashingExecutor).thenCompose(valid -> valid && !storedHash.equals(user.getPassword())
+                ? CompletableFuture.supplyAsync(() -> {
+                    userRepository.save(user);
+                    return true;
+                }, userStoreExecutor)
+                : CompletableFuture.completedFuture(valid));
     }
 
     /* 
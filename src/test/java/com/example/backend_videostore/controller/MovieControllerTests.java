@@ -0,0 +1,206 @@
+package com.example.backend_videostore.controller;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.startsWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.backend_videostore.cache.EncodedListing;
+import com.example.backend_videostore.cache.ListingResponseCache;
+import com.example.backend_videostore.config.SecurityConfig;
+import com.example.backend_videostore.model.Movie;
+import com.example.backend_videostore.model.MoviePage;
+import com.example.backend_videostore.repository.MovieRepository;
+import com.example.backend_videostore.search.RelatedTitles;
+import com.example.backend_videostore.security.JwtUtil;
+import com.example.backend_videostore.service.CatalogNotReadyException;
+import com.example.backend_videostore.service.CatalogVersion;
+import com.example.backend_videostore.service.MovieBulkService;
+import com.example.backend_videostore.service.MovieService;
+import com.example.backend_videostore.service.PopularityTracker;
+import com.example.backend_videostore.service.TrendingTitles;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@WebMvcTest(MovieController.class)
+@Import({SecurityConfig.class, JwtUtil.class, SimpleMeterRegistry.class, MovieBulkService.class})
+class MovieControllerTests {
+
+	private static final String ETAG = "\"c-1\"";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	@MockitoBean
+	private MovieService movieService;
+
+	@MockitoBean
+	private MovieRepository movieRepository;
+
+	@MockitoBean
+	private PopularityTracker popularityTracker;
+
+	@MockitoBean
+	private TrendingTitles trendingTitles;
+
+	@MockitoBean
+	private RelatedTitles relatedTitles;
+
+	@MockitoBean
+	private CatalogVersion catalogVersion;
+
+	@MockitoBean
+	private ListingResponseCache listingResponseCache;
+
+	private String bearer() {
+		return "Bearer " + jwtUtil.generateToken("admin@example.com");
+	}
+
+	private static Movie movie(String id, long version) {
+		return new Movie(id, "Alien", "Description", 2.0, 10.0, "https://example.com/alien.jpg", "movie", version);
+	}
+
+	@Test
+	void answersNotModifiedWhileTheCatalogIsUnchanged() throws Exception {
+		when(catalogVersion.etag()).thenReturn(ETAG);
+		when(listingResponseCache.get(any(), eq(ETAG)))
+				.thenReturn(new EncodedListing(ETAG, "[]".getBytes(StandardCharsets.UTF_8), null, null));
+
+		mockMvc.perform(get("/api/movies"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, ETAG))
+				.andExpect(content().json("[]"));
+		mockMvc.perform(get("/api/movies").header(HttpHeaders.IF_NONE_MATCH, ETAG))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string(HttpHeaders.ETAG, ETAG));
+		verify(movieService, never()).getMoviesPage(any(), any(), any(), any());
+	}
+
+	@Test
+	void sendsNoETagWhileTheCatalogIsLoading() throws Exception {
+		when(movieService.getMoviesPage(null, null, null, null)).thenReturn(new MoviePage(List.of(), null));
+		when(listingResponseCache.put(any(), isNull(), any()))
+				.thenReturn(new EncodedListing(null, "[]".getBytes(StandardCharsets.UTF_8), null, null));
+
+		mockMvc.perform(get("/api/movies").header(HttpHeaders.IF_NONE_MATCH, ETAG))
+				.andExpect(status().isOk())
+				.andExpect(header().doesNotExist(HttpHeaders.ETAG));
+	}
+
+	@Test
+	void answersServiceUnavailableUntilBrowseIsLoaded() throws Exception {
+		when(movieService.browseMovies(any(), any(), any(), any(), any(), any(), any(), any(), any()))
+				.thenThrow(new CatalogNotReadyException("The catalog is still loading, please retry shortly"));
+
+		mockMvc.perform(get("/api/movies/browse"))
+				.andExpect(status().isServiceUnavailable())
+				.andExpect(header().string(HttpHeaders.RETRY_AFTER, "5"));
+	}
+
+	@Test
+	void requiresAuthenticationToPatch() throws Exception {
+		mockMvc.perform(patch("/api/movies/m1").contentType(MediaType.APPLICATION_JSON).content("{\"rentalPrice\": 2.99}"))
+				.andExpect(status().isForbidden());
+	}
+
+	@Test
+	void patchesWithAMatchingIfMatchAndReturnsTheNewVersion() throws Exception {
+		when(movieService.patchMovie("m1", Map.of("rentalPrice", 2.99), 3L)).thenReturn(movie("m1", 4));
+
+		mockMvc.perform(patch("/api/movies/m1").header(HttpHeaders.AUTHORIZATION, bearer())
+						.header(HttpHeaders.IF_MATCH, "\"3\"")
+						.contentType(MediaType.APPLICATION_JSON).content("{\"rentalPrice\": 2.99}"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
+	}
+
+	@Test
+	void failsThePreconditionForAStaleIfMatch() throws Exception {
+		when(movieService.patchMovie(eq("m1"), any(), eq(2L)))
+				.thenThrow(new OptimisticLockingFailureException("Movie m1 is not at version 2"));
+
+		mockMvc.perform(patch("/api/movies/m1").header(HttpHeaders.AUTHORIZATION, bearer())
+						.header(HttpHeaders.IF_MATCH, "\"2\"")
+						.contentType(MediaType.APPLICATION_JSON).content("{\"rentalPrice\": 2.99}"))
+				.andExpect(status().isPreconditionFailed());
+	}
+
+	@Test
+	void failsThePreconditionForAnIfMatchThatIsNoVersion() throws Exception {
+		mockMvc.perform(patch("/api/movies/m1").header(HttpHeaders.AUTHORIZATION, bearer())
+						.header(HttpHeaders.IF_MATCH, "W/\"abc\"")
+						.contentType(MediaType.APPLICATION_JSON).content("{\"rentalPrice\": 2.99}"))
+				.andExpect(status().isPreconditionFailed());
+		verify(movieService, never()).patchMovie(any(), any(), any());
+	}
+
+	@Test
+	void importsAnNdjsonBodyAndReportsAMistypedItemAsInvalid() throws Exception {
+		when(movieRepository.bulkInsert(anyList())).thenReturn(Map.of());
+		String body = """
+				{"title":"Alien","shortDescription":"d","rentalPrice":2.0,"purchasePrice":10.0,"imageUrl":"u","type":"movie"}
+				{"title":"Heat","shortDescription":"d","rentalPrice":"cheap","purchasePrice":10.0,"imageUrl":"u","type":"movie"}
+				{"title":"Dune","shortDescription":"d","rentalPrice":3.0,"purchasePrice":12.0,"imageUrl":"u","type":"movie"}
+				""";
+
+		mockMvc.perform(post("/api/movies/bulk").header(HttpHeaders.AUTHORIZATION, bearer())
+						.contentType("application/x-ndjson").content(body))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.received").value(3))
+				.andExpect(jsonPath("$.succeeded").value(2))
+				.andExpect(jsonPath("$.items[1].status").value("INVALID"))
+				.andExpect(jsonPath("$.items[1].errors[0]", startsWith("rentalPrice: ")))
+				.andExpect(jsonPath("$.error").doesNotExist());
+	}
+
+	@Test
+	void stopsTheImportAtMalformedJsonAndKeepsTheItemsBefore() throws Exception {
+		when(movieRepository.bulkInsert(anyList())).thenReturn(Map.of());
+		String body = """
+				[{"title":"Alien","shortDescription":"d","rentalPrice":2.0,"purchasePrice":10.0,"imageUrl":"u","type":"movie"},
+				 {"title": }]
+				""";
+
+		mockMvc.perform(post("/api/movies/bulk").header(HttpHeaders.AUTHORIZATION, bearer())
+						.contentType(MediaType.APPLICATION_JSON).content(body))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.succeeded").value(1))
+				.andExpect(jsonPath("$.items[0].status").value("CREATED"))
+				.andExpect(jsonPath("$.error", containsString("Could not read item 1")));
+	}
+
+	@Test
+	void requiresAuthenticationForBulkWrites() throws Exception {
+		mockMvc.perform(post("/api/movies/bulk").contentType(MediaType.APPLICATION_JSON).content("[]"))
+				.andExpect(status().isForbidden());
+	}
+}
@@ -0,0 +1,109 @@
+package com.example.backend_videostore.controller;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+
+import com.example.backend_videostore.config.SecurityConfig;
+import com.example.backend_videostore.model.Order;
+import com.example.backend_videostore.security.JwtUtil;
+import com.example.backend_videostore.service.OrderNotWrittenException;
+import com.example.backend_videostore.service.OrderService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@WebMvcTest(OrderController.class)
+@Import({SecurityConfig.class, JwtUtil.class, SimpleMeterRegistry.class})
+class OrderControllerTests {
+
+	private static final String USER = "someone@example.com";
+
+	private static final String BODY = "{\"movieId\": \"m1\", \"kind\": \"rental\"}";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	@MockitoBean
+	private OrderService orderService;
+
+	/* Sends a checkout with the Idempotency-Key and waits for the asynchronous answer */
+	private ResultActions checkout(String idempotencyKey) throws Exception {
+		MvcResult started = mockMvc.perform(post("/api/orders")
+						.header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtUtil.generateToken(USER))
+						.header("Idempotency-Key", idempotencyKey)
+						.contentType(MediaType.APPLICATION_JSON).content(BODY))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		return mockMvc.perform(asyncDispatch(started));
+	}
+
+	@Test
+	void createsTheOrderOfTheAuthenticatedUser() throws Exception {
+		Instant now = Instant.now();
+		Order order = new Order("o1", USER, "k1", "m1", "Alien", Order.Kind.RENTAL, 2.99, now, now.plusSeconds(3600));
+		when(orderService.checkout(USER, "m1", Order.Kind.RENTAL, "k1")).thenReturn(CompletableFuture.completedFuture(order));
+
+		checkout("k1")
+				.andExpect(status().isCreated())
+				.andExpect(jsonPath("$.id").value("o1"))
+				.andExpect(jsonPath("$.userEmail").value(USER));
+	}
+
+	@Test
+	void answersServiceUnavailableWhenTheOrderCouldNotBeWritten() throws Exception {
+		when(orderService.checkout(eq(USER), eq("m1"), eq(Order.Kind.RENTAL), any()))
+				.thenReturn(CompletableFuture.failedFuture(new OrderNotWrittenException("Orders could not be written")));
+
+		checkout("k1")
+				.andExpect(status().isServiceUnavailable())
+				.andExpect(header().string(HttpHeaders.RETRY_AFTER, "5"));
+	}
+
+	@Test
+	void answersTooManyRequestsWhenTheOrderQueueIsFull() throws Exception {
+		when(orderService.checkout(eq(USER), eq("m1"), eq(Order.Kind.RENTAL), any()))
+				.thenReturn(CompletableFuture.failedFuture(new RejectedExecutionException("Order queue is full")));
+
+		checkout("k1")
+				.andExpect(status().isTooManyRequests())
+				.andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+	}
+
+	@Test
+	void rejectsAnIdempotencyKeyReusedForAnotherOrder() throws Exception {
+		when(orderService.checkout(eq(USER), eq("m1"), eq(Order.Kind.RENTAL), any())).thenReturn(CompletableFuture
+				.failedFuture(new IllegalArgumentException("Idempotency-Key was already used for a different order")));
+
+		checkout("k1").andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void requiresAuthentication() throws Exception {
+		mockMvc.perform(post("/api/orders").contentType(MediaType.APPLICATION_JSON).content(BODY))
+				.andExpect(status().isForbidden());
+	}
+}
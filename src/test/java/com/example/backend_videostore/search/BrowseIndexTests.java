@@ -0,0 +1,77 @@
+package com.example.backend_videostore.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.backend_videostore.model.Movie;
+import com.example.backend_videostore.service.CatalogLoadedEvent;
+import com.example.backend_videostore.service.MovieChangedEvent;
+
+class BrowseIndexTests {
+
+	private BrowseIndex browseIndex;
+
+	@BeforeEach
+	void setUp() {
+		browseIndex = new BrowseIndex();
+		ReflectionTestUtils.setField(browseIndex, "minRebuildInterval", Duration.ofMillis(500));
+		browseIndex.init();
+	}
+
+	@AfterEach
+	void tearDown() {
+		browseIndex.shutdown();
+	}
+
+	private static Movie movie(String id) {
+		return new Movie(id, "Title " + id, "Description", 2.0, 10.0, "https://example.com/" + id + ".jpg", "movie", 0L);
+	}
+
+	private void awaitSize(int size) throws InterruptedException {
+		long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+		while (browseIndex.columns().size() != size && System.nanoTime() < deadline) {
+			Thread.sleep(5);
+		}
+		assertThat(browseIndex.columns().size()).isEqualTo(size);
+	}
+
+	@Test
+	void isReadyOnceTheLoadedCatalogIsBuilt() throws InterruptedException {
+		assertThat(browseIndex.isReady()).isFalse();
+		browseIndex.onMovieChanged(MovieChangedEvent.loaded(List.of(movie("a1"), movie("a2"))));
+		browseIndex.onCatalogLoaded(new CatalogLoadedEvent(2));
+
+		awaitSize(2);
+		long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+		while (!browseIndex.isReady() && System.nanoTime() < deadline) {
+			Thread.sleep(5);
+		}
+		assertThat(browseIndex.isReady()).isTrue();
+	}
+
+	@Test
+	void rebuildsAtOnceAfterAQuietPeriodThenWaitsForTheInterval() throws InterruptedException {
+		browseIndex.onMovieChanged(MovieChangedEvent.saved(List.of(movie("a1"))));
+		awaitSize(1);
+
+		long start = System.nanoTime();
+		browseIndex.onMovieChanged(MovieChangedEvent.saved(List.of(movie("a2"))));
+		browseIndex.onMovieChanged(MovieChangedEvent.saved(List.of(movie("a3"))));
+		browseIndex.onMovieChanged(MovieChangedEvent.deleted(List.of("a1")));
+		assertThat(browseIndex.columns().size()).isEqualTo(1);
+
+		// all three writes join the one rebuild that runs when the interval has passed
+		awaitSize(2);
+		assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(400));
+		assertThat(browseIndex.columns().query(new CatalogColumns.Query(Set.of(), CatalogColumns.PriceRange.ANY,
+				CatalogColumns.PriceRange.ANY, null, null, 10)).items()).extracting(Movie::getId).containsExactly("a2", "a3");
+	}
+}
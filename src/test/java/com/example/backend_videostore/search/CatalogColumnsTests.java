@@ -0,0 +1,131 @@
+package com.example.backend_videostore.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.backend_videostore.model.Movie;
+
+class CatalogColumnsTests {
+
+	private static Movie movie(String id, String title, Double rental, Double purchase, String type) {
+		return new Movie(id, title, "Description", rental, purchase, "https://example.com/" + id + ".jpg", type, 0L);
+	}
+
+	private static final CatalogColumns COLUMNS = CatalogColumns.build(List.of(
+			movie("a1", "Matrix", 3.0, 10.0, "movie"),
+			movie("a2", "alien", 2.0, 12.0, "movie"),
+			movie("a3", "Dark", 1.0, 20.0, "tvshow"),
+			movie("a4", "Blade Runner", 2.0, 8.0, "movie"),
+			movie("a5", "Lost", 4.0, 30.0, "tvshow"),
+			movie("a6", "No price", null, null, "movie")));
+
+	private static CatalogColumns.Query query(Set<String> types, CatalogColumns.PriceRange rental, String sort, String after, int limit) {
+		return new CatalogColumns.Query(types, rental, CatalogColumns.PriceRange.ANY, sort, after, limit);
+	}
+
+	private static List<String> ids(CatalogColumns.Result result) {
+		return result.items().stream().map(Movie::getId).toList();
+	}
+
+	@Test
+	void listsEverythingInIdOrderByDefault() {
+		CatalogColumns.Result result = COLUMNS.query(query(Set.of(), CatalogColumns.PriceRange.ANY, null, null, 10));
+
+		assertThat(ids(result)).containsExactly("a1", "a2", "a3", "a4", "a5", "a6");
+		assertThat(result.nextCursor()).isNull();
+		assertThat(result.total()).isEqualTo(6);
+		assertThat(result.facets()).containsExactly(Map.entry("movie", 4L), Map.entry("tvshow", 2L));
+	}
+
+	@Test
+	void filtersByPriceRangeAndSortsByPrice() {
+		CatalogColumns.Result result = COLUMNS.query(query(Set.of(),
+				new CatalogColumns.PriceRange(2.0, 3.0), "rentalPrice", null, 10));
+
+		assertThat(ids(result)).containsExactly("a2", "a4", "a1");
+		assertThat(result.total()).isEqualTo(3);
+		assertThat(result.facets()).containsExactly(Map.entry("movie", 3L), Map.entry("tvshow", 0L));
+	}
+
+	@Test
+	void facetsIgnoreTheSelectedTypes() {
+		CatalogColumns.Result result = COLUMNS.query(query(Set.of("tvshow"),
+				new CatalogColumns.PriceRange(null, 3.0), "-rentalPrice", null, 10));
+
+		assertThat(ids(result)).containsExactly("a3");
+		assertThat(result.total()).isEqualTo(1);
+		assertThat(result.facets()).containsExactly(Map.entry("movie", 3L), Map.entry("tvshow", 1L));
+	}
+
+	@Test
+	void filtersOnBothPrices() {
+		CatalogColumns.Result result = COLUMNS.query(new CatalogColumns.Query(Set.of(),
+				new CatalogColumns.PriceRange(2.0, null), new CatalogColumns.PriceRange(null, 12.0), "-purchasePrice", null, 10));
+
+		assertThat(ids(result)).containsExactly("a2", "a1", "a4");
+	}
+
+	@Test
+	void sortsByTitleIgnoringCase() {
+		CatalogColumns.Result result = COLUMNS.query(query(Set.of("movie"), CatalogColumns.PriceRange.ANY, "title", null, 10));
+
+		assertThat(ids(result)).containsExactly("a2", "a4", "a1", "a6");
+	}
+
+	@Test
+	void pagesWithCursorsInEveryOrder() {
+		for (String sort : List.of("id", "-id", "title", "-title", "rentalPrice", "-rentalPrice", "purchasePrice", "-purchasePrice")) {
+			List<String> all = ids(COLUMNS.query(query(Set.of(), CatalogColumns.PriceRange.ANY, sort, null, 10)));
+
+			List<String> paged = new ArrayList<>();
+			String cursor = null;
+			do {
+				CatalogColumns.Result page = COLUMNS.query(query(Set.of(), CatalogColumns.PriceRange.ANY, sort, cursor, 2));
+				paged.addAll(ids(page));
+				cursor = page.nextCursor();
+			} while (cursor != null);
+
+			assertThat(paged).as(sort).isEqualTo(all).hasSize(6);
+		}
+	}
+
+	@Test
+	void pagesTheRowsOfOneTypeInBothDirections() {
+		CatalogColumns.Result first = COLUMNS.query(query(Set.of("movie"), CatalogColumns.PriceRange.ANY, "-id", null, 2));
+		CatalogColumns.Result second = COLUMNS.query(query(Set.of("movie"), CatalogColumns.PriceRange.ANY, "-id", first.nextCursor(), 2));
+
+		assertThat(ids(first)).containsExactly("a6", "a4");
+		assertThat(ids(second)).containsExactly("a2", "a1");
+		assertThat(second.nextCursor()).isNull();
+	}
+
+	@Test
+	void cursorSurvivesTheDeletionOfItsMovie() {
+		CatalogColumns.Result first = COLUMNS.query(query(Set.of(), CatalogColumns.PriceRange.ANY, "rentalPrice", null, 2));
+		CatalogColumns withoutLast = CatalogColumns.build(List.of(
+				movie("a1", "Matrix", 3.0, 10.0, "movie"),
+				movie("a4", "Blade Runner", 2.0, 8.0, "movie"),
+				movie("a5", "Lost", 4.0, 30.0, "tvshow")));
+
+		CatalogColumns.Result next = withoutLast.query(query(Set.of(), CatalogColumns.PriceRange.ANY, "rentalPrice", first.nextCursor(), 2));
+
+		assertThat(ids(first)).containsExactly("a3", "a2");
+		assertThat(ids(next)).containsExactly("a4", "a1");
+	}
+
+	@Test
+	void rejectsInvalidQueries() {
+		assertThatThrownBy(() -> new CatalogColumns.PriceRange(5.0, 1.0)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> query(Set.of(), CatalogColumns.PriceRange.ANY, "imageUrl", null, 10))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> COLUMNS.query(query(Set.of(), CatalogColumns.PriceRange.ANY, "rentalPrice", "not-a-cursor", 10)))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+}
@@ -0,0 +1,82 @@
+package com.example.backend_videostore.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class CoOccurrenceIndexTests {
+
+	@Test
+	void ranksTitlesTakenByTheSameUsers() {
+		CoOccurrenceIndex index = new CoOccurrenceIndex(3, 10, 100, 100);
+		index.record("ann", "alien");
+		index.record("ann", "aliens");
+		index.record("bob", "alien");
+		index.record("bob", "aliens");
+		index.record("bob", "heat");
+		index.record("bob", "alien");
+
+		assertThat(index.related("alien", 10)).containsExactly("aliens", "heat");
+		assertThat(index.related("heat", 10)).containsExactlyInAnyOrder("alien", "aliens");
+		assertThat(index.related("unknown", 10)).isEmpty();
+		assertThat(index.titlesByOrders()).containsExactly("alien", "aliens", "heat");
+	}
+
+	@Test
+	void keepsOnlyTheTopKAndTheRecentHistory() {
+		CoOccurrenceIndex index = new CoOccurrenceIndex(2, 2, 100, 100);
+		for (String user : new String[] {"a", "b", "c"}) {
+			index.record(user, "x");
+			index.record(user, "y");
+		}
+		index.record("a", "z");
+		index.record("b", "z");
+		index.record("c", "w");
+		assertThat(index.related("x", 10)).containsExactly("y", "z");
+
+		// "x" has left the two-title history of "a"
+		index.record("a", "v");
+		assertThat(index.related("v", 10)).containsExactlyInAnyOrder("y", "z");
+	}
+
+	@Test
+	void forgetsDeletedTitlesAndTrimsCounters() {
+		CoOccurrenceIndex index = new CoOccurrenceIndex(2, 10, 2, 100);
+		index.record("a", "x");
+		index.record("a", "y");
+		index.record("a", "z");
+		index.record("a", "w");
+		index.record("a", "v");
+		index.record("b", "x");
+		index.record("b", "y");
+
+		index.remove("y");
+		assertThat(index.related("x", 10)).doesNotContain("y");
+		assertThat(index.compact()).isEqualTo(8);
+		assertThat(index.related("x", 10)).hasSize(2).doesNotContain("y");
+	}
+
+	@Test
+	void freesTheNumbersOfDeletedTitlesOnCompaction() {
+		CoOccurrenceIndex index = new CoOccurrenceIndex(3, 10, 100, 100);
+		index.record("a", "x");
+		index.record("a", "y");
+		index.record("b", "y");
+		index.record("b", "z");
+
+		index.remove("y");
+		assertThat(index.size()).isEqualTo(2);
+		index.compact();
+
+		// "w" takes the number "y" had; "a" and "b" no longer remember "y"
+		index.record("a", "w");
+		assertThat(index.related("w", 10)).containsExactly("x");
+		assertThat(index.related("x", 10)).containsExactly("w");
+		assertThat(index.related("z", 10)).isEmpty();
+
+		// a title created again under a deleted ID starts from nothing
+		index.record("b", "y");
+		assertThat(index.related("y", 10)).containsExactly("z");
+		assertThat(index.titlesByOrders()).containsExactlyInAnyOrder("x", "z", "w", "y");
+	}
+}
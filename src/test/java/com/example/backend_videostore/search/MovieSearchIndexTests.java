@@ -0,0 +1,76 @@
+package com.example.backend_videostore.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.backend_videostore.model.Movie;
+import com.example.backend_videostore.service.CatalogLoadedEvent;
+import com.example.backend_videostore.service.MovieChangedEvent;
+
+class MovieSearchIndexTests {
+
+	private MovieSearchIndex index;
+
+	@BeforeEach
+	void setUp() {
+		index = new MovieSearchIndex();
+		index.onMovieChanged(MovieChangedEvent.loaded(List.of(
+				movie("1", "The Matrix", "A hacker learns the truth about reality"),
+				movie("2", "Matilda", "A girl with telekinetic powers"),
+				movie("3", "Amélie", "A shy waitress in Paris changes lives"),
+				movie("4", "Inception", "A thief enters dreams to plant an idea about the matrix"))));
+		index.onCatalogLoaded(new CatalogLoadedEvent(4));
+	}
+
+	@Test
+	void matchesWordPrefixesAndRanksTitleMatchesFirst() {
+		assertThat(ids(index.search("matr", 10))).containsExactly("1", "4");
+		assertThat(ids(index.search("mat", 10))).containsExactly("2", "1", "4");
+	}
+
+	@Test
+	void requiresEveryWordAndIgnoresAccentsAndCase() {
+		assertThat(ids(index.search("AMELIE paris", 10))).containsExactly("3");
+		assertThat(ids(index.search("matrix paris", 10))).isEmpty();
+	}
+
+	@Test
+	void appliesLimit() {
+		assertThat(index.search("a", 2)).hasSize(2);
+	}
+
+	@Test
+	void keepsTheBestMatchesInRankingOrderWhateverTheLimit() {
+		List<String> all = ids(index.search("a", 10));
+		for (int limit = 1; limit <= all.size(); limit++) {
+			assertThat(ids(index.search("a", limit))).containsExactlyElementsOf(all.subList(0, limit));
+		}
+	}
+
+	@Test
+	void followsUpdatesAndDeletes() {
+		index.onMovieChanged(MovieChangedEvent.saved(List.of(movie("2", "Dune", "Spice and sandworms"))));
+		assertThat(ids(index.search("matilda", 10))).isEmpty();
+		assertThat(ids(index.search("dune", 10))).containsExactly("2");
+
+		index.onMovieChanged(MovieChangedEvent.deleted(List.of("2")));
+		assertThat(ids(index.search("dune", 10))).isEmpty();
+		assertThat(index.size()).isEqualTo(3);
+	}
+
+	private static List<String> ids(List<Movie> movies) {
+		return movies.stream().map(Movie::getId).toList();
+	}
+
+	private static Movie movie(String id, String title, String description) {
+		Movie movie = new Movie();
+		movie.setId(id);
+		movie.setTitle(title);
+		movie.setShortDescription(description);
+		return movie;
+	}
+}
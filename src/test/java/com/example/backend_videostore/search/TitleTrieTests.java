@@ -0,0 +1,57 @@
+package com.example.backend_videostore.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TitleTrieTests {
+
+	private TitleTrie trie;
+
+	@BeforeEach
+	void setUp() {
+		trie = new TitleTrie(3);
+		trie.put("1", "the matrix", 5);
+		trie.put("2", "matilda", 1);
+		trie.put("3", "the dark knight", 9);
+		trie.put("4", "new york new york", 0);
+	}
+
+	@Test
+	void completesAnyWordOfTheTitleByPopularity() {
+		assertThat(trie.complete("mat", 10)).containsExactly("1", "2");
+		assertThat(trie.complete("the", 10)).containsExactly("3", "1");
+		assertThat(trie.complete("kn", 10)).containsExactly("3");
+		assertThat(trie.complete("x", 10)).isEmpty();
+	}
+
+	@Test
+	void listsEachMovieOnceAndKeepsOnlyTopK() {
+		assertThat(trie.complete("new york", 10)).containsExactly("4");
+		trie.put("5", "the thing", 3);
+		trie.put("6", "the others", 7);
+		assertThat(trie.complete("the", 10)).containsExactly("3", "6", "1");
+		assertThat(trie.complete("the", 2)).containsExactly("3", "6");
+	}
+
+	@Test
+	void reRanksOnScoreChanges() {
+		trie.updateScores(Map.of("2", 10L));
+		assertThat(trie.complete("mat", 10)).containsExactly("2", "1");
+	}
+
+	@Test
+	void removesAndReplacesTitles() {
+		trie.remove("1");
+		assertThat(trie.complete("mat", 10)).containsExactly("2");
+		assertThat(trie.complete("the", 10)).containsExactly("3");
+
+		trie.put("2", "dune", 1);
+		assertThat(trie.complete("mat", 10)).isEmpty();
+		assertThat(trie.complete("du", 10)).containsExactly("2");
+		assertThat(trie.size()).isEqualTo(3);
+	}
+}
@@ -0,0 +1,91 @@
+package com.example.backend_videostore.security;
+
+import static org.hamcrest.Matchers.either;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import com.example.backend_videostore.cache.ListingResponseCache;
+import com.example.backend_videostore.config.SecurityConfig;
+import com.example.backend_videostore.controller.MovieController;
+import com.example.backend_videostore.repository.MovieRepository;
+import com.example.backend_videostore.search.RelatedTitles;
+import com.example.backend_videostore.service.CatalogVersion;
+import com.example.backend_videostore.service.MovieBulkService;
+import com.example.backend_videostore.service.MovieService;
+import com.example.backend_videostore.service.PopularityTracker;
+import com.example.backend_videostore.service.TrendingTitles;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@WebMvcTest(MovieController.class)
+@Import({SecurityConfig.class, JwtUtil.class, SimpleMeterRegistry.class, MovieBulkService.class})
+@TestPropertySource(properties = "security.rate-limit.search=2/1m")
+class RateLimitFilterTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@MockitoBean
+	private MovieService movieService;
+
+	@MockitoBean
+	private MovieRepository movieRepository;
+
+	@MockitoBean
+	private PopularityTracker popularityTracker;
+
+	@MockitoBean
+	private TrendingTitles trendingTitles;
+
+	@MockitoBean
+	private RelatedTitles relatedTitles;
+
+	@MockitoBean
+	private CatalogVersion catalogVersion;
+
+	@MockitoBean
+	private ListingResponseCache listingResponseCache;
+
+	private static RequestPostProcessor from(String address) {
+		return request -> {
+			request.setRemoteAddr(address);
+			return request;
+		};
+	}
+
+	@Test
+	void refusesAClientOverItsBudgetWithRetryAfter() throws Exception {
+		when(movieService.searchByTitle(any(), anyInt())).thenReturn(List.of());
+
+		mockMvc.perform(get("/api/movies/search").param("title", "alien").with(from("10.0.0.1")))
+				.andExpect(status().isOk());
+		mockMvc.perform(get("/api/movies/search").param("title", "alien").with(from("10.0.0.1")))
+				.andExpect(status().isOk());
+
+		// 2 per minute: the next token is about 30 seconds away
+		mockMvc.perform(get("/api/movies/search").param("title", "alien").with(from("10.0.0.1")))
+				.andExpect(status().isTooManyRequests())
+				.andExpect(header().string(HttpHeaders.RETRY_AFTER, either(is("30")).or(is("29"))));
+
+		// other clients have buckets of their own
+		mockMvc.perform(get("/api/movies/search").param("title", "alien").with(from("10.0.0.2")))
+				.andExpect(status().isOk());
+	}
+}
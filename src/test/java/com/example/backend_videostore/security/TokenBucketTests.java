@@ -0,0 +1,45 @@
+package com.example.backend_videostore.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class TokenBucketTests {
+
+	private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+	@Test
+	void allowsABurstThenOneRequestPerInterval() {
+		RateLimitFilter.Policy policy = RateLimitFilter.Policy.parse("login", "3/3s");
+		TokenBucket bucket = new TokenBucket(0);
+
+		for (int i = 0; i < 3; i++) {
+			assertThat(bucket.tryAcquire(0, policy.capacity(), policy.intervalNanos())).isZero();
+		}
+		assertThat(bucket.tryAcquire(0, policy.capacity(), policy.intervalNanos())).isEqualTo(SECOND);
+		assertThat(bucket.tryAcquire(SECOND / 2, policy.capacity(), policy.intervalNanos())).isEqualTo(SECOND / 2);
+		assertThat(bucket.tryAcquire(SECOND, policy.capacity(), policy.intervalNanos())).isZero();
+		assertThat(bucket.tryAcquire(SECOND, policy.capacity(), policy.intervalNanos())).isPositive();
+	}
+
+	@Test
+	void refillsUpToCapacityOnly() {
+		TokenBucket bucket = new TokenBucket(0);
+		long allowed = 0;
+		for (int i = 0; i < 10; i++) {
+			if (bucket.tryAcquire(60 * SECOND, 2, SECOND) == 0) {
+				allowed++;
+			}
+		}
+		assertThat(allowed).isEqualTo(2);
+	}
+
+	@Test
+	void rejectsPoliciesWithoutABudget() {
+		assertThatThrownBy(() -> RateLimitFilter.Policy.parse("api", "0/1s")).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> RateLimitFilter.Policy.parse("api", "10")).isInstanceOf(IllegalArgumentException.class);
+	}
+}
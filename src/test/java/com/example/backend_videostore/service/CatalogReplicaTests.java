@@ -0,0 +1,66 @@
+package com.example.backend_videostore.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.backend_videostore.model.Movie;
+
+class CatalogReplicaTests {
+
+	private CatalogReplica replica;
+
+	@BeforeEach
+	void setUp() {
+		replica = new CatalogReplica();
+		replica.onMovieChanged(MovieChangedEvent.loaded(List.of(
+				movie("0003", "Heat", "movie", 1L),
+				movie("0001", "Alien", "movie", 0L),
+				movie("0002", "Lost", "tvshow", 0L))));
+	}
+
+	@Test
+	void servesKeysetPagesByIdAndType() {
+		assertThat(replica.findPage(null, null, 2, null)).extracting(Movie::getId).containsExactly("0001", "0002");
+		assertThat(replica.findPage(null, "0002", 2, null)).extracting(Movie::getId).containsExactly("0003");
+		assertThat(replica.findPage("movie", "0001", 10, null)).extracting(Movie::getId).containsExactly("0003");
+		assertThat(replica.findPage("documentary", null, 10, null)).isEmpty();
+
+		Movie projected = replica.findPage(null, null, 1, Set.of("title")).get(0);
+		assertThat(projected.getTitle()).isEqualTo("Alien");
+		assertThat(projected.getType()).isNull();
+	}
+
+	@Test
+	void neverGoesBackToAnOlderVersion() {
+		replica.onMovieChanged(MovieChangedEvent.saved(List.of(movie("0003", "Heat (old)", "movie", 0L))));
+		assertThat(replica.findById("0003")).get().extracting(Movie::getTitle).isEqualTo("Heat");
+
+		replica.onMovieChanged(MovieChangedEvent.saved(List.of(movie("0003", "Heat", "tvshow", 2L))));
+		assertThat(replica.findAll("movie")).extracting(Movie::getId).containsExactly("0001");
+		assertThat(replica.findAll("tvshow")).extracting(Movie::getId).containsExactly("0002", "0003");
+	}
+
+	@Test
+	void recordsWritesMadeDuringAResync() {
+		replica.beginResync();
+		replica.onMovieChanged(MovieChangedEvent.deleted(List.of("0002")));
+		replica.onMovieChanged(MovieChangedEvent.loaded(List.of(movie("0004", "Ran", "movie", 0L))));
+
+		assertThat(replica.endResync()).containsExactly("0002");
+		assertThat(replica.ids()).containsExactlyInAnyOrder("0001", "0003", "0004");
+	}
+
+	private static Movie movie(String id, String title, String type, Long version) {
+		Movie movie = new Movie();
+		movie.setId(id);
+		movie.setTitle(title);
+		movie.setType(type);
+		movie.setVersion(version);
+		return movie;
+	}
+}
@@ -0,0 +1,63 @@
+package com.example.backend_videostore.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.backend_videostore.model.Movie;
+
+class CatalogVersionTests {
+
+	private static Movie movie(String id, long version) {
+		return new Movie(id, "Title " + id, "Description", 2.0, 10.0, "https://example.com/" + id + ".jpg", "movie", version);
+	}
+
+	private static CatalogVersion loaded(Movie... movies) {
+		CatalogVersion version = new CatalogVersion();
+		version.onMovieChanged(MovieChangedEvent.loaded(List.of(movies)));
+		version.onCatalogLoaded(new CatalogLoadedEvent(movies.length));
+		return version;
+	}
+
+	@Test
+	void hasNoETagUntilTheCatalogIsLoaded() {
+		CatalogVersion version = new CatalogVersion();
+		version.onMovieChanged(MovieChangedEvent.loaded(List.of(movie("a", 0))));
+		assertThat(version.etag()).isNull();
+
+		version.onCatalogLoaded(new CatalogLoadedEvent(1));
+		assertThat(version.etag()).startsWith("\"c-");
+	}
+
+	@Test
+	void givesTheSameETagOnEveryInstanceHoldingTheSameCatalog() {
+		// this instance made the writes; the other one started later and loaded the result
+		CatalogVersion writer = loaded(movie("a", 0), movie("b", 0));
+		writer.onMovieChanged(MovieChangedEvent.saved(List.of(movie("a", 1))));
+		writer.onMovieChanged(MovieChangedEvent.saved(List.of(movie("c", 0))));
+		writer.onMovieChanged(MovieChangedEvent.deleted(List.of("b")));
+
+		CatalogVersion restarted = loaded(movie("c", 0), movie("a", 1));
+
+		assertThat(writer.etag()).isEqualTo(restarted.etag());
+		assertThat(writer.current()).isEqualTo(3);
+		assertThat(restarted.current()).isZero();
+	}
+
+	@Test
+	void changesWithEveryWriteButNotWithAChangeSeenTwice() {
+		CatalogVersion version = loaded(movie("a", 0));
+		String before = version.etag();
+
+		version.onMovieChanged(MovieChangedEvent.saved(List.of(movie("a", 1))));
+		String after = version.etag();
+		assertThat(after).isNotEqualTo(before);
+
+		// the same change again (from the change stream), then an older one arriving late
+		version.onMovieChanged(MovieChangedEvent.saved(List.of(movie("a", 1))));
+		version.onMovieChanged(MovieChangedEvent.saved(List.of(movie("a", 0))));
+		assertThat(version.etag()).isEqualTo(after);
+	}
+}
@@ -0,0 +1,93 @@
+package com.example.backend_videostore.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.backend_videostore.model.LibraryItem;
+import com.example.backend_videostore.model.Order;
+import com.example.backend_videostore.repository.OrderRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class LibraryServiceTests {
+
+	private static final String USER = "someone@example.com";
+
+	private OrderRepository orderRepository;
+
+	private LibraryService libraryService;
+
+	@BeforeEach
+	void setUp() {
+		orderRepository = mock(OrderRepository.class);
+		libraryService = new LibraryService();
+		ReflectionTestUtils.setField(libraryService, "orderRepository", orderRepository);
+		ReflectionTestUtils.setField(libraryService, "meterRegistry", new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(libraryService, "maxUsers", 100L);
+		ReflectionTestUtils.setField(libraryService, "idleTtl", Duration.ofMinutes(30));
+		ReflectionTestUtils.setField(libraryService, "sweepInterval", Duration.ofMinutes(1));
+		libraryService.init();
+	}
+
+	private static Order rental(String id, String movieId) {
+		Instant now = Instant.now();
+		return new Order(id, USER, "key-" + id, movieId, "Title", Order.Kind.RENTAL, 2.99, now, now.plus(Duration.ofHours(48)));
+	}
+
+	@Test
+	void findsARentalPlacedThroughAnotherInstance() {
+		when(orderRepository.findActiveByUserEmail(eq(USER), any())).thenReturn(List.of());
+		assertThat(libraryService.getLibrary(USER)).isEmpty();
+
+		// written by another instance: no OrderPlacedEvent here, only the document in MongoDB
+		when(orderRepository.findByUserEmailAndCreatedAtAfter(eq(USER), any())).thenReturn(List.of(rental("o1", "m1")));
+
+		assertThat(libraryService.getEntitlement(USER, "m1")).map(LibraryItem::getKind).contains(Order.Kind.RENTAL);
+		assertThat(libraryService.getLibrary(USER)).extracting(LibraryItem::getMovieId).containsExactly("m1");
+	}
+
+	@Test
+	void answersOwnedMoviesWithoutQueryingAgain() {
+		when(orderRepository.findActiveByUserEmail(eq(USER), any())).thenReturn(List.of(rental("o1", "m1")));
+
+		assertThat(libraryService.getEntitlement(USER, "m1")).isPresent();
+		verify(orderRepository, never()).findByUserEmailAndCreatedAtAfter(any(), any());
+	}
+
+	@Test
+	void addsAnOrderWrittenWhileTheLibraryLoadsWithoutWaitingForTheLoad() throws Exception {
+		CountDownLatch loadStarted = new CountDownLatch(1);
+		CountDownLatch releaseLoad = new CountDownLatch(1);
+		when(orderRepository.findActiveByUserEmail(eq(USER), any())).thenAnswer(invocation -> {
+			loadStarted.countDown();
+			releaseLoad.await(5, TimeUnit.SECONDS);
+			return List.of();
+		});
+		when(orderRepository.findByUserEmailAndCreatedAtAfter(eq(USER), any())).thenReturn(List.of());
+
+		CompletableFuture<List<LibraryItem>> library = CompletableFuture.supplyAsync(() -> libraryService.getLibrary(USER));
+		assertThat(loadStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+		// returns at once although the load is still running
+		libraryService.onOrderPlaced(new OrderPlacedEvent(List.of(rental("o1", "m1"))));
+		releaseLoad.countDown();
+
+		assertThat(library.get(5, TimeUnit.SECONDS)).extracting(LibraryItem::getMovieId).containsExactly("m1");
+	}
+}
@@ -0,0 +1,117 @@
+package com.example.backend_videostore.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.backend_videostore.model.BulkItemResult;
+import com.example.backend_videostore.model.BulkResult;
+import com.example.backend_videostore.model.Movie;
+import com.example.backend_videostore.repository.MovieRepository;
+
+import jakarta.validation.Validation;
+
+class MovieBulkServiceTests {
+
+	private MovieRepository movieRepository;
+
+	private MovieBulkService bulkService;
+
+	@BeforeEach
+	void setUp() {
+		movieRepository = mock(MovieRepository.class);
+		bulkService = new MovieBulkService();
+		ReflectionTestUtils.setField(bulkService, "movieRepository", movieRepository);
+		ReflectionTestUtils.setField(bulkService, "validator", Validation.buildDefaultValidatorFactory().getValidator());
+		ReflectionTestUtils.setField(bulkService, "eventPublisher", mock(ApplicationEventPublisher.class));
+		ReflectionTestUtils.setField(bulkService, "chunkSize", 500);
+	}
+
+	private static Movie movie(String id, String title) {
+		return new Movie(id, title, "Description", 2.0, 10.0, "https://example.com/" + title + ".jpg", "movie", null);
+	}
+
+	/* Iterates over the items, each of which may throw as MovieController's reader does */
+	@SafeVarargs
+	private static <T> Iterator<T> items(Supplier<T>... items) {
+		return new Iterator<>() {
+			private int next;
+
+			@Override
+			public boolean hasNext() {
+				return next < items.length;
+			}
+
+			@Override
+			public T next() {
+				return items[next++].get();
+			}
+		};
+	}
+
+	private static List<BulkItemResult.Status> statuses(BulkResult result) {
+		return result.getItems().stream().map(BulkItemResult::getStatus).toList();
+	}
+
+	@Test
+	void reportsAnItemOfTheWrongShapeAsInvalidAndReadsOn() {
+		when(movieRepository.bulkInsert(anyList())).thenReturn(Map.of());
+
+		BulkResult result = bulkService.importMovies(items(
+				() -> movie(null, "Alien"),
+				() -> {
+					throw new InvalidBulkItemException("rentalPrice: not a valid `Double` value");
+				},
+				() -> movie(null, "Heat")));
+
+		assertThat(result.getReceived()).isEqualTo(3);
+		assertThat(result.getError()).isNull();
+		assertThat(statuses(result)).containsExactly(BulkItemResult.Status.CREATED, BulkItemResult.Status.INVALID,
+				BulkItemResult.Status.CREATED);
+		assertThat(result.getItems().get(1).getErrors()).containsExactly("rentalPrice: not a valid `Double` value");
+	}
+
+	@Test
+	void stopsReadingAtMalformedInputButWritesWhatCameBefore() {
+		when(movieRepository.bulkInsert(anyList())).thenReturn(Map.of());
+
+		BulkResult result = bulkService.importMovies(items(
+				() -> movie(null, "Alien"),
+				() -> {
+					throw new IllegalArgumentException("Unexpected character");
+				},
+				() -> movie(null, "Heat")));
+
+		assertThat(result.getReceived()).isEqualTo(1);
+		assertThat(result.getError()).startsWith("Could not read item 1");
+		assertThat(statuses(result)).containsExactly(BulkItemResult.Status.CREATED);
+	}
+
+	@Test
+	void rejectsAnUpdateThatLeavesOutAnEditableField() {
+		Movie partial = movie("m1", "Alien");
+		partial.setPurchasePrice(null);
+		when(movieRepository.findExistingIds(any())).thenReturn(Set.of("m1"));
+
+		BulkResult result = bulkService.updateMovies(items(() -> partial));
+
+		assertThat(statuses(result)).containsExactly(BulkItemResult.Status.INVALID);
+		assertThat(result.getItems().get(0).getErrors()).containsExactly("Purchase price is required");
+		verify(movieRepository, never()).bulkUpdate(anyList());
+	}
+}
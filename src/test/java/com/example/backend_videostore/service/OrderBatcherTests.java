@@ -0,0 +1,122 @@
+package com.example.backend_videostore.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.backend_videostore.model.Order;
+import com.example.backend_videostore.repository.OrderRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class OrderBatcherTests {
+
+	private OrderRepository orderRepository;
+
+	private OrderBatcher orderBatcher;
+
+	@BeforeEach
+	void setUp() {
+		orderRepository = mock(OrderRepository.class);
+		orderBatcher = new OrderBatcher();
+		ReflectionTestUtils.setField(orderBatcher, "orderRepository", orderRepository);
+		ReflectionTestUtils.setField(orderBatcher, "eventPublisher", mock(ApplicationEventPublisher.class));
+		ReflectionTestUtils.setField(orderBatcher, "meterRegistry", new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(orderBatcher, "maxSize", 500);
+		ReflectionTestUtils.setField(orderBatcher, "maxDelay", Duration.ZERO);
+		ReflectionTestUtils.setField(orderBatcher, "queueCapacity", 100);
+		orderBatcher.start();
+	}
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		orderBatcher.stop();
+	}
+
+	private static Order order(String id, String idempotencyKey) {
+		Instant now = Instant.now();
+		return new Order(id, "someone@example.com", idempotencyKey, "m1", "Alien", Order.Kind.PURCHASE, 9.99, now, null);
+	}
+
+	@Test
+	void writesTheOrdersQueuedDuringAWriteInOneBatch() throws Exception {
+		CountDownLatch firstWriteStarted = new CountDownLatch(1);
+		CountDownLatch releaseFirstWrite = new CountDownLatch(1);
+		List<Integer> batchSizes = new ArrayList<>();
+		when(orderRepository.insertOrders(anyList())).thenAnswer(invocation -> {
+			List<Order> batch = invocation.getArgument(0);
+			batchSizes.add(batch.size());
+			firstWriteStarted.countDown();
+			releaseFirstWrite.await(5, TimeUnit.SECONDS);
+			return Map.of();
+		});
+
+		CompletableFuture<Order> first = orderBatcher.submit(order("o1", "k1"));
+		assertThat(firstWriteStarted.await(5, TimeUnit.SECONDS)).isTrue();
+		List<CompletableFuture<Order>> waiting = List.of(
+				orderBatcher.submit(order("o2", "k2")),
+				orderBatcher.submit(order("o3", "k3")),
+				orderBatcher.submit(order("o4", "k4")));
+		releaseFirstWrite.countDown();
+
+		assertThat(first.get(5, TimeUnit.SECONDS).getId()).isEqualTo("o1");
+		for (CompletableFuture<Order> future : waiting) {
+			future.get(5, TimeUnit.SECONDS);
+		}
+		assertThat(batchSizes).containsExactly(1, 3);
+	}
+
+	@Test
+	void resolvesARetriedCheckoutToTheOrderAlreadyStored() {
+		Order stored = order("o1", "k1");
+		when(orderRepository.insertOrders(anyList())).thenReturn(Map.of(0, OrderRepository.DUPLICATE_KEY));
+		when(orderRepository.findByUserEmailAndIdempotencyKey("someone@example.com", "k1")).thenReturn(Optional.of(stored));
+
+		OrderBatcher.PendingOrder retry = new OrderBatcher.PendingOrder(order("o2", "k1"), new CompletableFuture<>());
+		orderBatcher.write(List.of(retry));
+
+		assertThat(retry.future()).isCompletedWithValue(stored);
+	}
+
+	@Test
+	void failsOnlyTheOrderTheDatabaseRejected() {
+		when(orderRepository.insertOrders(anyList())).thenReturn(Map.of(1, 2));
+
+		OrderBatcher.PendingOrder accepted = new OrderBatcher.PendingOrder(order("o1", "k1"), new CompletableFuture<>());
+		OrderBatcher.PendingOrder rejected = new OrderBatcher.PendingOrder(order("o2", "k2"), new CompletableFuture<>());
+		orderBatcher.write(List.of(accepted, rejected));
+
+		assertThat(accepted.future()).isCompleted().isNotCompletedExceptionally();
+		assertThatThrownBy(() -> rejected.future().get())
+				.isInstanceOf(ExecutionException.class)
+				.hasCauseInstanceOf(OrderNotWrittenException.class);
+	}
+
+	@Test
+	void writesNothingWithoutTheUniqueIndexes() {
+		doThrow(new IllegalStateException("not primary")).when(orderRepository).ensureUniqueIndexes();
+
+		OrderBatcher.PendingOrder pending = new OrderBatcher.PendingOrder(order("o1", "k1"), new CompletableFuture<>());
+		assertThatThrownBy(() -> orderBatcher.write(List.of(pending))).isInstanceOf(OrderNotWrittenException.class);
+	}
+}
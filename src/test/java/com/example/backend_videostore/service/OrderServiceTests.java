@@ -0,0 +1,80 @@
+package com.example.backend_videostore.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.backend_videostore.model.Movie;
+import com.example.backend_videostore.model.Order;
+
+class OrderServiceTests {
+
+	private static final String USER = "someone@example.com";
+
+	private OrderBatcher orderBatcher;
+
+	private OrderService orderService;
+
+	@BeforeEach
+	void setUp() {
+		MovieService movieService = mock(MovieService.class);
+		when(movieService.getMovieById("m1"))
+				.thenReturn(Optional.of(new Movie("m1", "Alien", "Description", 2.99, 9.99, "https://example.com/m1.jpg", "movie", 0L)));
+		orderBatcher = mock(OrderBatcher.class);
+
+		orderService = new OrderService();
+		ReflectionTestUtils.setField(orderService, "movieService", movieService);
+		ReflectionTestUtils.setField(orderService, "orderBatcher", orderBatcher);
+		ReflectionTestUtils.setField(orderService, "rentalPeriod", Duration.ofHours(48));
+		ReflectionTestUtils.setField(orderService, "idempotencyTtl", Duration.ofHours(24));
+		ReflectionTestUtils.setField(orderService, "idempotencyMaxSize", 100L);
+		orderService.init();
+	}
+
+	@Test
+	void writesARetriedCheckoutOnlyOnce() {
+		CompletableFuture<Order> written = new CompletableFuture<>();
+		when(orderBatcher.submit(any())).thenReturn(written);
+
+		CompletableFuture<Order> first = orderService.checkout(USER, "m1", Order.Kind.RENTAL, "k1");
+		CompletableFuture<Order> retry = orderService.checkout(USER, "m1", Order.Kind.RENTAL, "k1");
+
+		assertThat(retry).isSameAs(first);
+		verify(orderBatcher, times(1)).submit(any());
+	}
+
+	@Test
+	void rejectsAKeyReusedForAnotherCheckout() {
+		when(orderBatcher.submit(any())).thenReturn(new CompletableFuture<>());
+		orderService.checkout(USER, "m1", Order.Kind.RENTAL, "k1");
+
+		assertThatThrownBy(() -> orderService.checkout(USER, "m1", Order.Kind.PURCHASE, "k1"))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void writesAgainWhenTheFirstAttemptFailed() {
+		when(orderBatcher.submit(any()))
+				.thenReturn(CompletableFuture.failedFuture(new OrderNotWrittenException("Orders could not be written")))
+				.thenReturn(new CompletableFuture<>());
+
+		CompletableFuture<Order> first = orderService.checkout(USER, "m1", Order.Kind.RENTAL, "k1");
+		assertThat(first).isCompletedExceptionally();
+
+		CompletableFuture<Order> retry = orderService.checkout(USER, "m1", Order.Kind.RENTAL, "k1");
+		assertThat(retry).isNotSameAs(first).isNotDone();
+		verify(orderBatcher, times(2)).submit(any());
+	}
+}
@@ -0,0 +1,103 @@
+package com.example.backend_videostore.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class TrendingScoresTests {
+
+	private static final long HOUR = 3_600_000;
+
+	private static PopularityTracker.Activity views(String type, long views) {
+		return new PopularityTracker.Activity(type, views, 0);
+	}
+
+	@Test
+	void scoresHalveEveryHalfLife() {
+		TrendingScores scores = new TrendingScores(HOUR, 0.5, 0.01);
+		scores.add(Map.of("a", views("movie", 8)), 0);
+		scores.add(Map.of(), 2 * HOUR);
+
+		assertThat(scores.score("a")).isCloseTo(2.0, within(1e-9));
+	}
+
+	@Test
+	void searchHitsCountWithTheirWeight() {
+		TrendingScores scores = new TrendingScores(HOUR, 0.5, 0.01);
+		scores.add(Map.of("a", new PopularityTracker.Activity("movie", 1, 4)), 0);
+
+		assertThat(scores.score("a")).isEqualTo(3.0);
+	}
+
+	@Test
+	void recentActivityOutranksOlderActivity() {
+		TrendingScores scores = new TrendingScores(HOUR, 0.5, 0.01);
+		scores.add(Map.of("old", views("movie", 10)), 0);
+		scores.add(Map.of("new", views("movie", 4)), 3 * HOUR);
+
+		assertThat(scores.top(10).all()).containsExactly("new", "old");
+	}
+
+	@Test
+	void seedsAreDecayedAndDoNotLowerCountedScores() {
+		TrendingScores scores = new TrendingScores(HOUR, 0.5, 0.01);
+		scores.add(Map.of("a", views("movie", 3)), 2 * HOUR);
+		scores.seed("a", "movie", 4, 0);
+		scores.seed("b", "series", 20, HOUR);
+		scores.seed("c", "movie", 0.01, 0);
+
+		assertThat(scores.score("a")).isEqualTo(3.0);
+		assertThat(scores.score("b")).isCloseTo(10.0, within(1e-9));
+		assertThat(scores.size()).isEqualTo(2);
+		assertThat(scores.top(10).of("series")).containsExactly("b");
+	}
+
+	@Test
+	void dropsScoresThatDecayedAway() {
+		TrendingScores scores = new TrendingScores(HOUR, 0.5, 0.01);
+		scores.add(Map.of("a", views("movie", 1)), 0);
+		scores.add(Map.of("b", views("movie", 1)), 10 * HOUR);
+
+		assertThat(scores.size()).isEqualTo(1);
+		assertThat(scores.score("a")).isZero();
+	}
+
+	@Test
+	void ranksTheTopKOverallAndPerType() {
+		TrendingScores scores = new TrendingScores(HOUR, 0.5, 0.01);
+		scores.add(Map.of(
+				"m1", views("movie", 5),
+				"m2", views("movie", 3),
+				"m3", views("movie", 1),
+				"t1", views("tvshow", 4),
+				"t2", views("tvshow", 3)), 0);
+
+		TrendingScores.Ranking ranking = scores.top(2);
+
+		assertThat(ranking.all()).containsExactly("m1", "t1");
+		assertThat(ranking.of("movie")).containsExactly("m1", "m2");
+		assertThat(ranking.of("tvshow")).containsExactly("t1", "t2");
+		assertThat(ranking.of("documentary")).isEmpty();
+	}
+
+	@Test
+	void breaksTiesById() {
+		TrendingScores scores = new TrendingScores(HOUR, 0.5, 0.01);
+		scores.add(Map.of("b", views("movie", 1), "a", views("movie", 1), "c", views("movie", 1)), 0);
+
+		assertThat(scores.top(2).all()).isEqualTo(List.of("a", "b"));
+	}
+
+	@Test
+	void forgetsRemovedTitles() {
+		TrendingScores scores = new TrendingScores(HOUR, 0.5, 0.01);
+		scores.add(Map.of("a", views("movie", 2), "b", views("movie", 1)), 0);
+		scores.remove("a");
+
+		assertThat(scores.top(10).all()).containsExactly("b");
+	}
+}
@@ -0,0 +1,54 @@
+package com.example.backend_videostore.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.backend_videostore.model.Order;
+
+class UserLibraryTests {
+
+	@Test
+	void keepsTheLaterExpiryOfAMovie() {
+		UserLibrary library = new UserLibrary();
+		library.add("b", 2_000);
+		library.add("a", UserLibrary.OWNED);
+		library.add("b", 1_000);
+		library.add("c", 3_000);
+
+		assertThat(library.expiresAt("b", 0)).isEqualTo(2_000);
+		assertThat(library.expiresAt("a", 0)).isEqualTo(UserLibrary.OWNED);
+		assertThat(library.items(0)).extracting(item -> item.getMovieId()).containsExactly("a", "b", "c");
+		assertThat(library.items(0).get(0).getKind()).isEqualTo(Order.Kind.PURCHASE);
+	}
+
+	@Test
+	void rentalsStopCountingAtTheirEndAndAreRemovedUnlessExtended() {
+		UserLibrary library = new UserLibrary();
+		library.add("a", 1_000);
+		library.add("b", 1_000);
+
+		assertThat(library.expiresAt("a", 1_000)).isEqualTo(-1);
+		assertThat(library.items(1_000)).isEmpty();
+
+		library.add("b", UserLibrary.OWNED);
+		library.removeExpired("a", 1_000);
+		library.removeExpired("b", 1_000);
+		assertThat(library.items(0)).extracting(item -> item.getMovieId()).containsExactly("b");
+	}
+
+	@Test
+	void timerWheelReturnsValuesOnceTheirDeadlineHasPassed() {
+		TimerWheel<String> wheel = new TimerWheel<>(10, 4, 0);
+		wheel.schedule("soon", 15);
+		wheel.schedule("next turn", 55);
+		wheel.schedule("late", 5);
+
+		assertThat(wheel.advance(9)).containsExactly("late");
+		assertThat(wheel.advance(14)).isEmpty();
+		assertThat(wheel.advance(20)).containsExactly("soon");
+		assertThat(wheel.advance(50)).isEmpty();
+		assertThat(wheel.advance(1_000)).containsExactly("next turn");
+		assertThat(wheel.size()).isZero();
+	}
+}
@@ -0,0 +1,85 @@
+package com.example.backend_videostore.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.backend_videostore.model.User;
+import com.example.backend_videostore.repository.UserRepository;
+
+class UserServiceTests {
+
+	private static final String EMAIL = "someone@example.com";
+
+	private final PasswordEncoder passwordEncoder = new BCryptPasswordEncoder(4);
+
+	private UserRepository userRepository;
+
+	private UserService userService;
+
+	@BeforeEach
+	void setUp() {
+		userRepository = mock(UserRepository.class);
+		userService = new UserService();
+		ReflectionTestUtils.setField(userService, "userRepository", userRepository);
+		ReflectionTestUtils.setField(userService, "passwordEncoder", passwordEncoder);
+		ReflectionTestUtils.setField(userService, "passwordHashingExecutor", Executors.newSingleThreadExecutor());
+		ReflectionTestUtils.setField(userService, "userStoreExecutor", Executors.newVirtualThreadPerTaskExecutor());
+	}
+
+	private User user() {
+		User user = new User();
+		user.setEmail(EMAIL);
+		user.setPassword(passwordEncoder.encode("secret"));
+		return user;
+	}
+
+	@Test
+	void looksTheUserUpOffTheCallingThread() throws Exception {
+		AtomicReference<Thread> lookupThread = new AtomicReference<>();
+		when(userRepository.findByEmail(EMAIL)).thenAnswer(invocation -> {
+			lookupThread.set(Thread.currentThread());
+			return Optional.of(user());
+		});
+
+		assertThat(userService.login(EMAIL, "secret").get(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(lookupThread.get()).isNotNull().isNotSameAs(Thread.currentThread());
+	}
+
+	@Test
+	void rejectsAWrongPasswordAndAnUnknownEmail() throws Exception {
+		when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user()));
+		when(userRepository.findByEmail("nobody@example.com")).thenReturn(Optional.empty());
+
+		assertThat(userService.login(EMAIL, "wrong").get(5, TimeUnit.SECONDS)).isFalse();
+		assertThat(userService.login("nobody@example.com", "secret").get(5, TimeUnit.SECONDS)).isFalse();
+	}
+
+	@Test
+	void failsWithRejectedExecutionWhenHashingIsSaturated() {
+		when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user()));
+		Executor saturated = command -> {
+			throw new RejectedExecutionException("saturated");
+		};
+		ReflectionTestUtils.setField(userService, "passwordHashingExecutor", saturated);
+
+		assertThatThrownBy(() -> userService.login(EMAIL, "secret").get(5, TimeUnit.SECONDS))
+				.isInstanceOf(ExecutionException.class)
+				.hasRootCauseInstanceOf(RejectedExecutionException.class);
+	}
+}